@@ -0,0 +1,197 @@
+package edu.ncsu.csc216.pack_scheduler.catalog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.TreeSet;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.course.roll.CourseRoll;
+
+/**
+ * Index of Courses by how many open seats they have and whether they have a
+ * waitlist. Courses are kept in buckets by their number of open seats, so
+ * finding the Courses with open seats or the Courses closest to full only looks
+ * at the buckets it needs instead of every Course in the catalog. The index is
+ * updated one Course at a time as their CourseRolls change. Each bucket is a
+ * sorted set, so adding or moving a Course takes O(log n) time and indexing a
+ * whole department is not quadratic.
+ *
+ * @author Will Pressler
+ *
+ */
+public class AvailabilityIndex {
+
+	/** Courses bucketed by open seats, bucket i holds the Courses with i open seats */
+	private List<TreeSet<Course>> openSeatBuckets;
+	/** Courses with at least one Student on their waitlist */
+	private TreeSet<Course> waitlisted;
+	/** Availability of each Course as of the last time it was indexed */
+	private IdentityHashMap<Course, Availability> availability;
+
+	/**
+	 * Constructs an empty AvailabilityIndex.
+	 */
+	public AvailabilityIndex() {
+		clear();
+	}
+
+	/**
+	 * Removes every Course from the index.
+	 */
+	public void clear() {
+		openSeatBuckets = new ArrayList<TreeSet<Course>>();
+		waitlisted = new TreeSet<Course>();
+		availability = new IdentityHashMap<Course, Availability>();
+	}
+
+	/**
+	 * Adds a Course to the index using the current state of its CourseRoll.
+	 *
+	 * @param c the Course to add
+	 */
+	public void addCourse(Course c) {
+		CourseRoll roll = c.getCourseRoll();
+		Availability a = new Availability(roll.getOpenSeats(), roll.getNumberOnWaitlist() > 0);
+		availability.put(c, a);
+		getBucket(a.openSeats).add(c);
+		if (a.hasWaitlist) {
+			waitlisted.add(c);
+		}
+	}
+
+	/**
+	 * Removes a Course from the index.
+	 *
+	 * @param c the Course to remove
+	 */
+	public void removeCourse(Course c) {
+		Availability a = availability.remove(c);
+		if (a != null) {
+			getBucket(a.openSeats).remove(c);
+			if (a.hasWaitlist) {
+				waitlisted.remove(c);
+			}
+		}
+	}
+
+	/**
+	 * Moves a Course in the index to match the current state of its CourseRoll.
+	 * Courses that are not in the index are ignored.
+	 *
+	 * @param c the Course whose roll changed
+	 * @return true if the Course's number of open seats changed
+	 */
+	public boolean updateCourse(Course c) {
+		Availability a = availability.get(c);
+		if (a == null) {
+			return false;
+		}
+
+		CourseRoll roll = c.getCourseRoll();
+		boolean hasWaitlist = roll.getNumberOnWaitlist() > 0;
+		if (hasWaitlist != a.hasWaitlist) {
+			if (hasWaitlist) {
+				waitlisted.add(c);
+			} else {
+				waitlisted.remove(c);
+			}
+			a.hasWaitlist = hasWaitlist;
+		}
+
+		int openSeats = roll.getOpenSeats();
+		if (openSeats == a.openSeats) {
+			return false;
+		}
+		getBucket(a.openSeats).remove(c);
+		getBucket(openSeats).add(c);
+		a.openSeats = openSeats;
+		return true;
+	}
+
+	/**
+	 * Returns every Course that has at least one open seat, in catalog order.
+	 *
+	 * @return list of Courses with open seats
+	 */
+	public List<Course> getCoursesWithOpenSeats() {
+		List<Course> courses = new ArrayList<Course>();
+		for (int seats = 1; seats < openSeatBuckets.size(); seats++) {
+			courses.addAll(openSeatBuckets.get(seats));
+		}
+		Collections.sort(courses);
+		return courses;
+	}
+
+	/**
+	 * Returns up to n Courses that still have open seats, with the fewest open
+	 * seats first. Courses with the same number of open seats are in catalog
+	 * order.
+	 *
+	 * @param n the most Courses to return
+	 * @return list of the Courses closest to full
+	 * @throws IllegalArgumentException if n is negative
+	 */
+	public List<Course> getCoursesClosestToFull(int n) {
+		if (n < 0) {
+			throw new IllegalArgumentException("Invalid number of courses.");
+		}
+
+		List<Course> courses = new ArrayList<Course>();
+		for (int seats = 1; seats < openSeatBuckets.size() && courses.size() < n; seats++) {
+			for (Course c : openSeatBuckets.get(seats)) {
+				if (courses.size() == n) {
+					break;
+				}
+				courses.add(c);
+			}
+		}
+		return courses;
+	}
+
+	/**
+	 * Returns every Course that has at least one Student on its waitlist, in
+	 * catalog order.
+	 *
+	 * @return list of Courses with a waitlist
+	 */
+	public List<Course> getCoursesWithWaitlist() {
+		return new ArrayList<Course>(waitlisted);
+	}
+
+	/**
+	 * Returns the bucket for Courses with the given number of open seats, adding
+	 * empty buckets if the list of buckets is not long enough yet.
+	 *
+	 * @param openSeats the number of open seats
+	 * @return the bucket for the number of open seats
+	 */
+	private TreeSet<Course> getBucket(int openSeats) {
+		while (openSeatBuckets.size() <= openSeats) {
+			openSeatBuckets.add(new TreeSet<Course>());
+		}
+		return openSeatBuckets.get(openSeats);
+	}
+
+	/**
+	 * The open seats and waitlist state of a Course when it was last indexed.
+	 */
+	private static class Availability {
+		/** Number of open seats in the Course */
+		private int openSeats;
+		/** Whether the Course has any Students on its waitlist */
+		private boolean hasWaitlist;
+
+		/**
+		 * Creates the availability of a Course.
+		 *
+		 * @param openSeats   number of open seats in the Course
+		 * @param hasWaitlist whether the Course has a waitlist
+		 */
+		Availability(int openSeats, boolean hasWaitlist) {
+			this.openSeats = openSeats;
+			this.hasWaitlist = hasWaitlist;
+		}
+	}
+}
@@ -0,0 +1,541 @@
+package edu.ncsu.csc216.pack_scheduler.catalog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.course.roll.CourseRollListener;
+
+/**
+ * The Courses of a single department in the CourseCatalog, such as every CSC
+ * Course. Each partition has its own sorted list, indexes, and read/write lock,
+ * so changes to one department never wait on another department. After every
+ * change, the partition updates its CatalogSnapshot and tells the catalog so
+ * that it can publish a new snapshot of the whole catalog. Only the display
+ * rows of the Courses that changed are built again; every other row is shared
+ * with the previous snapshot.
+ *
+ * @author Will Pressler
+ *
+ */
+class CatalogPartition {
+
+	/** Lock that guards every field of the partition except segment */
+	private final ReentrantReadWriteLock lock;
+	/** Version counter shared by every partition of the catalog */
+	private final AtomicInteger version;
+	/** Called after every change to the partition, outside of its lock */
+	private volatile Runnable onChange;
+	/** Listener that updates the partition when a course's roll changes */
+	private final CourseRollListener rollListener;
+	/** Sorted list of the department's Courses */
+	private ArrayList<Course> courses;
+	/** Index of the Courses keyed by name and section */
+	private HashMap<String, Course> courseIndex;
+	/** Index of the Courses by their meeting days and times */
+	private MeetingTimeIndex meetingTimeIndex;
+	/** Index of the Courses by their open seats and waitlists */
+	private AvailabilityIndex availabilityIndex;
+	/** Version at which each Course's display row last changed */
+	private HashMap<String, Integer> rowVersions;
+	/** Version at which each Course was removed from the partition */
+	private HashMap<String, Integer> removedVersions;
+	/** Snapshot of the partition as of its last change */
+	private volatile CatalogSnapshot segment;
+
+	/**
+	 * Creates an empty partition.
+	 *
+	 * @param version  the catalog's version counter
+	 * @param onChange called after every change to the partition
+	 */
+	CatalogPartition(AtomicInteger version, Runnable onChange) {
+		this.lock = new ReentrantReadWriteLock();
+		this.version = version;
+		this.onChange = onChange;
+		this.rollListener = new PartitionRollListener();
+		this.courses = new ArrayList<Course>();
+		this.courseIndex = new HashMap<String, Course>();
+		this.meetingTimeIndex = new MeetingTimeIndex();
+		this.availabilityIndex = new AvailabilityIndex();
+		this.rowVersions = new HashMap<String, Integer>();
+		this.removedVersions = new HashMap<String, Integer>();
+		this.segment = new CatalogSnapshot(courses, new String[0][], version.get());
+	}
+
+	/**
+	 * Returns the snapshot of the partition as of its last change.
+	 *
+	 * @return the partition's snapshot
+	 */
+	CatalogSnapshot getSegment() {
+		return segment;
+	}
+
+	/**
+	 * Returns the Course with the given key, or null if it is not in the
+	 * partition.
+	 *
+	 * @param key the Course's name and section key
+	 * @return the Course, or null if there is none
+	 */
+	Course getCourse(String key) {
+		lock.readLock().lock();
+		try {
+			return courseIndex.get(key);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds a Course to the partition if there is not already a Course with the
+	 * same name and section.
+	 *
+	 * @param c the Course to add
+	 * @return true if the Course was added
+	 */
+	boolean addCourse(Course c) {
+		String key = getCourseKey(c.getName(), c.getSection());
+		lock.writeLock().lock();
+		try {
+			if (courseIndex.containsKey(key)) {
+				return false;
+			}
+			int index = insertionPoint(c);
+			courses.add(index, c);
+			indexCourse(c);
+			removedVersions.remove(key);
+			rowVersions.put(key, version.incrementAndGet());
+			String[][] old = segment.getDisplayRows();
+			String[][] rows = new String[old.length + 1][];
+			System.arraycopy(old, 0, rows, 0, index);
+			rows[index] = c.getShortDisplayArray();
+			System.arraycopy(old, index, rows, index + 1, old.length - index);
+			segment = new CatalogSnapshot(courses, rows, version.get());
+		} finally {
+			lock.writeLock().unlock();
+		}
+		onChange.run();
+		return true;
+	}
+
+	/**
+	 * Adds a group of Courses to the partition at once. The group is sorted once
+	 * and merged with the partition's Courses in a single pass. A Course is
+	 * rejected if a Course with the same name and section is already in the
+	 * partition or comes earlier in the group. The whole group counts as one
+	 * change to the catalog's version.
+	 *
+	 * @param group the Courses to add
+	 * @return the rejected Courses, in the order they were given
+	 */
+	List<Course> addCourses(List<Course> group) {
+		List<Course> rejected = new ArrayList<Course>();
+		lock.writeLock().lock();
+		try {
+			List<Course> accepted = new ArrayList<Course>(group.size());
+			HashMap<String, Course> groupIndex = new HashMap<String, Course>();
+			for (Course c : group) {
+				String key = getCourseKey(c.getName(), c.getSection());
+				if (courseIndex.containsKey(key) || groupIndex.put(key, c) != null) {
+					rejected.add(c);
+				} else {
+					accepted.add(c);
+				}
+			}
+			if (accepted.isEmpty()) {
+				return rejected;
+			}
+
+			Collections.sort(accepted);
+			ArrayList<Course> merged = new ArrayList<Course>(courses.size() + accepted.size());
+			String[][] old = segment.getDisplayRows();
+			String[][] rows = new String[courses.size() + accepted.size()][];
+			int i = 0;
+			int j = 0;
+			while (i < courses.size() || j < accepted.size()) {
+				if (j == accepted.size() || i < courses.size() && courses.get(i).compareTo(accepted.get(j)) < 0) {
+					rows[merged.size()] = old[i];
+					merged.add(courses.get(i++));
+				} else {
+					rows[merged.size()] = accepted.get(j).getShortDisplayArray();
+					merged.add(accepted.get(j++));
+				}
+			}
+			courses = merged;
+
+			int changed = version.incrementAndGet();
+			for (Course c : accepted) {
+				String key = getCourseKey(c.getName(), c.getSection());
+				indexCourse(c);
+				removedVersions.remove(key);
+				rowVersions.put(key, changed);
+			}
+			segment = new CatalogSnapshot(courses, rows, version.get());
+		} finally {
+			lock.writeLock().unlock();
+		}
+		onChange.run();
+		return rejected;
+	}
+
+	/**
+	 * Removes the Course with the given key from the partition.
+	 *
+	 * @param key the Course's name and section key
+	 * @return true if the Course was removed, false if it was not in the partition
+	 */
+	boolean removeCourse(String key) {
+		lock.writeLock().lock();
+		try {
+			Course c = courseIndex.get(key);
+			if (c == null) {
+				return false;
+			}
+			int index = indexOf(c);
+			courses.remove(index);
+			unindexCourse(c);
+			rowVersions.remove(key);
+			removedVersions.put(key, version.incrementAndGet());
+			String[][] old = segment.getDisplayRows();
+			String[][] rows = new String[old.length - 1][];
+			System.arraycopy(old, 0, rows, 0, index);
+			System.arraycopy(old, index + 1, rows, index, rows.length - index);
+			segment = new CatalogSnapshot(courses, rows, version.get());
+		} finally {
+			lock.writeLock().unlock();
+		}
+		onChange.run();
+		return true;
+	}
+
+	/**
+	 * Replaces what is called after every change to the partition, such as once a
+	 * partition built for a new catalog has been swapped in.
+	 *
+	 * @param onChange called after every change to the partition
+	 */
+	void attach(Runnable onChange) {
+		this.onChange = onChange;
+	}
+
+	/**
+	 * Stops listening to the rolls of every Course in the partition, once the
+	 * partition is no longer part of the catalog.
+	 */
+	void detach() {
+		lock.writeLock().lock();
+		try {
+			for (Course c : courses) {
+				c.getCourseRoll().setListener(null);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns every Course in the partition whose name starts with the given
+	 * prefix, in catalog order.
+	 *
+	 * @param prefix the start of the Course names to find
+	 * @return list of Courses whose name starts with prefix
+	 */
+	List<Course> getCoursesByPrefix(String prefix) {
+		lock.readLock().lock();
+		try {
+			List<Course> found = new ArrayList<Course>();
+			for (int i = lowerBound(prefix); i < courses.size(); i++) {
+				Course c = courses.get(i);
+				if (!c.getName().startsWith(prefix)) {
+					break;
+				}
+				found.add(c);
+			}
+			return found;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the Courses in the partition that meet on the given day for any
+	 * part of the window between startTime and endTime, in catalog order.
+	 *
+	 * @param day       the meeting day
+	 * @param startTime the start of the window in military format
+	 * @param endTime   the end of the window in military format
+	 * @return list of Courses meeting during the window
+	 * @throws IllegalArgumentException if the day or either time is invalid
+	 */
+	List<Course> getCoursesMeetingBetween(char day, int startTime, int endTime) {
+		lock.readLock().lock();
+		try {
+			return meetingTimeIndex.getCoursesMeetingBetween(day, startTime, endTime);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the Courses in the partition with arranged meeting times.
+	 *
+	 * @return list of arranged Courses
+	 */
+	List<Course> getArrangedCourses() {
+		lock.readLock().lock();
+		try {
+			return meetingTimeIndex.getArrangedCourses();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the Courses in the partition with at least one open seat.
+	 *
+	 * @return list of Courses with open seats
+	 */
+	List<Course> getCoursesWithOpenSeats() {
+		lock.readLock().lock();
+		try {
+			return availabilityIndex.getCoursesWithOpenSeats();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns up to n Courses in the partition that still have open seats, with
+	 * the fewest open seats first.
+	 *
+	 * @param n the most Courses to return
+	 * @return list of the Courses closest to full
+	 */
+	List<Course> getCoursesClosestToFull(int n) {
+		lock.readLock().lock();
+		try {
+			return availabilityIndex.getCoursesClosestToFull(n);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the Courses in the partition with at least one Student on their
+	 * waitlist.
+	 *
+	 * @return list of Courses with a waitlist
+	 */
+	List<Course> getCoursesWithWaitlist() {
+		lock.readLock().lock();
+		try {
+			return availabilityIndex.getCoursesWithWaitlist();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds the display rows of the Courses that changed after the given version
+	 * to the end of a list, in catalog order.
+	 *
+	 * @param sinceVersion the version the caller last saw
+	 * @param changes      the list to add the rows to
+	 */
+	void getChanges(int sinceVersion, List<String[]> changes) {
+		lock.readLock().lock();
+		try {
+			// the segment is updated before the write lock is released, so its rows
+			// match the partition while the read lock is held
+			CatalogSnapshot current = segment;
+			String[][] rows = current.getDisplayRows();
+			for (int i = 0; i < rows.length; i++) {
+				Integer rowVersion = rowVersions.get(getCourseKey(rows[i][0], rows[i][1]));
+				if (rowVersion != null && rowVersion > sinceVersion) {
+					changes.add(rows[i]);
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds the name and section of every Course removed after the given version
+	 * to the end of a list.
+	 *
+	 * @param sinceVersion the version the caller last saw
+	 * @param removed      the list to add the name and section rows to
+	 */
+	void getRemoved(int sinceVersion, List<String[]> removed) {
+		lock.readLock().lock();
+		try {
+			for (String key : removedVersions.keySet()) {
+				if (removedVersions.get(key) > sinceVersion) {
+					removed.add(key.split(","));
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the department of a Course name, which is every letter before the
+	 * first digit. For example, the department of "CSC216" is "CSC".
+	 *
+	 * @param name the Course's name
+	 * @return the Course's department
+	 */
+	static String getDepartment(String name) {
+		int i = 0;
+		while (i < name.length() && !Character.isDigit(name.charAt(i))) {
+			i++;
+		}
+		return name.substring(0, i);
+	}
+
+	/**
+	 * Returns the key used to index a Course by its name and section. Course names
+	 * and sections never contain a comma, so joining them with one keeps every key
+	 * unique.
+	 *
+	 * @param name    Course's name
+	 * @param section Course's section
+	 * @return the index key for the name and section
+	 */
+	static String getCourseKey(String name, String section) {
+		return name + "," + section;
+	}
+
+	/**
+	 * Adds a Course that is in the partition to each of the indexes and starts
+	 * listening for changes to its roll.
+	 *
+	 * @param c the Course to index
+	 */
+	private void indexCourse(Course c) {
+		courseIndex.put(getCourseKey(c.getName(), c.getSection()), c);
+		meetingTimeIndex.addCourse(c);
+		availabilityIndex.addCourse(c);
+		c.getCourseRoll().setListener(rollListener);
+	}
+
+	/**
+	 * Removes a Course from each of the indexes and stops listening for changes to
+	 * its roll.
+	 *
+	 * @param c the Course to remove from the indexes
+	 */
+	private void unindexCourse(Course c) {
+		String key = getCourseKey(c.getName(), c.getSection());
+		courseIndex.remove(key);
+		meetingTimeIndex.removeCourse(c);
+		availabilityIndex.removeCourse(c);
+		c.getCourseRoll().setListener(null);
+	}
+
+	/**
+	 * Finds the position of the first Course in the partition whose name is not
+	 * less than the given name.
+	 *
+	 * @param name the name to search for
+	 * @return the index of the first Course not before name, or the size of the
+	 *         partition if every Course comes before it
+	 */
+	private int lowerBound(String name) {
+		int low = 0;
+		int high = courses.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (courses.get(mid).getName().compareTo(name) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Finds the position in the partition where a Course that is not in it
+	 * belongs.
+	 *
+	 * @param c the Course to find the position of
+	 * @return the index of the first Course that comes after c
+	 */
+	private int insertionPoint(Course c) {
+		int low = 0;
+		int high = courses.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (courses.get(mid).compareTo(c) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Finds the position of a Course in the partition with a binary search on the
+	 * Course's name and section.
+	 *
+	 * @param c the Course to find
+	 * @return the index of the Course, or -1 if it is not in the partition
+	 */
+	private int indexOf(Course c) {
+		int low = 0;
+		int high = courses.size() - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = courses.get(mid).compareTo(c);
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Listens to the rolls of the Courses in the partition so that the
+	 * availability index, version, and display rows are updated when a Course's
+	 * roll changes.
+	 */
+	private class PartitionRollListener implements CourseRollListener {
+
+		/**
+		 * Updates the Course in the availability index, and rebuilds its display
+		 * row if its open seats changed. The row is found with a binary search, and
+		 * every other row is kept.
+		 *
+		 * @param course the Course whose roll changed
+		 */
+		@Override
+		public void rollChanged(Course course) {
+			String key = getCourseKey(course.getName(), course.getSection());
+			lock.writeLock().lock();
+			try {
+				if (courseIndex.get(key) != course || !availabilityIndex.updateCourse(course)) {
+					return;
+				}
+				rowVersions.put(key, version.incrementAndGet());
+				segment = segment.withRow(indexOf(course), course.getShortDisplayArray(), version.get());
+			} finally {
+				lock.writeLock().unlock();
+			}
+			onChange.run();
+		}
+	}
+}
@@ -0,0 +1,243 @@
+package edu.ncsu.csc216.pack_scheduler.catalog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+
+/**
+ * An immutable view of the CourseCatalog at a single version. The catalog
+ * publishes a new snapshot every time it changes, so a snapshot can be read by
+ * any number of threads without locking and never shows a change that is only
+ * partly done. The list of Courses and their display rows never change once
+ * the snapshot is built, but the Course objects are the same ones that are in
+ * the catalog, so their rolls can still change.
+ *
+ * Each department partition of the catalog keeps its own snapshot, and the
+ * snapshot of the whole catalog is made of the partitions' snapshots in
+ * department order. The Courses and rows of a combined snapshot are only
+ * joined into a single list the first time they are read.
+ *
+ * @author Will Pressler
+ *
+ */
+public final class CatalogSnapshot {
+
+	/** Courses in the catalog, in sorted order, or null until they are joined */
+	private volatile List<Course> courses;
+	/** Display row of each Course, in the same order as courses */
+	private volatile String[][] rows;
+	/** Snapshots of the partitions that make up this snapshot, or null if there are none */
+	private final List<CatalogSnapshot> segments;
+	/** Version of the catalog that the snapshot was taken at */
+	private final int version;
+
+	/**
+	 * Creates a snapshot of the given Courses and display rows. The list and array
+	 * are copied so that later changes to them do not change the snapshot.
+	 *
+	 * @param courses the Courses in the catalog, in sorted order
+	 * @param rows    the display row of each Course
+	 * @param version the version of the catalog
+	 */
+	CatalogSnapshot(List<Course> courses, String[][] rows, int version) {
+		this.courses = Collections.unmodifiableList(new ArrayList<Course>(courses));
+		this.rows = rows.clone();
+		this.segments = null;
+		this.version = version;
+	}
+
+	/**
+	 * Creates a snapshot of the same Courses as another snapshot, with the display
+	 * row at one position replaced. The list of Courses is shared, since neither
+	 * snapshot can change it.
+	 *
+	 * @param base    the snapshot to copy
+	 * @param index   position of the row to replace
+	 * @param row     the new display row
+	 * @param version the version of the catalog
+	 */
+	private CatalogSnapshot(CatalogSnapshot base, int index, String[] row, int version) {
+		String[][] changed = base.getDisplayRows().clone();
+		changed[index] = row;
+		this.courses = base.getCourses();
+		this.rows = changed;
+		this.segments = null;
+		this.version = version;
+	}
+
+	/**
+	 * Creates a snapshot made of the snapshots of each partition. The partitions'
+	 * snapshots must be in department order.
+	 *
+	 * @param segments the snapshots of the partitions
+	 * @param version  the version of the catalog
+	 */
+	CatalogSnapshot(List<CatalogSnapshot> segments, int version) {
+		this.segments = new ArrayList<CatalogSnapshot>(segments);
+		this.version = version;
+	}
+
+	/**
+	 * Returns the version of the catalog that the snapshot was taken at.
+	 *
+	 * @return the snapshot's version
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns the number of Courses in the snapshot.
+	 *
+	 * @return the number of Courses
+	 */
+	public int size() {
+		return getCourses().size();
+	}
+
+	/**
+	 * Returns the Courses in the snapshot in sorted order. The list cannot be
+	 * modified.
+	 *
+	 * @return unmodifiable list of the Courses
+	 */
+	public List<Course> getCourses() {
+		List<Course> joined = courses;
+		if (joined == null) {
+			join();
+			joined = courses;
+		}
+		return joined;
+	}
+
+	/**
+	 * Returns the Course with the given name and section, or null if it was not in
+	 * the catalog when the snapshot was taken.
+	 *
+	 * @param name    Course's name
+	 * @param section Course's section
+	 * @return the Course, or null if there is none
+	 */
+	public Course getCourseFromCatalog(String name, String section) {
+		List<Course> courses = getCourses();
+		int low = 0;
+		int high = courses.size() - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			Course c = courses.get(mid);
+			int cmp = c.getName().compareTo(name);
+			if (cmp == 0) {
+				cmp = c.getSection().compareTo(section);
+			}
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return c;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns a query over the Courses in the snapshot.
+	 *
+	 * @return a new query for every Course in the snapshot
+	 */
+	public CourseQuery query() {
+		return new CourseQuery(this);
+	}
+
+	/**
+	 * Returns a 2D string array of the snapshot in the same format as
+	 * CourseCatalog.getCourseCatalog(). Each call returns a new copy, so the
+	 * caller is free to modify it.
+	 *
+	 * @return array with a display row for each Course
+	 */
+	public String[][] getCourseCatalog() {
+		String[][] rows = getDisplayRows();
+		String[][] copy = new String[rows.length][];
+		for (int i = 0; i < rows.length; i++) {
+			copy[i] = rows[i].clone();
+		}
+		return copy;
+	}
+
+	/**
+	 * Returns the shared display array of the snapshot without copying it, for
+	 * the catalog to hand to callers that promise not to modify it.
+	 *
+	 * @return the snapshot's display rows
+	 */
+	String[][] getDisplayRows() {
+		String[][] joined = rows;
+		if (joined == null) {
+			join();
+			joined = rows;
+		}
+		return joined;
+	}
+
+	/**
+	 * Returns a snapshot of the same Courses with the display row at one position
+	 * replaced, such as after a Course's roll changed. Only the array of rows is
+	 * copied.
+	 *
+	 * @param index   position of the Course whose row changed
+	 * @param row     the Course's new display row
+	 * @param version the version of the catalog
+	 * @return the new snapshot
+	 */
+	CatalogSnapshot withRow(int index, String[] row, int version) {
+		return new CatalogSnapshot(this, index, row, version);
+	}
+
+	/**
+	 * Finds the position of the first Course in the snapshot whose name is not
+	 * less than the given name.
+	 *
+	 * @param name the name to search for
+	 * @return the index of the first Course not before name, or the size of the
+	 *         snapshot if every Course comes before it
+	 */
+	int lowerBound(String name) {
+		List<Course> courses = getCourses();
+		int low = 0;
+		int high = courses.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (courses.get(mid).getName().compareTo(name) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Joins the Courses and rows of the partitions' snapshots into a single list
+	 * and array. If two threads join at the same time, both build the same
+	 * contents and either result can be kept.
+	 */
+	private void join() {
+		List<Course> joined = new ArrayList<Course>();
+		for (CatalogSnapshot segment : segments) {
+			joined.addAll(segment.getCourses());
+		}
+		String[][] joinedRows = new String[joined.size()][];
+		int i = 0;
+		for (CatalogSnapshot segment : segments) {
+			String[][] segmentRows = segment.getDisplayRows();
+			System.arraycopy(segmentRows, 0, joinedRows, i, segmentRows.length);
+			i += segmentRows.length;
+		}
+		// rows is written first so that a thread that sees courses also sees rows
+		rows = joinedRows;
+		courses = Collections.unmodifiableList(joined);
+	}
+}
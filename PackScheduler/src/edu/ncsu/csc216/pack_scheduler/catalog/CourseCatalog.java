@@ -4,10 +4,24 @@
 package edu.ncsu.csc216.pack_scheduler.catalog;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.io.CourseLoadSummary;
 import edu.ncsu.csc216.pack_scheduler.io.CourseRecordIO;
-import edu.ncsu.csc217.collections.list.SortedList;
+import edu.ncsu.csc216.pack_scheduler.io.ParallelRecordLoader;
+import edu.ncsu.csc216.pack_scheduler.io.RecordChangeLog;
+import edu.ncsu.csc216.pack_scheduler.user.Faculty;
 
 /**
  * Creates a Catalog of Course objects. Can load in courses to the Catalog from
@@ -15,41 +29,122 @@ import edu.ncsu.csc217.collections.list.SortedList;
  * gets a specific Course from the Catalog or the entire Catalog. Also saves the
  * Catalog to a text file.
  * 
+ * The catalog has a version that increases every time a Course is added or
+ * removed, or a Course's open seats change. The display rows returned by
+ * getCourseCatalog() are cached until the version changes, and callers that
+ * remember the version can ask for only the rows that changed since then.
+ * 
+ * Many Courses can be added at once with addCoursesToCatalog(). The batch is
+ * sorted once and merged with the catalog in a single pass, instead of
+ * inserting each Course into its place one at a time.
+ * 
+ * The Courses are kept in a CatalogPartition for each department, found from
+ * the letters at the start of the Course's name. Each partition has its own
+ * read/write lock, so changes and queries in different departments do not
+ * wait on each other. Departments sort in the same order as the names of
+ * their Courses, so putting the partitions next to each other in department
+ * order gives the whole catalog in order. After each change, the catalog
+ * publishes a new immutable CatalogSnapshot made of the partitions'
+ * snapshots. Readers that only browse the catalog can call getSnapshot() and
+ * never wait on a change in progress.
+ * 
  * @author Will Pressler
  *
  */
 public class CourseCatalog {
 
-	/** Sorted list of courses that makes up the course catalog */
-	private SortedList<Course> catalog;
-
+	/** Change callback of partitions that have not been swapped in yet */
+	private static final Runnable NO_PUBLISH = () -> {
+	};
+	/** Partition of the catalog for each department, in department order */
+	private volatile ConcurrentSkipListMap<String, CatalogPartition> partitions;
+	/** Current version of the catalog */
+	private final AtomicInteger version;
+	/** Version at which the catalog was last cleared or loaded from a file */
+	private volatile int resetVersion;
+	/** Latest published snapshot of the catalog */
+	private final AtomicReference<CatalogSnapshot> snapshot;
+	/** Lock that keeps readers and changes from seeing a reset that is half done */
+	private final ReentrantReadWriteLock resetLock;
+	/** Courses added, changed, or removed since the catalog was loaded or saved */
+	private final RecordChangeLog<Course> changes;
 
 	/**
 	 * Constructor for an empty course catalog.
 	 */
 	public CourseCatalog() {
-		this.catalog = new SortedList<Course>();
+		this.version = new AtomicInteger();
+		this.snapshot = new AtomicReference<CatalogSnapshot>();
+		this.resetLock = new ReentrantReadWriteLock();
+		this.changes = new RecordChangeLog<Course>();
+		newCourseCatalog();
 	}
 
 	/**
 	 * Creates an empty course catalog when called.
 	 */
-	public void newCourseCatalog() {
-		this.catalog = new SortedList<Course>();
+	public synchronized void newCourseCatalog() {
+		resetCatalog(new ArrayList<Course>(), null);
 	}
 
 	/**
-	 * Loads in courses from a file to populate the course catalog.
+	 * Loads in courses from a file to populate the course catalog. If the file has
+	 * more than one Course with the same name and section, only the first is
+	 * loaded.
 	 * 
 	 * @param filename the filename with courses
 	 * @throws IllegalArgumentException if the file cannot be found
 	 */
-	public void loadCoursesFromFile(String filename) {
+	public synchronized void loadCoursesFromFile(String filename) {
+		List<Course> courses;
 		try {
-			this.catalog = CourseRecordIO.readCourseRecords(filename);
+			courses = ParallelRecordLoader.readCourseList(filename);
 		} catch (Exception e) {
 			throw new IllegalArgumentException("Cannot find file.");
 		}
+		resetCatalog(courses, filename);
+	}
+
+	/**
+	 * Loads in courses from a file to populate the course catalog, linking each
+	 * Course to its instructor after the whole file has been read. If the file has
+	 * more than one Course with the same name and section, only the first is
+	 * loaded. Courses whose instructor is not among the given faculty, or cannot
+	 * take them, are loaded without an instructor and listed in the summary.
+	 * 
+	 * @param filename the filename with courses
+	 * @param faculty  the faculty to assign the courses to
+	 * @return a summary of the load, including any unresolved instructors
+	 * @throws IllegalArgumentException if faculty is null or the file cannot be
+	 *                                  found
+	 */
+	public synchronized CourseLoadSummary loadCoursesFromFile(String filename, Collection<Faculty> faculty) {
+		if (faculty == null) {
+			throw new IllegalArgumentException("Invalid faculty.");
+		}
+		CourseLoadSummary summary;
+		try {
+			summary = ParallelRecordLoader.readCourseList(filename, faculty);
+		} catch (Exception e) {
+			throw new IllegalArgumentException("Cannot find file.");
+		}
+		resetCatalog(summary.getCourses(), filename);
+		return summary;
+	}
+
+	/**
+	 * Replaces every Course in the catalog with the given Courses, such as the
+	 * ones read from a snapshot. If more than one Course has the same name and
+	 * section, only the first is kept.
+	 * 
+	 * @param courses the Courses of the new catalog
+	 * @throws IllegalArgumentException if courses is null or contains null
+	 */
+	public synchronized void loadCourses(List<Course> courses) {
+		if (courses == null || courses.contains(null)) {
+			throw new IllegalArgumentException("Invalid courses.");
+		}
+		resetCatalog(courses, null);
 	}
 
 	/**
@@ -72,14 +167,67 @@ public class CourseCatalog {
 			String meetingDays, int startTime, int endTime) {
 
 		Course c = new Course(name, title, section, credits, instructorId, enrollmentCap, meetingDays, startTime, endTime);
+		// held so a reset cannot swap the partitions out from under the change
+		resetLock.readLock().lock();
+		try {
+			if (getOrCreatePartition(partitions, c, this::publish).addCourse(c)) {
+				changes.changed(getChangeKey(name, section), c);
+				return true;
+			}
+			return false;
+		} finally {
+			resetLock.readLock().unlock();
+		}
+	}
 
-		for (int i = 0; i < catalog.size(); i++) {
-			if (c.getName().equals(catalog.get(i).getName()) && c.getSection().equals(catalog.get(i).getSection())) {
-				return false;
+	/**
+	 * Adds a batch of Courses to the catalog at once. A Course is rejected if a
+	 * Course with the same name and section is already in the catalog or comes
+	 * earlier in the batch. The accepted Courses are sorted once and merged with
+	 * the catalog in a single pass, so adding n Courses to a catalog of m Courses
+	 * takes O(n log n + m) time instead of an insert into the middle of the
+	 * catalog for each Course. The Courses of each department in the batch count
+	 * as one change to the catalog's version.
+	 * 
+	 * @param courses the Courses to add
+	 * @return the Courses that were rejected as duplicates, in the order they
+	 *         were given
+	 * @throws IllegalArgumentException if courses is null or contains null
+	 */
+	public List<Course> addCoursesToCatalog(List<Course> courses) {
+		if (courses == null || courses.contains(null)) {
+			throw new IllegalArgumentException("Invalid courses.");
+		}
+
+		Map<String, List<Course>> groups = groupByDepartment(courses);
+		Map<String, List<Course>> rejectedByDepartment = new TreeMap<String, List<Course>>();
+		List<Course> rejected = new ArrayList<Course>();
+		// held so a reset cannot swap the partitions out from under the changes
+		resetLock.readLock().lock();
+		try {
+			for (Map.Entry<String, List<Course>> group : groups.entrySet()) {
+				CatalogPartition partition = getOrCreatePartition(partitions, group.getValue().get(0), this::publish);
+				rejectedByDepartment.put(group.getKey(), partition.addCourses(group.getValue()));
+			}
+
+			// each department's rejected Courses are in the order they were given, so
+			// they can be put back in the order of the whole batch
+			Map<String, Integer> next = new TreeMap<String, Integer>();
+			for (Course c : courses) {
+				String department = CatalogPartition.getDepartment(c.getName());
+				List<Course> departmentRejected = rejectedByDepartment.get(department);
+				int i = next.containsKey(department) ? next.get(department) : 0;
+				if (i < departmentRejected.size() && departmentRejected.get(i) == c) {
+					rejected.add(c);
+					next.put(department, i + 1);
+				} else {
+					changes.changed(getChangeKey(c.getName(), c.getSection()), c);
+				}
 			}
+		} finally {
+			resetLock.readLock().unlock();
 		}
-		catalog.add(c);
-		return true;
+		return rejected;
 	}
 
 	/**
@@ -91,14 +239,40 @@ public class CourseCatalog {
 	 * @return boolean true if the course removal was successful
 	 */
 	public boolean removeCourseFromCatalog(String name, String section) {
-		for (int i = 0; i < catalog.size(); i++) {
-			Course c = catalog.get(i);
-			if (c.getName().equals(name) && c.getSection().equals(section)) {
-				catalog.remove(i);
+		resetLock.readLock().lock();
+		try {
+			CatalogPartition partition = getPartition(name);
+			if (partition != null && partition.removeCourse(CatalogPartition.getCourseKey(name, section))) {
+				changes.removed(getChangeKey(name, section));
 				return true;
 			}
+			return false;
+		} finally {
+			resetLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Records that the Course with the given name and section was changed, such
+	 * as by being given an instructor, so the next saveCourseCatalogChanges()
+	 * saves it.
+	 * 
+	 * @param name    the name of the changed Course
+	 * @param section the section of the changed Course
+	 * @return true if the Course is in the catalog
+	 */
+	public boolean markCourseChanged(String name, String section) {
+		resetLock.readLock().lock();
+		try {
+			Course c = getCourseFromCatalog(name, section);
+			if (c == null) {
+				return false;
+			}
+			changes.changed(getChangeKey(name, section), c);
+			return true;
+		} finally {
+			resetLock.readLock().unlock();
 		}
-		return false;
 	}
 
 	/**
@@ -109,38 +283,262 @@ public class CourseCatalog {
 	 * @return Course specified by name and section
 	 */
 	public Course getCourseFromCatalog(String name, String section) {
-		for (int i = 0; i < catalog.size(); i++) {
-			if (name.equals(catalog.get(i).getName()) && section.equals(catalog.get(i).getSection())) {
-				return catalog.get(i);
+		CatalogPartition partition = getPartition(name);
+		return partition == null ? null : partition.getCourse(CatalogPartition.getCourseKey(name, section));
+	}
+
+	/**
+	 * Returns every Course whose name starts with the given prefix, in catalog
+	 * order. For example, "CSC2" returns all sections of CSC216, CSC217, and
+	 * CSC230. Because the catalog is sorted by name, the matching Courses are next
+	 * to each other, so only the first match has to be searched for. If the prefix
+	 * reaches past the letters of the name, only one department is searched.
+	 * 
+	 * @param prefix the start of the Course names to find
+	 * @return list of Courses whose name starts with prefix
+	 * @throws IllegalArgumentException if prefix is null
+	 */
+	public List<Course> getCoursesByPrefix(String prefix) {
+		if (prefix == null) {
+			throw new IllegalArgumentException("Invalid prefix.");
+		}
+
+		ConcurrentSkipListMap<String, CatalogPartition> current = partitions;
+		List<Course> courses = new ArrayList<Course>();
+		String department = CatalogPartition.getDepartment(prefix);
+		if (department.length() < prefix.length()) {
+			CatalogPartition partition = current.get(department);
+			if (partition != null) {
+				courses.addAll(partition.getCoursesByPrefix(prefix));
 			}
+			return courses;
 		}
 
-		return null;
+		// the prefix is only letters, so it can match more than one department
+		for (Map.Entry<String, CatalogPartition> entry : current.tailMap(prefix, true).entrySet()) {
+			if (!entry.getKey().startsWith(prefix)) {
+				break;
+			}
+			courses.addAll(entry.getValue().getCoursesByPrefix(prefix));
+		}
+		return courses;
+	}
+
+	/**
+	 * Returns every Course offered by the given department, in catalog order. A
+	 * Course is in a department when the letters in its name are exactly the
+	 * department, so "MA" returns MA141 but not MAE206.
+	 * 
+	 * @param department the letters of the department's Course names
+	 * @return list of Courses in the department
+	 * @throws IllegalArgumentException if department is null or empty
+	 */
+	public List<Course> getCoursesByDepartment(String department) {
+		if (department == null || department.length() == 0) {
+			throw new IllegalArgumentException("Invalid department.");
+		}
+
+		List<Course> courses = new ArrayList<Course>();
+		for (Course c : getCoursesByPrefix(department)) {
+			// a whole Course name, such as "CSC116", is not a department
+			String name = c.getName();
+			if (name.length() > department.length() && Character.isDigit(name.charAt(department.length()))) {
+				courses.add(c);
+			}
+		}
+		return courses;
+	}
+
+	/**
+	 * Returns the Courses that are meeting on the given day at the given time, in
+	 * catalog order.
+	 * 
+	 * @param day  the meeting day, one of 'M', 'T', 'W', 'H', or 'F'
+	 * @param time the time in military format
+	 * @return list of Courses meeting at the time
+	 * @throws IllegalArgumentException if the day or time is invalid
+	 */
+	public List<Course> getCoursesMeetingAt(char day, int time) {
+		return getCoursesMeetingBetween(day, time, time);
+	}
+
+	/**
+	 * Returns the Courses that meet on the given day for any part of the window
+	 * between startTime and endTime, in catalog order.
+	 * 
+	 * @param day       the meeting day, one of 'M', 'T', 'W', 'H', or 'F'
+	 * @param startTime the start of the window in military format
+	 * @param endTime   the end of the window in military format
+	 * @return list of Courses meeting during the window
+	 * @throws IllegalArgumentException if the day or either time is invalid, or
+	 *                                  if endTime is before startTime
+	 */
+	public List<Course> getCoursesMeetingBetween(char day, int startTime, int endTime) {
+		MeetingTimeIndex.checkWindow(day, startTime, endTime);
+		List<Course> courses = new ArrayList<Course>();
+		for (CatalogPartition partition : partitions.values()) {
+			courses.addAll(partition.getCoursesMeetingBetween(day, startTime, endTime));
+		}
+		return courses;
+	}
+
+	/**
+	 * Returns the Courses in the catalog with arranged meeting times, in catalog
+	 * order.
+	 * 
+	 * @return list of arranged Courses
+	 */
+	public List<Course> getArrangedCourses() {
+		List<Course> courses = new ArrayList<Course>();
+		for (CatalogPartition partition : partitions.values()) {
+			courses.addAll(partition.getArrangedCourses());
+		}
+		return courses;
+	}
+
+	/**
+	 * Returns every Course in the catalog with at least one open seat, in catalog
+	 * order.
+	 * 
+	 * @return list of Courses with open seats
+	 */
+	public List<Course> getCoursesWithOpenSeats() {
+		List<Course> courses = new ArrayList<Course>();
+		for (CatalogPartition partition : partitions.values()) {
+			courses.addAll(partition.getCoursesWithOpenSeats());
+		}
+		return courses;
+	}
+
+	/**
+	 * Returns up to n Courses that still have open seats, with the fewest open
+	 * seats first.
+	 * 
+	 * @param n the most Courses to return
+	 * @return list of the Courses closest to full
+	 * @throws IllegalArgumentException if n is negative
+	 */
+	public List<Course> getCoursesClosestToFull(int n) {
+		if (n < 0) {
+			throw new IllegalArgumentException("Invalid number of courses.");
+		}
+
+		// the closest n of the whole catalog are among the closest n of each
+		// department, and the sort keeps Courses with the same open seats in
+		// catalog order
+		List<Course> courses = new ArrayList<Course>();
+		for (CatalogPartition partition : partitions.values()) {
+			courses.addAll(partition.getCoursesClosestToFull(n));
+		}
+		Collections.sort(courses, Comparator.comparingInt(c -> c.getCourseRoll().getOpenSeats()));
+		return courses.size() > n ? new ArrayList<Course>(courses.subList(0, n)) : courses;
+	}
+
+	/**
+	 * Returns every Course in the catalog with at least one Student on its
+	 * waitlist, in catalog order.
+	 * 
+	 * @return list of Courses with a waitlist
+	 */
+	public List<Course> getCoursesWithWaitlist() {
+		List<Course> courses = new ArrayList<Course>();
+		for (CatalogPartition partition : partitions.values()) {
+			courses.addAll(partition.getCoursesWithWaitlist());
+		}
+		return courses;
 	}
 
 	/**
 	 * Returns a 2D string array of the catalog, has a row for each course and
-	 * columns for the name, section, and title. Returns an empty array if there are
-	 * no courses in the catalog.
+	 * columns for the name, section, title, meeting string, and open seats.
+	 * Returns an empty array if there are no courses in the catalog.
+	 * 
+	 * Each call returns a new outer array, so callers can reorder or replace its
+	 * rows. The rows themselves are cached by the latest snapshot and shared with
+	 * every caller until their Course changes, so callers must not modify the
+	 * cells of a row. Callers that need their own copy of the rows can use
+	 * getSnapshot().getCourseCatalog().
 	 * 
 	 * @return courseCatalog array with course name, section, and title
 	 */
 	public String[][] getCourseCatalog() {
-		// creates 2D array of courses
-		String[][] courseCatalog = new String[catalog.size()][4];
+		// the rows are never rewritten in place, so only the outer array is copied
+		return snapshot.get().getDisplayRows().clone();
+	}
 
-		// returns empty string if there are no courses
-		if (catalog.size() == 0) {
-			return courseCatalog;
-		}
+	/**
+	 * Returns the latest published snapshot of the catalog. The snapshot never
+	 * changes, and getting it does not wait on changes that are in progress.
+	 * 
+	 * @return the latest snapshot of the catalog
+	 */
+	public CatalogSnapshot getSnapshot() {
+		return snapshot.get();
+	}
 
-		// iterates through array and adds the courses to it
-		for (int i = 0; i < catalog.size(); i++) {
-			Course c = catalog.get(i);
-			courseCatalog[i] = c.getShortDisplayArray();
+	/**
+	 * Returns a query over the latest snapshot of the catalog. Filters and paging
+	 * can be set on the query, and its results are only read as they are used.
+	 * 
+	 * @return a new query for every Course in the catalog
+	 */
+	public CourseQuery query() {
+		return snapshot.get().query();
+	}
 
+	/**
+	 * Returns the current version of the catalog. The version increases every time
+	 * a Course is added or removed, or a Course's open seats change.
+	 * 
+	 * @return the catalog's version
+	 */
+	public int getVersion() {
+		return version.get();
+	}
+
+	/**
+	 * Returns the display rows of the Courses that were added or had their open
+	 * seats change after the given version, in catalog order. The rows are in the
+	 * same format as getCourseCatalog(). If the catalog has been cleared or loaded
+	 * from a file since the given version, every row is returned.
+	 * 
+	 * @param sinceVersion the version the caller last saw
+	 * @return array of the rows that changed since the version
+	 */
+	public String[][] getCourseCatalogChanges(int sinceVersion) {
+		resetLock.readLock().lock();
+		try {
+			int since = sinceVersion < resetVersion ? Integer.MIN_VALUE : sinceVersion;
+			List<String[]> changes = new ArrayList<String[]>();
+			for (CatalogPartition partition : partitions.values()) {
+				partition.getChanges(since, changes);
+			}
+			return changes.toArray(new String[changes.size()][]);
+		} finally {
+			resetLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the name and section of every Course removed from the catalog after
+	 * the given version that has not been added back since. Courses dropped by
+	 * clearing or reloading the catalog are not included, since callers get every
+	 * row from getCourseCatalogChanges() in that case.
+	 * 
+	 * @param sinceVersion the version the caller last saw
+	 * @return array of rows with the name and section of removed Courses
+	 */
+	public String[][] getRemovedCourses(int sinceVersion) {
+		resetLock.readLock().lock();
+		try {
+			List<String[]> removed = new ArrayList<String[]>();
+			for (CatalogPartition partition : partitions.values()) {
+				partition.getRemoved(sinceVersion, removed);
+			}
+			return removed.toArray(new String[removed.size()][]);
+		} finally {
+			resetLock.readLock().unlock();
 		}
-		return courseCatalog;
 	}
 
 	/**
@@ -152,11 +550,155 @@ public class CourseCatalog {
 	public void saveCourseCatalog(String fileName) {
 
 		try {
-			CourseRecordIO.writeCourseRecords(fileName, catalog);
+			changes.save(fileName, file -> CourseRecordIO.writeCourseRecords(file, snapshot.get().getCourses()));
+		} catch (IOException e) {
+			throw new IllegalArgumentException("The file cannot be saved.");
+		}
+	}
+
+	/**
+	 * Saves only the Courses that were added, changed, or removed since the
+	 * catalog was loaded from or saved to the file, by appending them to the
+	 * file's delta file. If the catalog was not loaded from or saved to the file,
+	 * or the delta file has grown large, every Course is written instead.
+	 * 
+	 * @param fileName the name of the file where the Course Catalog will be saved
+	 * @return true if only the changes were saved, or false if every Course was
+	 *         written
+	 * @throws IllegalArgumentException if the file cannot be saved
+	 */
+	public boolean saveCourseCatalogChanges(String fileName) {
+		try {
+			return changes.saveChanges(fileName,
+					file -> CourseRecordIO.writeCourseRecords(file, snapshot.get().getCourses()));
 		} catch (IOException e) {
 			throw new IllegalArgumentException("The file cannot be saved.");
 		}
 	}
 
+	/**
+	 * Returns the key of a Course in the delta file of the catalog's file.
+	 * 
+	 * @param name    the name of the Course
+	 * @param section the section of the Course
+	 * @return the key of the Course
+	 */
+	private static String getChangeKey(String name, String section) {
+		return name + "," + section;
+	}
+
+	/**
+	 * Replaces every Course in the catalog with the given Courses. The new
+	 * partitions are built before any reader can see them, and are swapped in all
+	 * at once. The version is increased after they are built so that callers with
+	 * an older version know to reload the whole catalog. The new partitions only
+	 * publish their changes once they have been swapped in, so building them does
+	 * not publish snapshots of the old partitions. Single-Course changes hold the
+	 * read side of the reset lock, so none of them can land in a partition that
+	 * is being swapped out, and the change log is reset along with the swap so
+	 * none of them is forgotten by it.
+	 * 
+	 * @param courses  the Courses that make up the new catalog
+	 * @param fileName the file the Courses were loaded from, or null if none
+	 */
+	private void resetCatalog(List<Course> courses, String fileName) {
+		ConcurrentSkipListMap<String, CatalogPartition> fresh = new ConcurrentSkipListMap<String, CatalogPartition>();
+		for (List<Course> group : groupByDepartment(courses).values()) {
+			getOrCreatePartition(fresh, group.get(0), NO_PUBLISH).addCourses(group);
+		}
+
+		ConcurrentSkipListMap<String, CatalogPartition> old;
+		resetLock.writeLock().lock();
+		try {
+			old = partitions;
+			partitions = fresh;
+			resetVersion = version.incrementAndGet();
+			changes.reset(fileName);
+			for (CatalogPartition partition : fresh.values()) {
+				partition.attach(this::publish);
+			}
+		} finally {
+			resetLock.writeLock().unlock();
+		}
+
+		if (old != null) {
+			for (CatalogPartition partition : old.values()) {
+				partition.detach();
+			}
+		}
+		publish();
+	}
+
+	/**
+	 * Builds a snapshot of the whole catalog from the partitions' snapshots and
+	 * publishes it for readers. If another change publishes at the same time, the
+	 * snapshot is built again so that the last one published has every change.
+	 */
+	private void publish() {
+		CatalogSnapshot previous;
+		CatalogSnapshot next;
+		do {
+			ConcurrentSkipListMap<String, CatalogPartition> current = partitions;
+			if (current == null) {
+				return;
+			}
+			previous = snapshot.get();
+			List<CatalogSnapshot> segments = new ArrayList<CatalogSnapshot>(current.size());
+			for (CatalogPartition partition : current.values()) {
+				segments.add(partition.getSegment());
+			}
+			next = new CatalogSnapshot(segments, version.get());
+		} while (!snapshot.compareAndSet(previous, next));
+	}
+
+	/**
+	 * Returns the partition for the department of the given Course name, or null
+	 * if there is no partition for it.
+	 * 
+	 * @param name the Course's name
+	 * @return the Course's partition, or null if there is none
+	 */
+	private CatalogPartition getPartition(String name) {
+		if (name == null) {
+			return null;
+		}
+		return partitions.get(CatalogPartition.getDepartment(name));
+	}
+
+	/**
+	 * Returns the partition for the department of the given Course, creating it
+	 * if there is not one yet.
+	 * 
+	 * @param map      the partitions to look in
+	 * @param c        the Course to find the partition of
+	 * @param onChange called after every change to a new partition
+	 * @return the Course's partition
+	 */
+	private CatalogPartition getOrCreatePartition(ConcurrentSkipListMap<String, CatalogPartition> map, Course c,
+			Runnable onChange) {
+		return map.computeIfAbsent(CatalogPartition.getDepartment(c.getName()),
+				department -> new CatalogPartition(version, onChange));
+	}
+
+	/**
+	 * Splits a list of Courses by department, keeping the Courses of each
+	 * department in the order they were given.
+	 * 
+	 * @param courses the Courses to split
+	 * @return the Courses of each department, in department order
+	 */
+	private static Map<String, List<Course>> groupByDepartment(List<Course> courses) {
+		Map<String, List<Course>> groups = new TreeMap<String, List<Course>>();
+		for (Course c : courses) {
+			String department = CatalogPartition.getDepartment(c.getName());
+			List<Course> group = groups.get(department);
+			if (group == null) {
+				group = new ArrayList<Course>();
+				groups.put(department, group);
+			}
+			group.add(c);
+		}
+		return groups;
+	}
 
 }
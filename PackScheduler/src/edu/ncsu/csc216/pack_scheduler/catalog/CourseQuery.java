@@ -0,0 +1,312 @@
+package edu.ncsu.csc216.pack_scheduler.catalog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+
+/**
+ * A query over a CatalogSnapshot that is only run when its results are read.
+ * Filters are set on the query before reading it, and are checked one Course
+ * at a time as the results are walked, so only the Courses needed to fill the
+ * requested page are ever looked at. A name prefix or department is pushed
+ * down to a binary search on the sorted snapshot, so Courses outside of it are
+ * skipped without being looked at.
+ *
+ * The query reads the snapshot it was created from, so changes made to the
+ * catalog after that are not included. The open seats filter checks each
+ * Course's roll as the Course is read.
+ *
+ * @author Will Pressler
+ *
+ */
+public class CourseQuery {
+
+	/** Snapshot that the query reads from */
+	private final CatalogSnapshot snapshot;
+	/** Start of the Course names to include, or null for every name */
+	private String prefix;
+	/** Whether the prefix must be followed by a digit, as with a department */
+	private boolean department;
+	/** Credits that Courses must have, or -1 for any */
+	private int credits;
+	/** Id of the instructor that Courses must have, or null for any */
+	private String instructorId;
+	/** Days that Courses must meet on, or null for any */
+	private String meetingDays;
+	/** Whether Courses must have at least one open seat */
+	private boolean openSeats;
+	/** Number of matching Courses to skip */
+	private int offset;
+	/** Most matching Courses to return */
+	private int limit;
+
+	/**
+	 * Creates a query for every Course in the snapshot.
+	 *
+	 * @param snapshot the snapshot to read from
+	 */
+	CourseQuery(CatalogSnapshot snapshot) {
+		this.snapshot = snapshot;
+		this.credits = -1;
+		this.limit = Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Limits the query to Courses whose name starts with the given prefix.
+	 *
+	 * @param prefix the start of the Course names to include
+	 * @return this query
+	 * @throws IllegalArgumentException if prefix is null
+	 */
+	public CourseQuery prefix(String prefix) {
+		if (prefix == null) {
+			throw new IllegalArgumentException("Invalid prefix.");
+		}
+		this.prefix = prefix;
+		this.department = false;
+		return this;
+	}
+
+	/**
+	 * Limits the query to Courses offered by the given department. A Course is in
+	 * a department when the letters in its name are exactly the department.
+	 *
+	 * @param department the letters of the department's Course names
+	 * @return this query
+	 * @throws IllegalArgumentException if department is null or empty
+	 */
+	public CourseQuery department(String department) {
+		if (department == null || department.length() == 0) {
+			throw new IllegalArgumentException("Invalid department.");
+		}
+		this.prefix = department;
+		this.department = true;
+		return this;
+	}
+
+	/**
+	 * Limits the query to Courses worth the given number of credits.
+	 *
+	 * @param credits the number of credits
+	 * @return this query
+	 */
+	public CourseQuery credits(int credits) {
+		this.credits = credits;
+		return this;
+	}
+
+	/**
+	 * Limits the query to Courses taught by the instructor with the given id.
+	 *
+	 * @param instructorId the instructor's id
+	 * @return this query
+	 * @throws IllegalArgumentException if instructorId is null
+	 */
+	public CourseQuery instructor(String instructorId) {
+		if (instructorId == null) {
+			throw new IllegalArgumentException("Invalid instructor id.");
+		}
+		this.instructorId = instructorId;
+		return this;
+	}
+
+	/**
+	 * Limits the query to Courses that meet on every one of the given days. For
+	 * example, "MW" includes Courses meeting "MW" and "MWF", and "A" includes
+	 * only arranged Courses.
+	 *
+	 * @param meetingDays the days that Courses must meet on
+	 * @return this query
+	 * @throws IllegalArgumentException if meetingDays is null or empty
+	 */
+	public CourseQuery meetingDays(String meetingDays) {
+		if (meetingDays == null || meetingDays.length() == 0) {
+			throw new IllegalArgumentException("Invalid meeting days.");
+		}
+		this.meetingDays = meetingDays;
+		return this;
+	}
+
+	/**
+	 * Limits the query to Courses with at least one open seat.
+	 *
+	 * @return this query
+	 */
+	public CourseQuery withOpenSeats() {
+		this.openSeats = true;
+		return this;
+	}
+
+	/**
+	 * Skips the given number of matching Courses before returning any.
+	 *
+	 * @param offset the number of matching Courses to skip
+	 * @return this query
+	 * @throws IllegalArgumentException if offset is negative
+	 */
+	public CourseQuery offset(int offset) {
+		if (offset < 0) {
+			throw new IllegalArgumentException("Invalid offset.");
+		}
+		this.offset = offset;
+		return this;
+	}
+
+	/**
+	 * Returns at most the given number of matching Courses.
+	 *
+	 * @param limit the most Courses to return
+	 * @return this query
+	 * @throws IllegalArgumentException if limit is negative
+	 */
+	public CourseQuery limit(int limit) {
+		if (limit < 0) {
+			throw new IllegalArgumentException("Invalid limit.");
+		}
+		this.limit = limit;
+		return this;
+	}
+
+	/**
+	 * Returns a Spliterator over the matching Courses in catalog order. Nothing is
+	 * read from the snapshot until the Spliterator is advanced.
+	 *
+	 * @return Spliterator of the matching Courses
+	 */
+	public Spliterator<Course> spliterator() {
+		return new QuerySpliterator();
+	}
+
+	/**
+	 * Returns a sequential Stream of the matching Courses in catalog order. The
+	 * query is run lazily as the Stream is consumed.
+	 *
+	 * @return Stream of the matching Courses
+	 */
+	public Stream<Course> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * Returns the display rows of the matching Courses in the same format as
+	 * CourseCatalog.getCourseCatalog(). The rows are shared with the snapshot, so
+	 * callers must not modify them.
+	 *
+	 * @return array with a display row for each matching Course
+	 */
+	public String[][] getDisplayRows() {
+		String[][] rows = snapshot.getDisplayRows();
+		List<String[]> page = new ArrayList<String[]>();
+		QuerySpliterator it = new QuerySpliterator();
+		while (it.advance()) {
+			page.add(rows[it.index]);
+		}
+		return page.toArray(new String[page.size()][]);
+	}
+
+	/**
+	 * Checks the filters that are not pushed down to the search of the snapshot.
+	 *
+	 * @param c the Course to check
+	 * @return true if the Course matches every filter
+	 */
+	private boolean matches(Course c) {
+		if (department) {
+			// a whole Course name, such as "CSC116", is not a department
+			String name = c.getName();
+			if (name.length() <= prefix.length() || !Character.isDigit(name.charAt(prefix.length()))) {
+				return false;
+			}
+		}
+		if (credits != -1 && c.getCredits() != credits) {
+			return false;
+		}
+		if (instructorId != null && !instructorId.equals(c.getInstructorId())) {
+			return false;
+		}
+		if (meetingDays != null) {
+			for (int i = 0; i < meetingDays.length(); i++) {
+				if (c.getMeetingDays().indexOf(meetingDays.charAt(i)) == -1) {
+					return false;
+				}
+			}
+		}
+		return !openSeats || c.getCourseRoll().getOpenSeats() > 0;
+	}
+
+	/**
+	 * Walks the snapshot from the first Course in the prefix, skipping Courses
+	 * that do not match and stopping once the prefix ends or the limit is reached.
+	 */
+	private class QuerySpliterator implements Spliterator<Course> {
+
+		/** Courses in the snapshot */
+		private final List<Course> courses = snapshot.getCourses();
+		/** Index of the last Course looked at */
+		private int index;
+		/** Number of matching Courses left to skip */
+		private int toSkip = offset;
+		/** Number of matching Courses left to return */
+		private int remaining = limit;
+
+		/**
+		 * Starts the walk at the first Course in the prefix.
+		 */
+		QuerySpliterator() {
+			index = (prefix == null ? 0 : snapshot.lowerBound(prefix)) - 1;
+		}
+
+		/**
+		 * Moves index to the next matching Course.
+		 *
+		 * @return true if there was another matching Course
+		 */
+		private boolean advance() {
+			while (remaining > 0 && ++index < courses.size()) {
+				Course c = courses.get(index);
+				if (prefix != null && !c.getName().startsWith(prefix)) {
+					break;
+				}
+				if (matches(c)) {
+					if (toSkip > 0) {
+						toSkip--;
+					} else {
+						remaining--;
+						return true;
+					}
+				}
+			}
+			remaining = 0;
+			return false;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Course> action) {
+			if (!advance()) {
+				return false;
+			}
+			action.accept(courses.get(index));
+			return true;
+		}
+
+		@Override
+		public Spliterator<Course> trySplit() {
+			return null;
+		}
+
+		@Override
+		public long estimateSize() {
+			return Math.min(remaining, courses.size());
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | NONNULL | IMMUTABLE;
+		}
+	}
+}
@@ -0,0 +1,216 @@
+package edu.ncsu.csc216.pack_scheduler.catalog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+
+/**
+ * Index of Courses by the days and times that they meet. Each weekday is split
+ * into half hour buckets, and a Course is stored in every bucket its meeting
+ * time touches on each of its meeting days. Arranged Courses do not meet at a
+ * set time, so they are kept in their own list. Queries for a day and time only
+ * need to look at the buckets that the time falls in instead of every Course in
+ * the catalog. A bucket is only created once a Course is added to it, so an
+ * index for a small department stays small. Each bucket is a sorted set, so
+ * adding a Course to a bucket takes O(log n) time.
+ *
+ * @author Will Pressler
+ *
+ */
+public class MeetingTimeIndex {
+
+	/** Days that a Course can meet on, in the order their buckets are stored */
+	private static final String DAYS = "MTWHF";
+	/** Number of minutes covered by a single bucket */
+	private static final int BUCKET_MINUTES = 30;
+	/** Number of buckets in a single day */
+	private static final int BUCKETS_PER_DAY = 24 * 60 / BUCKET_MINUTES;
+	/** Meeting days of an arranged Course */
+	private static final String ARRANGED = "A";
+
+	/** Courses meeting in each bucket, stored day by day, or null if a bucket is empty */
+	private List<TreeSet<Course>> buckets;
+	/** Courses that have arranged meeting times */
+	private TreeSet<Course> arranged;
+
+	/**
+	 * Constructs an empty MeetingTimeIndex.
+	 */
+	public MeetingTimeIndex() {
+		clear();
+	}
+
+	/**
+	 * Removes every Course from the index.
+	 */
+	public void clear() {
+		buckets = new ArrayList<TreeSet<Course>>(DAYS.length() * BUCKETS_PER_DAY);
+		for (int i = 0; i < DAYS.length() * BUCKETS_PER_DAY; i++) {
+			buckets.add(null);
+		}
+		arranged = new TreeSet<Course>();
+	}
+
+	/**
+	 * Adds a Course to the index under each of its meeting days and every bucket
+	 * between its start and end time.
+	 *
+	 * @param c the Course to add
+	 */
+	public void addCourse(Course c) {
+		if (ARRANGED.equals(c.getMeetingDays())) {
+			arranged.add(c);
+			return;
+		}
+
+		int firstBucket = getBucket(c.getStartTime());
+		int lastBucket = getBucket(c.getEndTime());
+		for (int i = 0; i < c.getMeetingDays().length(); i++) {
+			int day = DAYS.indexOf(c.getMeetingDays().charAt(i));
+			for (int b = firstBucket; b <= lastBucket; b++) {
+				TreeSet<Course> bucket = buckets.get(day * BUCKETS_PER_DAY + b);
+				if (bucket == null) {
+					bucket = new TreeSet<Course>();
+					buckets.set(day * BUCKETS_PER_DAY + b, bucket);
+				}
+				bucket.add(c);
+			}
+		}
+	}
+
+	/**
+	 * Removes a Course from every bucket it was added to.
+	 *
+	 * @param c the Course to remove
+	 */
+	public void removeCourse(Course c) {
+		if (ARRANGED.equals(c.getMeetingDays())) {
+			arranged.remove(c);
+			return;
+		}
+
+		int firstBucket = getBucket(c.getStartTime());
+		int lastBucket = getBucket(c.getEndTime());
+		for (int i = 0; i < c.getMeetingDays().length(); i++) {
+			int day = DAYS.indexOf(c.getMeetingDays().charAt(i));
+			for (int b = firstBucket; b <= lastBucket; b++) {
+				removeFrom(buckets.get(day * BUCKETS_PER_DAY + b), c);
+			}
+		}
+	}
+
+	/**
+	 * Returns the Courses that are meeting on the given day at the given time, in
+	 * catalog order. A Course meeting from 1330 to 1445 is meeting at both 1330
+	 * and 1445.
+	 *
+	 * @param day  the meeting day, one of 'M', 'T', 'W', 'H', or 'F'
+	 * @param time the time in military format
+	 * @return list of Courses meeting at the time
+	 * @throws IllegalArgumentException if the day or time is invalid
+	 */
+	public List<Course> getCoursesMeetingAt(char day, int time) {
+		return getCoursesMeetingBetween(day, time, time);
+	}
+
+	/**
+	 * Returns the Courses that meet on the given day for any part of the time
+	 * window between startTime and endTime, in catalog order.
+	 *
+	 * @param day       the meeting day, one of 'M', 'T', 'W', 'H', or 'F'
+	 * @param startTime the start of the window in military format
+	 * @param endTime   the end of the window in military format
+	 * @return list of Courses meeting during the window
+	 * @throws IllegalArgumentException if the day or either time is invalid, or
+	 *                                  if endTime is before startTime
+	 */
+	public List<Course> getCoursesMeetingBetween(char day, int startTime, int endTime) {
+		checkWindow(day, startTime, endTime);
+
+		int dayIndex = DAYS.indexOf(day);
+		int firstBucket = getBucket(startTime);
+		int lastBucket = getBucket(endTime);
+		List<Course> courses = new ArrayList<Course>();
+		for (int b = firstBucket; b <= lastBucket; b++) {
+			TreeSet<Course> bucket = buckets.get(dayIndex * BUCKETS_PER_DAY + b);
+			if (bucket == null) {
+				continue;
+			}
+			for (Course c : bucket) {
+				// a Course spanning several buckets is only counted in the first
+				// bucket that it shares with the window
+				if (Math.max(getBucket(c.getStartTime()), firstBucket) == b && c.getStartTime() <= endTime
+						&& startTime <= c.getEndTime()) {
+					courses.add(c);
+				}
+			}
+		}
+
+		if (firstBucket != lastBucket) {
+			Collections.sort(courses);
+		}
+		return courses;
+	}
+
+	/**
+	 * Returns the Courses with arranged meeting times, in catalog order.
+	 *
+	 * @return list of arranged Courses
+	 */
+	public List<Course> getArrangedCourses() {
+		return new ArrayList<Course>(arranged);
+	}
+
+	/**
+	 * Checks that a day and time window can be searched for.
+	 *
+	 * @param day       the meeting day
+	 * @param startTime the start of the window in military format
+	 * @param endTime   the end of the window in military format
+	 * @throws IllegalArgumentException if the day or either time is invalid, or
+	 *                                  if endTime is before startTime
+	 */
+	static void checkWindow(char day, int startTime, int endTime) {
+		if (DAYS.indexOf(day) == -1) {
+			throw new IllegalArgumentException("Invalid meeting day.");
+		}
+		if (!isValidTime(startTime) || !isValidTime(endTime) || startTime > endTime) {
+			throw new IllegalArgumentException("Invalid meeting time.");
+		}
+	}
+
+	/**
+	 * Returns the bucket within a day that the given time falls in.
+	 *
+	 * @param time the time in military format
+	 * @return the bucket for the time
+	 */
+	private static int getBucket(int time) {
+		return ((time / 100) * 60 + time % 100) / BUCKET_MINUTES;
+	}
+
+	/**
+	 * Checks that a time is a valid military time between 0000 and 2359.
+	 *
+	 * @param time the time to check
+	 * @return true if the time is valid
+	 */
+	private static boolean isValidTime(int time) {
+		return time >= 0 && time / 100 < 24 && time % 100 < 60;
+	}
+
+	/**
+	 * Removes a Course from a bucket if it is there.
+	 *
+	 * @param bucket the bucket to remove the Course from
+	 * @param c      the Course to remove
+	 */
+	private static void removeFrom(TreeSet<Course> bucket, Course c) {
+		if (bucket != null) {
+			bucket.remove(c);
+		}
+	}
+}
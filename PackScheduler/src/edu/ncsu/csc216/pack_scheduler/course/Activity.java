@@ -2,6 +2,8 @@ package edu.ncsu.csc216.pack_scheduler.course;
 
 import java.util.Objects;
 
+import edu.ncsu.csc216.pack_scheduler.util.StringPool;
+
 /**
  * Activity abstract superclass is declared here which contains multiple methods
  * that assist in setting up the Course and Event objects. It does this by
@@ -187,7 +189,7 @@ public abstract class Activity implements Conflict {
 			throw new IllegalArgumentException("Invalid title.");
 		}
 
-		this.title = title;
+		this.title = StringPool.intern(title);
 	}
 
 	/**
@@ -269,7 +271,7 @@ public abstract class Activity implements Conflict {
 			throw new IllegalArgumentException("Invalid meeting days and times.");
 		}
 
-		this.meetingDays = meetingDays;
+		this.meetingDays = StringPool.intern(meetingDays);
 		this.startTime = startTime;
 		this.endTime = endTime;
 	}
@@ -298,10 +300,6 @@ public abstract class Activity implements Conflict {
 		String startAmPm = "AM";
 		String endAmPm = "AM";
 
-		// calls the setMeetingDaysAndTime() method to verify correct information is
-		// given
-		setMeetingDaysAndTime(getMeetingDays(), getStartTime(), getEndTime());
-
 		// sets the variables equal to the military time minutes and hour
 		int startHour = startTime / 100;
 		int startMin = startTime % 100;
@@ -8,6 +8,7 @@ import java.util.Objects;
 import edu.ncsu.csc216.pack_scheduler.course.roll.CourseRoll;
 import edu.ncsu.csc216.pack_scheduler.course.validator.CourseNameValidator;
 import edu.ncsu.csc216.pack_scheduler.course.validator.InvalidTransitionException;
+import edu.ncsu.csc216.pack_scheduler.util.StringPool;
 
 /**
  * Course class is declared here which contains multiple methods that assist in
@@ -44,8 +45,13 @@ public class Course extends Activity implements Comparable<Course> {
 	private int credits;
 	/** Course's instructor */
 	private String instructorId;
-	/** Object that validates the name of the course is valid */
-	private CourseNameValidator validator;
+	/**
+	 * Validates course names. The validator keeps its state between characters of
+	 * a single name, so each thread shares one instance instead of each Course
+	 * creating its own.
+	 */
+	private static final ThreadLocal<CourseNameValidator> VALIDATOR = ThreadLocal
+			.withInitial(CourseNameValidator::new);
 	/** CourseRoll object to hold student registered for the course */
 	private CourseRoll roll;
 
@@ -81,12 +87,12 @@ public class Course extends Activity implements Comparable<Course> {
 		}
 
 		try {
-			validator.isValid(name);
+			VALIDATOR.get().isValid(name);
 		} catch (InvalidTransitionException e) {
 			throw new IllegalArgumentException("Invalid course name.");
 		}
 
-		this.name = name;
+		this.name = StringPool.intern(name);
 
 	}
 
@@ -121,7 +127,7 @@ public class Course extends Activity implements Comparable<Course> {
 			}
 		}
 
-		this.section = section;
+		this.section = StringPool.intern(section);
 	}
 
 	/**
@@ -173,7 +179,7 @@ public class Course extends Activity implements Comparable<Course> {
 			throw new IllegalArgumentException("Invalid instructor id.");
 		}
 
-		this.instructorId = instructorId;
+		this.instructorId = StringPool.intern(instructorId);
 	}
 
 	/**
@@ -332,7 +338,6 @@ public class Course extends Activity implements Comparable<Course> {
 		// and calls the setter methods from the constructor
 		super(title, meetingDays, startTime, endTime);
 		roll = new CourseRoll(this, enrollmentCap);
-		validator = new CourseNameValidator();
 		setName(name);
 		setSection(section);
 		setCredits(credits);
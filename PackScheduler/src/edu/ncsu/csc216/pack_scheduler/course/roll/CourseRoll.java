@@ -3,6 +3,9 @@
  */
 package edu.ncsu.csc216.pack_scheduler.course.roll;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import edu.ncsu.csc216.pack_scheduler.course.Course;
 import edu.ncsu.csc216.pack_scheduler.user.Student;
 import edu.ncsu.csc216.pack_scheduler.util.LinkedAbstractList;
@@ -37,6 +40,8 @@ public class CourseRoll {
     static final int WAITLIST_SIZE = 10;
     /** Course that this CourseRoll is associated with */
     private Course course;
+    /** Listener notified when the roll or waitlist changes */
+    private CourseRollListener listener;
 
     /**
      * Creates a roll for a Course
@@ -84,6 +89,17 @@ public class CourseRoll {
 
         roll.setCapacity(enrollmentCap);
         this.enrollmentCap = enrollmentCap;
+        notifyListener();
+    }
+
+    /**
+     * Sets the listener that is notified whenever the roll, waitlist, or
+     * enrollment cap changes. Passing null removes the current listener.
+     * 
+     * @param listener the listener to notify, or null for no listener
+     */
+    public void setListener(CourseRollListener listener) {
+        this.listener = listener;
     }
 
     /**
@@ -112,8 +128,10 @@ public class CourseRoll {
                     roll.add(s);
                 } catch (IllegalArgumentException e) {
                     waitlist.enqueue(s);
+                    notifyListener();
                     return;
                 }
+                notifyListener();
                 s.getSchedule().addCourseToSchedule(course);
             } else {
                 throw new IllegalArgumentException();
@@ -145,12 +163,16 @@ public class CourseRoll {
                     if (!waitlist.isEmpty()) {
                         Student nextStudent = waitlist.dequeue();
                         roll.add(nextStudent);
+                        notifyListener();
                         nextStudent.getSchedule().addCourseToSchedule(course);
+                    } else {
+                        notifyListener();
                     }
                     return;
                 }
             }
 
+            int waitlistSize = waitlist.size();
             LinkedQueue<Student> updatedWaitlist = new LinkedQueue<Student>(WAITLIST_SIZE);
             while (!waitlist.isEmpty()) {
                 Student studentInWaitlist = waitlist.dequeue();
@@ -159,6 +181,9 @@ public class CourseRoll {
                 }
             }
             waitlist = updatedWaitlist;
+            if (waitlist.size() != waitlistSize) {
+                notifyListener();
+            }
         } catch (Exception e) {
             throw new IllegalArgumentException("Invalid student");
         }
@@ -215,4 +240,75 @@ public class CourseRoll {
     public int getNumberOnWaitlist() {
         return waitlist.size();
     }
+
+    /**
+     * Returns the students enrolled in the Course, in the order they were
+     * enrolled.
+     * 
+     * @return a copy of the roll
+     */
+    public List<Student> getEnrolledStudents() {
+        return new ArrayList<Student>(roll);
+    }
+
+    /**
+     * Returns the students on the waitlist for the Course, from the front of the
+     * waitlist to the back.
+     * 
+     * @return a copy of the waitlist
+     */
+    public List<Student> getWaitlistedStudents() {
+        List<Student> waitlisted = new ArrayList<Student>(waitlist.size());
+        LinkedQueue<Student> updatedWaitlist = new LinkedQueue<Student>(WAITLIST_SIZE);
+        while (!waitlist.isEmpty()) {
+            Student studentInWaitlist = waitlist.dequeue();
+            waitlisted.add(studentInWaitlist);
+            updatedWaitlist.enqueue(studentInWaitlist);
+        }
+        waitlist = updatedWaitlist;
+        return waitlisted;
+    }
+
+    /**
+     * Replaces the roll and waitlist with the given students, in order, such as
+     * when enrollment is read back from a file. Unlike enroll(), the students'
+     * schedules are not changed, so the caller is responsible for them.
+     * 
+     * @param enrolled   the students on the roll, in enrollment order
+     * @param waitlisted the students on the waitlist, from front to back
+     * @throws IllegalArgumentException if either list is null, has null or
+     *                                  repeated students, or is larger than the
+     *                                  enrollment cap or waitlist
+     */
+    public void restore(List<Student> enrolled, List<Student> waitlisted) {
+        if (enrolled == null || waitlisted == null || enrolled.size() > enrollmentCap
+                || waitlisted.size() > WAITLIST_SIZE) {
+            throw new IllegalArgumentException("Invalid roll");
+        }
+        LinkedAbstractList<Student> restoredRoll = new LinkedAbstractList<Student>(MAX_ENROLLMENT);
+        LinkedQueue<Student> restoredWaitlist = new LinkedQueue<Student>(WAITLIST_SIZE);
+        try {
+            for (Student s : enrolled) {
+                restoredRoll.add(s);
+            }
+            for (Student s : waitlisted) {
+                restoredWaitlist.enqueue(s);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid roll");
+        }
+        restoredRoll.setCapacity(enrollmentCap);
+        roll = restoredRoll;
+        waitlist = restoredWaitlist;
+        notifyListener();
+    }
+
+    /**
+     * Notifies the listener, if there is one, that the roll has changed.
+     */
+    private void notifyListener() {
+        if (listener != null) {
+            listener.rollChanged(course);
+        }
+    }
 }
@@ -0,0 +1,23 @@
+package edu.ncsu.csc216.pack_scheduler.course.roll;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+
+/**
+ * Interface for objects that need to know when a CourseRoll changes, such as a
+ * catalog that indexes its Courses by their open seats. A CourseRoll has at
+ * most one listener, which it notifies after every change to its roll,
+ * waitlist, or enrollment cap.
+ * 
+ * @author Will Pressler
+ *
+ */
+public interface CourseRollListener {
+
+	/**
+	 * Called after the roll or waitlist of the given Course has changed.
+	 * 
+	 * @param course the Course whose roll changed
+	 */
+	void rollChanged(Course course);
+
+}
@@ -5,18 +5,22 @@ package edu.ncsu.csc216.pack_scheduler.directory;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import edu.ncsu.csc216.pack_scheduler.io.FacultyRecordIO;
+import edu.ncsu.csc216.pack_scheduler.io.ParallelRecordLoader;
+import edu.ncsu.csc216.pack_scheduler.io.RecordChangeLog;
 import edu.ncsu.csc216.pack_scheduler.user.Faculty;
+import edu.ncsu.csc216.pack_scheduler.user.PasswordHasher;
 import edu.ncsu.csc216.pack_scheduler.user.User;
-import edu.ncsu.csc216.pack_scheduler.util.LinkedList;
 
 /**
  * Maintains a directory of all Faculty working at NC State. it has the
- * facultyDirectory field and HASH_ALGORITHM fields. It's methods create new
+ * facultyDirectory field. It's methods create new
  * faculty directories, load faculty into directory from a file, add faculty to
  * directory, hashes passwords, removes faculty, gets facultyDirectory, and
  * exports student directory to a file using the FacultyRecordIO class methods.
@@ -27,10 +31,17 @@ import edu.ncsu.csc216.pack_scheduler.util.LinkedList;
  */
 public class FacultyDirectory {
 
-	/** Linked List of Faculty in the Directory */
-	private LinkedList<Faculty> facultyDirectory;
-	/** Hashing algorithm */
-	private static final String HASH_ALGORITHM = "SHA-256";
+	/**
+	 * Faculty in the Directory, in the order they were loaded or added. An array
+	 * list, so get(i) does not walk the list from the front
+	 */
+	private List<Faculty> facultyDirectory;
+	/** Each Faculty in facultyDirectory by id, kept in step with it */
+	private Map<String, Faculty> facultyById;
+	/** Each Faculty in facultyDirectory by first and last name */
+	private NameIndex<Faculty> facultyByName;
+	/** Faculty added, changed, or removed since the directory was loaded or saved */
+	private final RecordChangeLog<Faculty> changes = new RecordChangeLog<Faculty>();
 
 	/**
 	 * Constructs a new directory and initializes the facultyDirectory field
@@ -40,10 +51,13 @@ public class FacultyDirectory {
 	}
 
 	/**
-	 * Sets the directory to a new empty linkedlist
+	 * Sets the directory to a new empty list
 	 */
 	public void newFacultyDirectory() {
-		facultyDirectory = new LinkedList<Faculty>();
+		facultyDirectory = new ArrayList<Faculty>();
+		facultyById = new HashMap<String, Faculty>();
+		facultyByName = new NameIndex<Faculty>();
+		changes.reset(null);
 	}
 
 	/**
@@ -54,12 +68,50 @@ public class FacultyDirectory {
 	 */
 	public void loadFacultyFromFile(String file) {
 		try {
-			facultyDirectory = FacultyRecordIO.readFacultyRecords(file);
+			setFaculty(ParallelRecordLoader.readFacultyRecords(file));
+			changes.reset(file);
 		} catch (FileNotFoundException e) {
 			throw new IllegalArgumentException("Unable to read file " + file);
 		}
 	}
 
+	/**
+	 * Replaces the faculty in the directory with the given faculty, such as the
+	 * ones read from a snapshot. The faculty are copied into the directory, so
+	 * later changes to the given list do not affect it.
+	 * 
+	 * @param faculty the faculty of the new directory
+	 * @throws IllegalArgumentException if faculty is null
+	 */
+	public void loadFaculty(List<Faculty> faculty) {
+		if (faculty == null) {
+			throw new IllegalArgumentException("Invalid faculty");
+		}
+		setFaculty(faculty);
+		changes.reset(null);
+	}
+
+	/**
+	 * Replaces the faculty in the directory with a copy of the given list and
+	 * rebuilds the indexes of faculty by id and by name.
+	 * 
+	 * @param faculty the faculty of the new directory
+	 */
+	private void setFaculty(List<Faculty> faculty) {
+		// iterating walks a linked list once, where get(i) would walk it for each
+		// faculty
+		List<Faculty> copy = new ArrayList<Faculty>(faculty);
+		Map<String, Faculty> index = new HashMap<String, Faculty>(copy.size() * 2);
+		NameIndex<Faculty> names = new NameIndex<Faculty>();
+		for (Faculty f : copy) {
+			index.put(f.getId(), f);
+			names.add(f);
+		}
+		facultyDirectory = copy;
+		facultyById = index;
+		facultyByName = names;
+	}
+
 	/**
 	 * Adds a faculty member to the list. Returns true if the faculty is added and
 	 * false if the faculty is unable to be added because their id matches another
@@ -79,56 +131,54 @@ public class FacultyDirectory {
 	 */
 	public boolean addFaculty(String firstName, String lastName, String id, String email, String password,
 			String repeatPassword, int maxCourses) {
-		String hashPW = "";
-		String repeatHashPW = "";
 		if (password == null || repeatPassword == null || "".equals(password) || "".equals(repeatPassword)) {
 			throw new IllegalArgumentException("Invalid password");
 		}
 
-		hashPW = hashString(password);
-		repeatHashPW = hashString(repeatPassword);
-
-		if (!hashPW.equals(repeatHashPW)) {
+		// the passwords are compared as typed, so only one of them is hashed
+		if (!password.equals(repeatPassword)) {
 			throw new IllegalArgumentException("Passwords do not match");
 		}
+		String hashPW = PasswordHasher.hash(password);
 
 		// If an IllegalArgumentException is thrown, it's passed up from Student
 		// to the GUI
 		Faculty faculty = null;
 		faculty = new Faculty(firstName, lastName, id, email, hashPW, maxCourses);
 
-		for (int i = 0; i < facultyDirectory.size(); i++) {
-			User f = facultyDirectory.get(i);
-			if (f.getId().equals(faculty.getId())) {
-				return false;
-			}
-		}
-		
-		try {
-		    return facultyDirectory.add(faculty);
-		} catch (NullPointerException e) {
-		    return false;
+		if (facultyById.containsKey(faculty.getId())) {
+			return false;
 		}
+
+		facultyDirectory.add(faculty);
+		facultyById.put(faculty.getId(), faculty);
+		facultyByName.add(faculty);
+		changes.changed(faculty.getId(), faculty);
+		return true;
 	}
 
 	/**
-	 * Hashes a String according to the SHA-256 algorithm, and outputs the digest in
-	 * base64 encoding. This allows the encoded digest to be safely copied, as it
-	 * only uses [a-zA-Z0-9+/=].
+	 * Adds many faculty to the directory at once. Each row has the fields of
+	 * addFaculty() as text: first name, last name, id, email, password, repeated
+	 * password, and max courses. Rows are validated and their passwords hashed in
+	 * parallel, and a row is not added if it is invalid or its id is already in
+	 * the directory or on an earlier row. The faculty that are added go at the end
+	 * of the directory in row order, as if each had been added with addFaculty().
 	 * 
-	 * @param toHash the String to hash
-	 * @return the encoded digest of the hash algorithm in base64
-	 * @throws IllegalArgumentException "Cannot hash password" If password cannot be
-	 *                                  hashed
+	 * @param rows the faculty to add
+	 * @return the result of each row, in row order
+	 * @throws IllegalArgumentException if rows is null
 	 */
-	private static String hashString(String toHash) {
-		try {
-			MessageDigest digest1 = MessageDigest.getInstance(HASH_ALGORITHM);
-			digest1.update(toHash.getBytes());
-			return Base64.getEncoder().encodeToString(digest1.digest());
-		} catch (NoSuchAlgorithmException e) {
-			throw new IllegalArgumentException("Cannot hash password");
+	public List<ImportResult> importFaculty(List<String[]> rows) {
+		List<ImportResult> results = new ArrayList<ImportResult>();
+		List<Faculty> added = UserImport.prepare(rows, facultyById, Faculty::new, "Invalid max courses", results);
+		facultyDirectory.addAll(added);
+		for (Faculty f : added) {
+			facultyById.put(f.getId(), f);
+			facultyByName.add(f);
+			changes.changed(f.getId(), f);
 		}
+		return results;
 	}
 
 	/**
@@ -138,14 +188,19 @@ public class FacultyDirectory {
 	 * @return boolean true if the removal was successful
 	 */
 	public boolean removeFaculty(String facultyId) {
+		Faculty f = facultyById.remove(facultyId);
+		if (f == null) {
+			return false;
+		}
 		for (int i = 0; i < facultyDirectory.size(); i++) {
-			User f = facultyDirectory.get(i);
-			if (f.getId().equals(facultyId)) {
+			if (facultyDirectory.get(i) == f) {
 				facultyDirectory.remove(i);
-				return true;
+				break;
 			}
 		}
-		return false;
+		facultyByName.remove(f);
+		changes.removed(facultyId);
+		return true;
 	}
 
 	/**
@@ -166,6 +221,31 @@ public class FacultyDirectory {
 		return directory;
 	}
 
+	/**
+	 * Returns a read-only view of the Faculty in the directory, in directory order.
+	 * 
+	 * @return the Faculty in the directory
+	 */
+	public List<Faculty> getFacultyList() {
+		return Collections.unmodifiableList(facultyDirectory);
+	}
+
+	/**
+	 * Returns one page of the Faculty whose first or last name starts with the
+	 * prefix, ignoring case. Faculty are ordered by the name that matched, and a
+	 * page with fewer than pageSize Faculty is the last page.
+	 * 
+	 * @param prefix   the start of the first or last name
+	 * @param page     the page to return, starting at 0
+	 * @param pageSize the most Faculty on a page
+	 * @return the Faculty on the page
+	 * @throws IllegalArgumentException if prefix is null, page is negative, or
+	 *                                  pageSize is less than 1
+	 */
+	public List<Faculty> findFacultyByName(String prefix, int page, int pageSize) {
+		return facultyByName.find(prefix, page, pageSize);
+	}
+
 	/**
 	 * Saves all faculty in the directory to a file.
 	 * @param fileName name of file to save facultyDirectory to.
@@ -176,25 +256,53 @@ public class FacultyDirectory {
 	 */
 	public void saveFacultyDirectory(String fileName) {
 		try {
-			FacultyRecordIO.writeFacultyRecords(fileName, facultyDirectory);
+			changes.save(fileName, file -> FacultyRecordIO.writeFacultyRecords(file, facultyDirectory));
 		} catch (IOException e) {
 			throw new IllegalArgumentException("Unable to write to file " + fileName);
 		}
 	}
 
+	/**
+	 * Saves only the faculty that were added, changed, or removed since the
+	 * directory was loaded from or saved to the file, by appending them to the
+	 * file's delta file. If the directory was not loaded from or saved to the
+	 * file, or the delta file has grown large, every faculty is written instead.
+	 * @param fileName name of file to save facultyDirectory to.
+	 * @return true if only the changes were saved, or false if every faculty was
+	 *         written
+	 * @throws IllegalArgumentException "Unable to write to file [filename]" If file
+	 *                                  cannot written to
+	 */
+	public boolean saveFacultyDirectoryChanges(String fileName) {
+		try {
+			return changes.saveChanges(fileName, file -> FacultyRecordIO.writeFacultyRecords(file, facultyDirectory));
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to write to file " + fileName);
+		}
+	}
+
+	/**
+	 * Records that the faculty with the given id was changed, such as by a new
+	 * password or max courses, so the next saveFacultyDirectoryChanges() saves
+	 * them.
+	 * @param id the id of the changed faculty
+	 * @return true if the faculty is in the directory
+	 */
+	public boolean markFacultyChanged(String id) {
+		Faculty f = getFacultyById(id);
+		if (f == null) {
+			return false;
+		}
+		changes.changed(id, f);
+		return true;
+	}
+
 	/**
 	 * Gets a Faculty from the Directory as specified by their Id
 	 * @param facultyId the id of the desired Faculty
 	 * @return Faculty with the given id
 	 */
 	public Faculty getFacultyById(String facultyId) {
-		Faculty f = null;
-		for (int i = 0; i < facultyDirectory.size(); i++) {
-			if (facultyDirectory.get(i).getId().equals(facultyId)) {
-				f = facultyDirectory.get(i);
-			}
-		}
-
-		return f;
+		return facultyById.get(facultyId);
 	}
 }
@@ -0,0 +1,78 @@
+package edu.ncsu.csc216.pack_scheduler.directory;
+
+/**
+ * The outcome of one row of a bulk import into a StudentDirectory or
+ * FacultyDirectory: whether the user on the row was added, and if not, why.
+ *
+ * @author Will Pressler
+ *
+ */
+public final class ImportResult {
+
+	/** Index of the row in the imported rows */
+	private final int row;
+	/** Id on the row, or null if the row had none */
+	private final String id;
+	/** Why the row was not added, or null if it was */
+	private final String message;
+
+	/**
+	 * Creates the result of a row.
+	 *
+	 * @param row     index of the row in the imported rows
+	 * @param id      id on the row, or null if the row had none
+	 * @param message why the row was not added, or null if it was
+	 */
+	ImportResult(int row, String id, String message) {
+		this.row = row;
+		this.id = id;
+		this.message = message;
+	}
+
+	/**
+	 * Returns the index of the row in the imported rows.
+	 *
+	 * @return the row index, starting at 0
+	 */
+	public int getRow() {
+		return row;
+	}
+
+	/**
+	 * Returns the id on the row.
+	 *
+	 * @return the id, or null if the row had none
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * Returns whether the user on the row was added to the directory.
+	 *
+	 * @return true if the user was added
+	 */
+	public boolean isAdded() {
+		return message == null;
+	}
+
+	/**
+	 * Returns why the user on the row was not added, such as "Invalid password"
+	 * or "Duplicate id".
+	 *
+	 * @return the reason, or null if the user was added
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * Returns the result as text, such as "3,jdoe,Duplicate id" or "4,jroe,added".
+	 *
+	 * @return the result
+	 */
+	@Override
+	public String toString() {
+		return row + "," + id + "," + (message == null ? "added" : message);
+	}
+}
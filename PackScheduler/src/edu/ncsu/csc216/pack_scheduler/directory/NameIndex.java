@@ -0,0 +1,122 @@
+package edu.ncsu.csc216.pack_scheduler.directory;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import edu.ncsu.csc216.pack_scheduler.user.User;
+
+/**
+ * Index of Users by first and last name for finding them by the start of
+ * either name, ignoring case. Each User is kept in a sorted map twice, once
+ * under their lower case first name and once under their lower case last name,
+ * each followed by their id so that Users with the same name have their own
+ * entries. A search finds the first entry at or after the prefix in O(log n)
+ * and then walks the entries that start with it, so a page of k Users only
+ * looks at the entries up to the end of that page.
+ *
+ * The index does not see changes to a User's name, so a User should be removed
+ * before their name changes and added again after.
+ *
+ * @author Will Pressler
+ *
+ * @param <U> the type of User in the index
+ */
+public class NameIndex<U extends User> {
+
+	/** Separates a name from the id in a key, and sorts before every other character */
+	private static final char SEPARATOR = '\u0000';
+
+	/** Users by lower case first or last name, then id */
+	private TreeMap<String, U> users;
+
+	/**
+	 * Constructs an empty NameIndex.
+	 */
+	public NameIndex() {
+		clear();
+	}
+
+	/**
+	 * Removes every User from the index.
+	 */
+	public void clear() {
+		users = new TreeMap<String, U>();
+	}
+
+	/**
+	 * Adds a User to the index under their first and last name.
+	 *
+	 * @param u the User to add
+	 */
+	public void add(U u) {
+		users.put(key(u.getFirstName(), u.getId()), u);
+		users.put(key(u.getLastName(), u.getId()), u);
+	}
+
+	/**
+	 * Removes a User from the index. Users that are not in the index are
+	 * ignored.
+	 *
+	 * @param u the User to remove
+	 */
+	public void remove(U u) {
+		users.remove(key(u.getFirstName(), u.getId()));
+		users.remove(key(u.getLastName(), u.getId()));
+	}
+
+	/**
+	 * Returns one page of the Users whose first or last name starts with the
+	 * prefix, ignoring case. Users are ordered by the name that matched, then by
+	 * id, and a User whose first and last name both match is only returned once,
+	 * where their first match falls. An empty prefix matches every User. A page
+	 * with fewer than pageSize Users is the last page.
+	 *
+	 * @param prefix   the start of the first or last name
+	 * @param page     the page to return, starting at 0
+	 * @param pageSize the most Users on a page
+	 * @return the Users on the page
+	 * @throws IllegalArgumentException if prefix is null, page is negative, or
+	 *                                  pageSize is less than 1
+	 */
+	public List<U> find(String prefix, int page, int pageSize) {
+		if (prefix == null) {
+			throw new IllegalArgumentException("Invalid prefix");
+		}
+		if (page < 0 || pageSize < 1) {
+			throw new IllegalArgumentException("Invalid page");
+		}
+		String start = prefix.toLowerCase(Locale.ROOT);
+		long skip = (long) page * pageSize;
+		List<U> found = new ArrayList<U>();
+		Map<U, Boolean> seen = new IdentityHashMap<U, Boolean>();
+		for (Map.Entry<String, U> e : users.tailMap(start, true).entrySet()) {
+			if (!e.getKey().startsWith(start) || found.size() == pageSize) {
+				break;
+			}
+			if (seen.put(e.getValue(), Boolean.TRUE) != null) {
+				continue;
+			}
+			if (skip > 0) {
+				skip--;
+			} else {
+				found.add(e.getValue());
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Returns the key of a User under one of their names.
+	 *
+	 * @param name the first or last name
+	 * @param id   the User's id
+	 * @return the key
+	 */
+	private static String key(String name, String id) {
+		return name.toLowerCase(Locale.ROOT) + SEPARATOR + id;
+	}
+}
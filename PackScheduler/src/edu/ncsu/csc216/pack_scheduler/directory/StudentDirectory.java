@@ -2,18 +2,22 @@ package edu.ncsu.csc216.pack_scheduler.directory;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import edu.ncsu.csc216.pack_scheduler.io.ParallelRecordLoader;
+import edu.ncsu.csc216.pack_scheduler.io.RecordChangeLog;
 import edu.ncsu.csc216.pack_scheduler.io.StudentRecordIO;
+import edu.ncsu.csc216.pack_scheduler.user.PasswordHasher;
 import edu.ncsu.csc216.pack_scheduler.user.Student;
 import edu.ncsu.csc216.pack_scheduler.user.User;
-import edu.ncsu.csc217.collections.list.SortedList;
 
 /**
  * Maintains a directory of all students enrolled at NC State. it has the
- * studentDirectory field and HASH_ALGORITHM fields. it's methods create new
+ * studentDirectory field. it's methods create new
  * student directories, load students into directory from a file, add students
  * to directory, hashes passwords, removes students, gets studentDirectory, and
  * exports student directory to a file using the StudentRecordIO class methods.
@@ -26,11 +30,22 @@ import edu.ncsu.csc217.collections.list.SortedList;
  */
 public class StudentDirectory {
 
-	/** Sorted list of students in the directory */
-	private SortedList<Student> studentDirectory;
+	/**
+	 * Students in the directory, kept in sorted order. An array list, so a
+	 * student is placed or found with a binary search and a batch of students is
+	 * merged in one pass
+	 */
+	private List<Student> studentDirectory;
+	/**
+	 * Each student in studentDirectory by id, kept in step with it so students
+	 * can be found without searching the list
+	 */
+	private Map<String, Student> studentsById;
+	/** Each student in studentDirectory by first and last name */
+	private NameIndex<Student> studentsByName;
 
-	/** Hashing algorithm */
-	private static final String HASH_ALGORITHM = "SHA-256";
+	/** Students added, changed, or removed since the directory was loaded or saved */
+	private final RecordChangeLog<Student> changes = new RecordChangeLog<Student>();
 
 	/**
 	 * Creates an empty student directory.
@@ -44,7 +59,10 @@ public class StudentDirectory {
 	 * deleted unless saved by the user.
 	 */
 	public void newStudentDirectory() {
-		studentDirectory = new SortedList<Student>();
+		studentDirectory = new ArrayList<Student>();
+		studentsById = new HashMap<String, Student>();
+		studentsByName = new NameIndex<Student>();
+		changes.reset(null);
 	}
 
 	/**
@@ -57,12 +75,49 @@ public class StudentDirectory {
 	 */
 	public void loadStudentsFromFile(String fileName) {
 		try {
-			studentDirectory = StudentRecordIO.readStudentRecords(fileName);
+			setStudents(ParallelRecordLoader.readStudentRecords(fileName));
+			changes.reset(fileName);
 		} catch (FileNotFoundException e) {
 			throw new IllegalArgumentException("Unable to read file " + fileName);
 		}
 	}
 
+	/**
+	 * Replaces the students in the directory with the given students, such as
+	 * the ones read from a snapshot. The students are copied into the directory
+	 * and sorted, so later changes to the given list do not affect it.
+	 * 
+	 * @param students the students of the new directory
+	 * @throws IllegalArgumentException if students is null
+	 */
+	public void loadStudents(List<Student> students) {
+		if (students == null) {
+			throw new IllegalArgumentException("Invalid students");
+		}
+		List<Student> copy = new ArrayList<Student>(students);
+		Collections.sort(copy);
+		setStudents(copy);
+		changes.reset(null);
+	}
+
+	/**
+	 * Replaces the students in the directory with the given sorted list and
+	 * rebuilds the indexes of students by id and by name.
+	 * 
+	 * @param students the students of the new directory, in sorted order
+	 */
+	private void setStudents(List<Student> students) {
+		Map<String, Student> index = new HashMap<String, Student>(students.size() * 2);
+		NameIndex<Student> names = new NameIndex<Student>();
+		for (Student s : students) {
+			index.put(s.getId(), s);
+			names.add(s);
+		}
+		studentDirectory = students;
+		studentsById = index;
+		studentsByName = names;
+	}
+
 	/**
 	 * Adds a Student to the directory. Returns true if the student is added and
 	 * false if the student is unable to be added because their id matches another
@@ -83,18 +138,15 @@ public class StudentDirectory {
 	 */
 	public boolean addStudent(String firstName, String lastName, String id, String email, String password,
 			String repeatPassword, int maxCredits) {
-		String hashPW = "";
-		String repeatHashPW = "";
 		if (password == null || repeatPassword == null || "".equals(password) || "".equals(repeatPassword)) {
 			throw new IllegalArgumentException("Invalid password");
 		}
 
-		hashPW = hashString(password);
-		repeatHashPW = hashString(repeatPassword);
-
-		if (!hashPW.equals(repeatHashPW)) {
+		// the passwords are compared as typed, so only one of them is hashed
+		if (!password.equals(repeatPassword)) {
 			throw new IllegalArgumentException("Passwords do not match");
 		}
+		String hashPW = PasswordHasher.hash(password);
 
 		// If an IllegalArgumentException is thrown, it's passed up from Student
 		// to the GUI
@@ -105,33 +157,60 @@ public class StudentDirectory {
 			student = new Student(firstName, lastName, id, email, hashPW, maxCredits);
 		}
 
-		for (int i = 0; i < studentDirectory.size(); i++) {
-			User s = studentDirectory.get(i);
-			if (s.getId().equals(student.getId())) {
-				return false;
-			}
+		if (studentsById.containsKey(student.getId())) {
+			return false;
 		}
-		return studentDirectory.add(student);
+		// no student has the id, so the search never finds the student and returns
+		// where they belong
+		studentDirectory.add(-Collections.binarySearch(studentDirectory, student) - 1, student);
+		studentsById.put(student.getId(), student);
+		studentsByName.add(student);
+		changes.changed(student.getId(), student);
+		return true;
 	}
 
 	/**
-	 * Hashes a String according to the SHA-256 algorithm, and outputs the digest in
-	 * base64 encoding. This allows the encoded digest to be safely copied, as it
-	 * only uses [a-zA-Z0-9+/=].
+	 * Adds many students to the directory at once, such as a new class being
+	 * onboarded. Each row has the fields of addStudent() as text: first name,
+	 * last name, id, email, password, repeated password, and max credits. Rows
+	 * are validated and their passwords hashed in parallel, and a row is not
+	 * added if it is invalid or its id is already in the directory or on an
+	 * earlier row. The students that are added are sorted and merged into the
+	 * directory in one pass, instead of each being placed by its own search.
 	 * 
-	 * @param toHash the String to hash
-	 * @return the encoded digest of the hash algorithm in base64
-	 * @throws IllegalArgumentException "Cannot hash password" If password cannot be
-	 *                                  hashed
+	 * @param rows the students to add
+	 * @return the result of each row, in row order
+	 * @throws IllegalArgumentException if rows is null
 	 */
-	private static String hashString(String toHash) {
-		try {
-			MessageDigest digest1 = MessageDigest.getInstance(HASH_ALGORITHM);
-			digest1.update(toHash.getBytes());
-			return Base64.getEncoder().encodeToString(digest1.digest());
-		} catch (NoSuchAlgorithmException e) {
-			throw new IllegalArgumentException("Cannot hash password");
+	public List<ImportResult> importStudents(List<String[]> rows) {
+		List<ImportResult> results = new ArrayList<ImportResult>();
+		List<Student> added = UserImport.prepare(rows, studentsById,
+				(firstName, lastName, id, email, hashPW, maxCredits) -> maxCredits < 3
+						|| maxCredits > Student.MAX_CREDITS ? new Student(firstName, lastName, id, email, hashPW)
+								: new Student(firstName, lastName, id, email, hashPW, maxCredits),
+				"Invalid max credits", results);
+		if (added.isEmpty()) {
+			return results;
+		}
+
+		Collections.sort(added);
+		List<Student> merged = new ArrayList<Student>(studentDirectory.size() + added.size());
+		int i = 0;
+		int j = 0;
+		while (i < studentDirectory.size() || j < added.size()) {
+			if (j == added.size() || i < studentDirectory.size() && studentDirectory.get(i).compareTo(added.get(j)) < 0) {
+				merged.add(studentDirectory.get(i++));
+			} else {
+				merged.add(added.get(j++));
+			}
 		}
+		studentDirectory = merged;
+		for (Student s : added) {
+			studentsById.put(s.getId(), s);
+			studentsByName.add(s);
+			changes.changed(s.getId(), s);
+		}
+		return results;
 	}
 
 	/**
@@ -143,14 +222,15 @@ public class StudentDirectory {
 	 * @return true if removed
 	 */
 	public boolean removeStudent(String studentId) {
-		for (int i = 0; i < studentDirectory.size(); i++) {
-			User s = studentDirectory.get(i);
-			if (s.getId().equals(studentId)) {
-				studentDirectory.remove(i);
-				return true;
-			}
+		Student s = studentsById.get(studentId);
+		if (s == null) {
+			return false;
 		}
-		return false;
+		studentDirectory.remove(Collections.binarySearch(studentDirectory, s));
+		studentsById.remove(studentId);
+		studentsByName.remove(s);
+		changes.removed(studentId);
+		return true;
 	}
 
 	/**
@@ -170,6 +250,31 @@ public class StudentDirectory {
 		return directory;
 	}
 
+	/**
+	 * Returns the students in the directory, in sorted order.
+	 * 
+	 * @return a copy of the list of students
+	 */
+	public List<Student> getStudentList() {
+		return new ArrayList<Student>(studentDirectory);
+	}
+
+	/**
+	 * Returns one page of the students whose first or last name starts with the
+	 * prefix, ignoring case. Students are ordered by the name that matched, and a
+	 * page with fewer than pageSize students is the last page.
+	 * 
+	 * @param prefix   the start of the first or last name
+	 * @param page     the page to return, starting at 0
+	 * @param pageSize the most students on a page
+	 * @return the students on the page
+	 * @throws IllegalArgumentException if prefix is null, page is negative, or
+	 *                                  pageSize is less than 1
+	 */
+	public List<Student> findStudentsByName(String prefix, int page, int pageSize) {
+		return studentsByName.find(prefix, page, pageSize);
+	}
+
 	/**
 	 * Saves all students in the directory to a file.
 	 * 
@@ -181,12 +286,49 @@ public class StudentDirectory {
 	 */
 	public void saveStudentDirectory(String fileName) {
 		try {
-			StudentRecordIO.writeStudentRecords(fileName, studentDirectory);
+			changes.save(fileName, file -> StudentRecordIO.writeStudentRecords(file, studentDirectory));
 		} catch (IOException e) {
 			throw new IllegalArgumentException("Unable to write to file " + fileName);
 		}
 	}
 
+	/**
+	 * Saves only the students that were added, changed, or removed since the
+	 * directory was loaded from or saved to the file, by appending them to the
+	 * file's delta file. Loading the file applies the delta file. If the
+	 * directory was not loaded from or saved to the file, or the delta file has
+	 * grown large, every student is written instead.
+	 * 
+	 * @param fileName name of file to save students to.
+	 * @return true if only the changes were saved, or false if every student was
+	 *         written
+	 * @throws IllegalArgumentException "Unable to write to file [filename]" If
+	 *                                  file cannot written to
+	 */
+	public boolean saveStudentDirectoryChanges(String fileName) {
+		try {
+			return changes.saveChanges(fileName, file -> StudentRecordIO.writeStudentRecords(file, studentDirectory));
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to write to file " + fileName);
+		}
+	}
+
+	/**
+	 * Records that the student with the given id was changed, such as by a new
+	 * password, so the next saveStudentDirectoryChanges() saves them.
+	 * 
+	 * @param id the id of the changed student
+	 * @return true if the student is in the directory
+	 */
+	public boolean markStudentChanged(String id) {
+		Student s = getStudentById(id);
+		if (s == null) {
+			return false;
+		}
+		changes.changed(id, s);
+		return true;
+	}
+
 	/**
 	 * Finds a Student in the Directory based on their Id.
 	 * 
@@ -194,14 +336,7 @@ public class StudentDirectory {
 	 * @param id the id of the desired student
 	 */
 	public Student getStudentById(String id) {
-		Student s = null;
-		for (int i = 0; i < studentDirectory.size(); i++) {
-			if (studentDirectory.get(i).getId().equals(id)) {
-				s = studentDirectory.get(i);
-			}
-		}
-
-		return s;
+		return studentsById.get(id);
 	}
 
 }
@@ -0,0 +1,208 @@
+package edu.ncsu.csc216.pack_scheduler.directory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import edu.ncsu.csc216.pack_scheduler.user.PasswordHasher;
+import edu.ncsu.csc216.pack_scheduler.user.User;
+
+/**
+ * Turns the rows of a bulk import into users for StudentDirectory and
+ * FacultyDirectory. Each row has the same fields as addStudent() and
+ * addFaculty(): first name, last name, id, email, password, repeated password,
+ * and max credits or courses.
+ *
+ * Rows are validated and their passwords hashed in batches on the common
+ * fork-join pool. PasswordHasher keeps a digest for each thread of the pool, and
+ * a repeated password is compared as text instead of being hashed again.
+ * The users are then checked for ids already in the directory, or earlier in
+ * the rows, with a hash set, one row at a time in row order so the first row
+ * with an id wins.
+ *
+ * @author Will Pressler
+ *
+ */
+final class UserImport {
+
+	/** Number of fields on a row */
+	static final int FIELDS = 7;
+	/** Fewest rows worth validating in a batch of their own */
+	static final int MIN_BATCH = 64;
+
+	/**
+	 * Creates a user from the fields of a row, with the password already hashed.
+	 *
+	 * @param <U> the type of user created
+	 */
+	interface UserFactory<U extends User> {
+
+		/**
+		 * Creates a user.
+		 *
+		 * @param firstName first name
+		 * @param lastName  last name
+		 * @param id        id
+		 * @param email     email
+		 * @param hashPW    hashed password
+		 * @param max       max credits or courses
+		 * @return the user
+		 * @throws IllegalArgumentException if a field is invalid
+		 */
+		U create(String firstName, String lastName, String id, String email, String hashPW, int max);
+	}
+
+	/**
+	 * The import only has static methods, so it cannot be constructed.
+	 */
+	private UserImport() {
+		// no instances
+	}
+
+	/**
+	 * Validates the rows, hashes their passwords, and removes rows whose id is
+	 * already in the directory or on an earlier row. A result is added for every
+	 * row, in row order.
+	 *
+	 * @param <U>      the type of user imported
+	 * @param rows     the rows to import
+	 * @param existing the users already in the directory, by id
+	 * @param factory  creates a user from a row
+	 * @param maxError message of a row whose max is not a number
+	 * @param results  list the result of each row is added to
+	 * @return the users to add, in row order
+	 * @throws IllegalArgumentException if rows is null
+	 */
+	static <U extends User> List<U> prepare(List<String[]> rows, Map<String, ? extends User> existing,
+			UserFactory<U> factory, String maxError, List<ImportResult> results) {
+		if (rows == null) {
+			throw new IllegalArgumentException("Invalid rows");
+		}
+		// copied so each batch can get its rows by index, whatever list they came in
+		List<String[]> copy = new ArrayList<String[]>(rows);
+		int size = copy.size();
+		List<U> users = new ArrayList<U>(size);
+		String[] messages = new String[size];
+		for (int i = 0; i < size; i++) {
+			users.add(null);
+		}
+		ForkJoinPool.commonPool().invoke(new ValidateTask<U>(copy, 0, size, factory, maxError, users, messages));
+
+		List<U> accepted = new ArrayList<U>(size);
+		Set<String> ids = new HashSet<String>(size * 2);
+		for (int i = 0; i < size; i++) {
+			U u = users.get(i);
+			String[] row = copy.get(i);
+			String id = u != null ? u.getId() : row != null && row.length > 2 ? row[2] : null;
+			String message = messages[i];
+			if (u != null && (existing.containsKey(id) || !ids.add(id))) {
+				message = "Duplicate id";
+			} else if (u != null) {
+				accepted.add(u);
+			}
+			results.add(new ImportResult(i, id, message));
+		}
+		return accepted;
+	}
+
+	/**
+	 * Validates a row and creates its user.
+	 *
+	 * @param <U>      the type of user created
+	 * @param row      the fields of the row
+	 * @param factory  creates the user
+	 * @param maxError message of a row whose max is not a number
+	 * @return the user
+	 * @throws IllegalArgumentException if the row is invalid
+	 */
+	private static <U extends User> U validate(String[] row, UserFactory<U> factory, String maxError) {
+		if (row == null || row.length != FIELDS) {
+			throw new IllegalArgumentException("Invalid row");
+		}
+		String password = row[4];
+		String repeatPassword = row[5];
+		if (password == null || repeatPassword == null || "".equals(password) || "".equals(repeatPassword)) {
+			throw new IllegalArgumentException("Invalid password");
+		}
+		if (!password.equals(repeatPassword)) {
+			throw new IllegalArgumentException("Passwords do not match");
+		}
+		int max;
+		try {
+			max = Integer.parseInt(row[6].trim());
+		} catch (NumberFormatException | NullPointerException e) {
+			throw new IllegalArgumentException(maxError);
+		}
+		String hashPW = PasswordHasher.hash(password);
+		return factory.create(row[0], row[1], row[2], row[3], hashPW, max);
+	}
+
+	/**
+	 * Validates a range of rows, splitting it in half until it is small enough to
+	 * validate as one batch.
+	 *
+	 * @param <U> the type of user created
+	 */
+	private static class ValidateTask<U extends User> extends RecursiveAction {
+
+		/** Serialization id */
+		private static final long serialVersionUID = 1L;
+		/** The rows to import */
+		private final List<String[]> rows;
+		/** First row to validate */
+		private final int from;
+		/** One past the last row to validate */
+		private final int to;
+		/** Creates a user from a row */
+		private final UserFactory<U> factory;
+		/** Message of a row whose max is not a number */
+		private final String maxError;
+		/** User of each row, or null if the row is invalid */
+		private final List<U> users;
+		/** Why each row is invalid, or null if it is valid */
+		private final String[] messages;
+
+		/**
+		 * Creates a task that validates rows from up to, but not including, to.
+		 *
+		 * @param rows     the rows to import
+		 * @param from     first row to validate
+		 * @param to       one past the last row to validate
+		 * @param factory  creates a user from a row
+		 * @param maxError message of a row whose max is not a number
+		 * @param users    user of each row, set at the index of each row
+		 * @param messages why each row is invalid, set at the index of each row
+		 */
+		ValidateTask(List<String[]> rows, int from, int to, UserFactory<U> factory, String maxError, List<U> users,
+				String[] messages) {
+			this.rows = rows;
+			this.from = from;
+			this.to = to;
+			this.factory = factory;
+			this.maxError = maxError;
+			this.users = users;
+			this.messages = messages;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > MIN_BATCH) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new ValidateTask<U>(rows, from, mid, factory, maxError, users, messages),
+						new ValidateTask<U>(rows, mid, to, factory, maxError, users, messages));
+				return;
+			}
+			for (int i = from; i < to; i++) {
+				try {
+					users.set(i, validate(rows.get(i), factory, maxError));
+				} catch (IllegalArgumentException e) {
+					messages[i] = e.getMessage();
+				}
+			}
+		}
+	}
+}
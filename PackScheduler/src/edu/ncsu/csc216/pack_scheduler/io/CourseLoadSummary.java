@@ -0,0 +1,88 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+
+/**
+ * The result of loading a course records file with its instructors linked after
+ * every line has been read. It has the Courses that were loaded, the number of
+ * Courses that were assigned to a faculty member, the instructor ids that did
+ * not match any faculty member, and the Courses that their faculty member could
+ * not be assigned to.
+ *
+ * @author Will Pressler
+ *
+ */
+public class CourseLoadSummary {
+
+	/** Courses that were loaded, in file order */
+	private final List<Course> courses;
+	/** Number of Courses that were added to a faculty member's schedule */
+	private final int assignedCount;
+	/** Courses for each instructor id that did not match a faculty member */
+	private final Map<String, List<Course>> unresolvedInstructors;
+	/** Courses whose faculty member was found but could not take the Course */
+	private final List<Course> rejectedAssignments;
+
+	/**
+	 * Creates a summary of a course load.
+	 *
+	 * @param courses               Courses that were loaded, in file order
+	 * @param assignedCount         number of Courses added to a faculty schedule
+	 * @param unresolvedInstructors Courses for each instructor id that did not
+	 *                              match a faculty member
+	 * @param rejectedAssignments   Courses whose faculty member could not take
+	 *                              them
+	 */
+	CourseLoadSummary(List<Course> courses, int assignedCount, Map<String, List<Course>> unresolvedInstructors,
+			List<Course> rejectedAssignments) {
+		this.courses = Collections.unmodifiableList(courses);
+		this.assignedCount = assignedCount;
+		this.unresolvedInstructors = Collections.unmodifiableMap(unresolvedInstructors);
+		this.rejectedAssignments = Collections.unmodifiableList(rejectedAssignments);
+	}
+
+	/**
+	 * Returns the Courses that were loaded, in the order they appear in the file.
+	 *
+	 * @return the loaded Courses
+	 */
+	public List<Course> getCourses() {
+		return courses;
+	}
+
+	/**
+	 * Returns the number of Courses that were added to a faculty member's
+	 * schedule.
+	 *
+	 * @return the number of assigned Courses
+	 */
+	public int getAssignedCount() {
+		return assignedCount;
+	}
+
+	/**
+	 * Returns the instructor ids that did not match any faculty member, in the
+	 * order they were first read, with the Courses that named each of them. Those
+	 * Courses were loaded without an instructor.
+	 *
+	 * @return the Courses for each unresolved instructor id
+	 */
+	public Map<String, List<Course>> getUnresolvedInstructors() {
+		return unresolvedInstructors;
+	}
+
+	/**
+	 * Returns the Courses whose faculty member was found but could not be
+	 * assigned the Course, because it conflicts with or repeats a Course already
+	 * on their schedule. Those Courses were loaded without an instructor.
+	 *
+	 * @return the Courses that could not be assigned
+	 */
+	public List<Course> getRejectedAssignments() {
+		return rejectedAssignments;
+	}
+}
@@ -3,15 +3,23 @@
  */
 package edu.ncsu.csc216.pack_scheduler.io;
 
-import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintStream;
-import java.util.Scanner;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import edu.ncsu.csc216.pack_scheduler.course.Course;
 import edu.ncsu.csc216.pack_scheduler.manager.RegistrationManager;
+import edu.ncsu.csc216.pack_scheduler.user.Faculty;
 import edu.ncsu.csc217.collections.list.SortedList;
 
 /**
@@ -23,6 +31,9 @@ import edu.ncsu.csc217.collections.list.SortedList;
  */
 public class CourseRecordIO {
 
+	/** Instructor id written by Course.toString() for a Course without an instructor */
+	private static final String NO_INSTRUCTOR = "null";
+
 	/**
 	 * Reads course records from a file and generates a list of valid Courses. Any
 	 * invalid Courses are ignored. If the file to read cannot be found or the
@@ -33,101 +44,277 @@ public class CourseRecordIO {
 	 * @throws FileNotFoundException if the file cannot be found or read
 	 */
 	public static SortedList<Course> readCourseRecords(String fileName) throws FileNotFoundException {
-		Scanner fileReader = new Scanner(new FileInputStream(fileName)); // Create a file scanner to read the file
+		List<Course> records = readCourseList(fileName);
+		// The name and section of every course we keep, so a duplicate is found
+		// without looking at all the courses kept so far
+		Set<String> keys = new HashSet<String>();
+		List<Course> unique = new ArrayList<Course>(records.size());
+		for (Course course : records) {
+			// If no course with the same name and section has been kept
+			if (keys.add(course.getName() + "," + course.getSection())) {
+				unique.add(course);
+			} // Otherwise ignore
+		}
+		// Add the courses from last to first, so each one goes at the front of the
+		// SortedList instead of after a search through every course already added
+		unique.sort(Collections.reverseOrder());
 		SortedList<Course> courses = new SortedList<Course>(); // Create an empty array of Course objects
-		while (fileReader.hasNextLine()) { // While we have more lines in the file
-			try { // Attempt to do the following
-					// Read the line, process it in readCourse, and get the object
-					// If trying to construct a Course in readCourse() results in an exception, flow
-					// of control will transfer to the catch block, below
-				Course course = readCourse(fileReader.nextLine());
-
-				// Create a flag to see if the newly created Course is a duplicate of something
-				// already in the list
-				boolean duplicate = false;
-				// Look at all the courses in our list
-				for (int i = 0; i < courses.size(); i++) {
-					// Get the course at index i
-					Course current = courses.get(i);
-					// Check if the name and section are the same
-					if (course.getName().equals(current.getName())
-							&& course.getSection().equals(current.getSection())) {
-						// It's a duplicate!
-						duplicate = true;
-						break; // We can break out of the loop, no need to continue searching
-					}
-				}
-				// If the course is NOT a duplicate
-				if (!duplicate) {
-					courses.add(course); // Add to the SortedList!
-				} // Otherwise ignore
-			} catch (IllegalArgumentException e) {
-				// The line is invalid b/c we couldn't create a course, skip it!
-			}
+		for (Course course : unique) {
+			courses.add(course); // Add to the SortedList!
 		}
-		// Close the Scanner b/c we're responsible with our file handles
-		fileReader.close();
 		// Return the SortedList with all the courses we read!
 		return courses;
 	}
 
 	/**
-	 * Reads a course from file
+	 * Reads course records from a file and returns every valid Course in the order
+	 * they appear in the file. Invalid lines are ignored. Duplicate Courses are not
+	 * removed, so that callers loading many Courses at once can remove them in a
+	 * single pass.
 	 * 
-	 * @param line the line to read
-	 * @return the course that was read
+	 * @param fileName file to read Course records from
+	 * @return a list of valid Courses in file order
+	 * @throws FileNotFoundException if the file cannot be found or read
 	 */
-	private static Course readCourse(String line) {
+	public static List<Course> readCourseList(String fileName) throws FileNotFoundException {
+		// Create a tokenizer to split each line of the file into fields
+		RecordTokenizer fileReader = new RecordTokenizer(new InputStreamReader(new FileInputStream(fileName)));
+		List<String> instructorIds = new ArrayList<String>();
+		List<Course> read = readCourses(fileReader, instructorIds);
+		// Close the tokenizer b/c we're responsible with our file handles
+		fileReader.close();
+		applyChanges(fileName, read, instructorIds);
+		return linkInstructors(read, instructorIds);
+	}
 
-		try {
+	/**
+	 * Reads course records from a file and links each Course to its instructor
+	 * after the whole file has been read. If the file has more than one Course
+	 * with the same name and section, only the first is kept, as the catalog
+	 * would. The instructor ids are then resolved in one pass against a map of the
+	 * given faculty, and each faculty member is assigned all of their Courses
+	 * together.
+	 * 
+	 * Unlike readCourseList(String), a Course is never dropped because of its
+	 * instructor. A Course whose instructor id does not match any of the faculty,
+	 * or whose faculty member cannot take it, is loaded without an instructor and
+	 * reported in the summary.
+	 * 
+	 * @param fileName file to read Course records from
+	 * @param faculty  the faculty to assign the Courses to
+	 * @return a summary with the loaded Courses in file order and the instructors
+	 *         that could not be linked
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	public static CourseLoadSummary readCourseList(String fileName, Collection<Faculty> faculty)
+			throws FileNotFoundException {
+		// Parse every line first, keeping each course's instructor id alongside it
+		RecordTokenizer fileReader = new RecordTokenizer(new InputStreamReader(new FileInputStream(fileName)));
+		List<String> readIds = new ArrayList<String>();
+		List<Course> read = readCourses(fileReader, readIds);
+		fileReader.close();
+		applyChanges(fileName, read, readIds);
+		return linkInstructors(read, readIds, faculty);
+	}
 
-			Scanner s = new Scanner(line);
-			s.useDelimiter(",");
-			String name = s.next();
-			String title = s.next();
-			String section = s.next();
-			int credits = s.nextInt();
-			String instructorId = s.next();
-			int enrollmentCap = s.nextInt();
-			String meetingDays = s.next();
-			Course ret;
+	/**
+	 * Reads each remaining line of the tokenizer as a Course. Lines that are
+	 * invalid are skipped. The Courses are created without an instructor, and the
+	 * instructor id of each one is added to instructorIds.
+	 * 
+	 * @param fileReader    tokenizer to read lines from
+	 * @param instructorIds the list to add each Course's instructor id to
+	 * @return the Courses that were read, in order
+	 */
+	static List<Course> readCourses(RecordTokenizer fileReader, List<String> instructorIds) {
+		List<Course> read = new ArrayList<Course>();
+		while (fileReader.nextLine()) { // While we have more lines in the file
+			// Process the line in readCourse, and get the object
+			Course course = readCourse(fileReader, instructorIds);
+			if (course != null) {
+				read.add(course);
+			} // The line is invalid b/c we couldn't create a course, skip it!
+		}
+		return read;
+	}
 
-			if (!"A".equals(meetingDays)) {
-				int startTime = s.nextInt();
-				int endTime = s.nextInt();
+	/**
+	 * Applies the changes saved in the delta file of a course records file, if it
+	 * has one, to the Courses read from the file and their instructor ids.
+	 * Courses are matched by name and section.
+	 * 
+	 * @param fileName      the course records file
+	 * @param read          the Courses read from the file, in order, which are
+	 *                      replaced with the changed Courses
+	 * @param instructorIds the instructor id of each Course, which are replaced
+	 *                      along with the Courses
+	 */
+	static void applyChanges(String fileName, List<Course> read, List<String> instructorIds) {
+		List<CourseLine> lines = new ArrayList<CourseLine>(read.size());
+		for (int i = 0; i < read.size(); i++) {
+			lines.add(new CourseLine(read.get(i), instructorIds.get(i)));
+		}
+		List<CourseLine> changed = RecordChangeLog.apply(fileName, lines, fileReader -> {
+			List<String> id = new ArrayList<String>(1);
+			Course course = readCourse(fileReader, id);
+			return course == null ? null : new CourseLine(course, id.get(0));
+		}, line -> line.course.getName() + "," + line.course.getSection());
+		if (changed == lines) {
+			return; // There is no delta file
+		}
+		read.clear();
+		instructorIds.clear();
+		for (CourseLine line : changed) {
+			read.add(line.course);
+			instructorIds.add(line.instructorId);
+		}
+	}
 
-				if (s.hasNext()) {
-					s.close();
-					throw new IllegalArgumentException();
+	/**
+	 * Links each Course that was read to its instructor in the registration
+	 * manager's faculty directory, in order. A Course that its instructor cannot
+	 * take is dropped.
+	 * 
+	 * @param read          the Courses that were read, in order
+	 * @param instructorIds the instructor id of each Course
+	 * @return the Courses that were kept, in order
+	 */
+	static List<Course> linkInstructors(List<Course> read, List<String> instructorIds) {
+		List<Course> courses = new ArrayList<Course>(read.size());
+		for (int i = 0; i < read.size(); i++) {
+			Course course = read.get(i);
+			try {
+				Faculty faculty = RegistrationManager.getInstance().getFacultyDirectory()
+						.getFacultyById(instructorIds.get(i));
+				if (faculty != null) {
+					faculty.getSchedule().addCourseToSchedule(course);
 				}
+				courses.add(course);
+			} catch (IllegalArgumentException e) {
+				// The instructor can't take the course, skip it!
+			}
+		}
+		return courses;
+	}
 
-				ret = new Course(name, title, section, credits, null, enrollmentCap, meetingDays, startTime, endTime);
-				if (RegistrationManager.getInstance().getFacultyDirectory().getFacultyById(instructorId) != null) {
-					RegistrationManager.getInstance().getFacultyDirectory().getFacultyById(instructorId).getSchedule()
-							.addCourseToSchedule(ret);
-				}
-				s.close();
-				return ret;
+	/**
+	 * Keeps the first Course read with each name and section, then links the
+	 * Courses to the given faculty in one pass and summarizes the result.
+	 * 
+	 * @param read    the Courses that were read, in order
+	 * @param readIds the instructor id of each Course
+	 * @param faculty the faculty to assign the Courses to
+	 * @return a summary with the kept Courses and the instructors that could not
+	 *         be linked
+	 */
+	static CourseLoadSummary linkInstructors(List<Course> read, List<String> readIds, Collection<Faculty> faculty) {
+		// Keep the first course with each name and section
+		List<Course> courses = new ArrayList<Course>(read.size());
+		List<String> instructorIds = new ArrayList<String>(read.size());
+		Set<String> keys = new HashSet<String>();
+		for (int i = 0; i < read.size(); i++) {
+			Course course = read.get(i);
+			if (keys.add(course.getName() + "," + course.getSection())) {
+				courses.add(course);
+				instructorIds.add(readIds.get(i));
 			}
+		}
 
-			if (s.hasNext()) {
-				s.close();
-				throw new IllegalArgumentException();
+		// Resolve every instructor id against the faculty at once
+		Map<String, Faculty> facultyById = new HashMap<String, Faculty>();
+		for (Faculty f : faculty) {
+			facultyById.put(f.getId(), f);
+		}
+		Map<String, List<Course>> assignments = new LinkedHashMap<String, List<Course>>();
+		Map<String, List<Course>> unresolved = new LinkedHashMap<String, List<Course>>();
+		for (int i = 0; i < courses.size(); i++) {
+			String instructorId = instructorIds.get(i);
+			if (instructorId.isEmpty()) {
+				continue; // The course has no instructor
 			}
+			Map<String, List<Course>> target = facultyById.containsKey(instructorId) ? assignments : unresolved;
+			List<Course> assigned = target.get(instructorId);
+			if (assigned == null) {
+				assigned = new ArrayList<Course>();
+				target.put(instructorId, assigned);
+			}
+			assigned.add(courses.get(i));
+		}
 
-			s.close();
-			ret = new Course(name, title, section, credits, null, enrollmentCap, meetingDays);
+		// Give each faculty member all of their courses together
+		int assignedCount = 0;
+		List<Course> rejected = new ArrayList<Course>();
+		for (Map.Entry<String, List<Course>> entry : assignments.entrySet()) {
+			List<Course> notAdded = facultyById.get(entry.getKey()).getSchedule()
+					.addCoursesToSchedule(entry.getValue());
+			assignedCount += entry.getValue().size() - notAdded.size();
+			rejected.addAll(notAdded);
+		}
+		return new CourseLoadSummary(courses, assignedCount, unresolved, rejected);
+	}
+
+	/**
+	 * Reads a course from the current line of the tokenizer. The course is
+	 * created without an instructor, and the instructor id from the line is added
+	 * to instructorIds. Course.toString() writes a missing instructor as "null",
+	 * so that id is added as an empty one, the same as a blank instructor field.
+	 * 
+	 * @param s             the tokenizer positioned at the line to read
+	 * @param instructorIds the list to add the course's instructor id to
+	 * @return the course that was read, or null if the line is invalid
+	 */
+	private static Course readCourse(RecordTokenizer s, List<String> instructorIds) {
+		String name = s.next();
+		String title = s.next();
+		String section = s.next();
+		int credits = s.nextInt();
+		String instructorId = s.next();
+		int enrollmentCap = s.nextInt();
+		String meetingDays = s.next();
+		int startTime = 0;
+		int endTime = 0;
+		boolean arranged = "A".equals(meetingDays);
+		if (!arranged) {
+			startTime = s.nextInt();
+			endTime = s.nextInt();
+		}
+		if (s.isMalformed() || s.hasNext()) {
+			return null;
+		}
 
-			if (RegistrationManager.getInstance().getFacultyDirectory().getFacultyById(instructorId) != null) {
-				RegistrationManager.getInstance().getFacultyDirectory().getFacultyById(instructorId).getSchedule()
-						.addCourseToSchedule(ret);
+		try {
+			Course ret;
+			if (arranged) {
+				ret = new Course(name, title, section, credits, null, enrollmentCap, meetingDays);
+			} else {
+				ret = new Course(name, title, section, credits, null, enrollmentCap, meetingDays, startTime, endTime);
 			}
+			instructorIds.add(NO_INSTRUCTOR.equals(instructorId) ? "" : instructorId);
 			return ret;
-		} catch (Exception e) {
-
-			throw new IllegalArgumentException();
+		} catch (IllegalArgumentException e) {
+			return null;
 		}
+	}
+
+	/**
+	 * A Course that was read and the instructor id from its line.
+	 */
+	private static final class CourseLine {
+		/** The Course, created without an instructor */
+		private final Course course;
+		/** The instructor id from the Course's line */
+		private final String instructorId;
 
+		/**
+		 * Creates a Course line.
+		 * 
+		 * @param course       the Course
+		 * @param instructorId the instructor id from the Course's line
+		 */
+		CourseLine(Course course, String instructorId) {
+			this.course = course;
+			this.instructorId = instructorId;
+		}
 	}
 
 	/**
@@ -138,14 +325,33 @@ public class CourseRecordIO {
 	 * @throws IOException if cannot write to file
 	 */
 	public static void writeCourseRecords(String fileName, SortedList<Course> catalog) throws IOException {
-		PrintStream fileWriter = new PrintStream(new File(fileName));
-
+		List<Course> courses = new ArrayList<Course>(catalog.size());
 		for (int i = 0; i < catalog.size(); i++) {
-			fileWriter.println(catalog.get(i).toString());
+			courses.add(catalog.get(i));
 		}
+		writeCourseRecords(fileName, courses);
+	}
 
-		fileWriter.close();
-
+	/**
+	 * Writes the given list of Courses to a file, one Course per line in list
+	 * order. The Courses are written to a temporary file that replaces the file
+	 * only once every Course has been written, so a failed save leaves the old
+	 * file as it was.
+	 * 
+	 * @param fileName file to write schedule of Courses to
+	 * @param catalog  list of Courses to write
+	 * @throws IOException if cannot write to file
+	 */
+	public static void writeCourseRecords(String fileName, List<Course> catalog) throws IOException {
+		RecordWriter fileWriter = new RecordWriter(fileName);
+		try {
+			for (int i = 0; i < catalog.size(); i++) {
+				fileWriter.writeLine(catalog.get(i).toString());
+			}
+			fileWriter.commit();
+		} finally {
+			fileWriter.close();
+		}
 	}
 
 }
@@ -0,0 +1,163 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Reads and writes the rolls and waitlists of Courses. Each line of a roll file
+ * holds one Course: its name, its section, the number of students enrolled,
+ * and then the ids of the enrolled students in the order they enrolled,
+ * followed by the ids of the waitlisted students from the front of the
+ * waitlist to the back. For example, "CSC216,001,2,efrost,ahicks,zking" has
+ * efrost and ahicks enrolled and zking waitlisted.
+ *
+ * Reading a roll file does not enroll the students one at a time. The Courses
+ * and Students are put in maps by name and section and by id, and each line
+ * replaces the Course's roll and waitlist at once and adds the Course to the
+ * schedule of each enrolled student.
+ *
+ * @author Will Pressler
+ *
+ */
+public class CourseRollRecordIO {
+
+	/**
+	 * Writes the roll and waitlist of each Course that has any students to a
+	 * file. The file is only replaced once every Course has been written.
+	 *
+	 * @param fileName file to write the rolls to
+	 * @param courses  the Courses whose rolls are written
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void writeRollRecords(String fileName, List<Course> courses) throws IOException {
+		RecordWriter fileWriter = new RecordWriter(fileName);
+		try {
+			for (Course c : courses) {
+				List<Student> enrolled = c.getCourseRoll().getEnrolledStudents();
+				List<Student> waitlisted = c.getCourseRoll().getWaitlistedStudents();
+				if (enrolled.isEmpty() && waitlisted.isEmpty()) {
+					continue;
+				}
+				StringBuilder line = new StringBuilder();
+				line.append(c.getName()).append(',').append(c.getSection()).append(',').append(enrolled.size());
+				for (Student s : enrolled) {
+					line.append(',').append(s.getId());
+				}
+				for (Student s : waitlisted) {
+					line.append(',').append(s.getId());
+				}
+				fileWriter.writeLine(line.toString());
+			}
+			fileWriter.commit();
+		} finally {
+			fileWriter.close();
+		}
+	}
+
+	/**
+	 * Reads the rolls and waitlists in a file back into the given Courses, and
+	 * adds each Course to the schedules of its enrolled students. The Courses and
+	 * Students should be freshly loaded, with empty rolls and schedules.
+	 *
+	 * A line is skipped if it is invalid, names a Course that is not given, or has
+	 * more students than the Course can hold. An id that is not one of the given
+	 * Students, or that is repeated on a line, is skipped. An enrolled student is
+	 * also skipped if the Course cannot be added to their schedule.
+	 *
+	 * @param fileName file to read the rolls from
+	 * @param courses  the Courses to restore the rolls of
+	 * @param students the Students that can be on the rolls
+	 * @return the number of students put on rolls and waitlists
+	 * @throws FileNotFoundException if the file cannot be found
+	 */
+	public static int readRollRecords(String fileName, List<Course> courses, List<Student> students)
+			throws FileNotFoundException {
+		Map<String, Course> courseMap = new HashMap<String, Course>();
+		for (Course c : courses) {
+			courseMap.putIfAbsent(c.getName() + "," + c.getSection(), c);
+		}
+		Map<String, Student> studentMap = new HashMap<String, Student>();
+		for (Student s : students) {
+			studentMap.putIfAbsent(s.getId(), s);
+		}
+
+		RecordTokenizer fileReader = new RecordTokenizer(new InputStreamReader(new FileInputStream(fileName)));
+		int restored = 0;
+		while (fileReader.nextLine()) {
+			restored += readRoll(fileReader, courseMap, studentMap);
+		}
+		fileReader.close();
+		return restored;
+	}
+
+	/**
+	 * Reads the current line of the tokenizer as the roll and waitlist of a
+	 * Course and restores them.
+	 *
+	 * @param fileReader tokenizer positioned at a line of the roll file
+	 * @param courses    the Courses by name and section
+	 * @param students   the Students by id
+	 * @return the number of students put on the roll and waitlist
+	 */
+	private static int readRoll(RecordTokenizer fileReader, Map<String, Course> courses,
+			Map<String, Student> students) {
+		String name = fileReader.next();
+		String section = fileReader.next();
+		int enrolledCount = fileReader.nextInt();
+		List<String> ids = new ArrayList<String>();
+		while (fileReader.hasNext()) {
+			ids.add(fileReader.next());
+		}
+		Course c = courses.get(name + "," + section);
+		if (fileReader.isMalformed() || c == null || enrolledCount < 0 || enrolledCount > ids.size()) {
+			return 0;
+		}
+
+		List<Student> enrolled = new ArrayList<Student>();
+		List<Student> waitlisted = new ArrayList<Student>();
+		Set<String> seen = new HashSet<String>();
+		for (int i = 0; i < ids.size(); i++) {
+			Student s = students.get(ids.get(i));
+			if (s == null || !seen.add(s.getId())) {
+				continue;
+			}
+			if (i < enrolledCount) {
+				enrolled.add(s);
+			} else {
+				waitlisted.add(s);
+			}
+		}
+		try {
+			c.getCourseRoll().restore(enrolled, waitlisted);
+		} catch (IllegalArgumentException e) {
+			return 0;
+		}
+
+		// Only students whose schedule takes the Course stay on the roll
+		List<Student> scheduled = new ArrayList<Student>(enrolled.size());
+		for (Student s : enrolled) {
+			try {
+				if (s.getSchedule().getCourses().contains(c) || s.getSchedule().addCourseToSchedule(c)) {
+					scheduled.add(s);
+				}
+			} catch (IllegalArgumentException e) {
+				// The Course conflicts with the student's schedule, so they are left off
+			}
+		}
+		if (scheduled.size() != enrolled.size()) {
+			c.getCourseRoll().restore(scheduled, waitlisted);
+		}
+		return scheduled.size() + waitlisted.size();
+	}
+}
@@ -1,14 +1,16 @@
 package edu.ncsu.csc216.pack_scheduler.io;
 
-import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintStream;
-import java.util.Scanner;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Set;
 
 import edu.ncsu.csc216.pack_scheduler.user.Faculty;
-import edu.ncsu.csc216.pack_scheduler.user.User;
 import edu.ncsu.csc216.pack_scheduler.util.LinkedList;
 
 /**
@@ -32,114 +34,137 @@ public class FacultyRecordIO {
 	 */
 	public static LinkedList<Faculty> readFacultyRecords(String fileName) throws FileNotFoundException {
 		try {
-			// fileReader scanner is used to read fileName
-			Scanner fileReader = new Scanner(new FileInputStream(fileName));
-
-			// LinkedList of faculty is created and given Faculty type
-			LinkedList<Faculty> facultyList = new LinkedList<Faculty>();
-
-			// if fileReader has next line the loop repeats
-
-			while (fileReader.hasNextLine()) {
-				// faculty object is created and a call to processFaculty() is made to assign
-				// its value
-				Faculty faculty = processFaculty(fileReader.nextLine());
-
-				// duplicate is a boolean variable that determines if a duplicate is found
-				boolean duplicate = false;
-
-				// loop that iterates through each element in the facultyList LinkedList
-				for (int i = 0; i < facultyList.size(); i++) {
-
-					// current variable is given current element being analyzed from faculty LinkedList
-					User current = facultyList.get(i);
-
-					// if faculty is equivalent to current the variable duplicate is set to true and
-					// the loop is exited
-					if (faculty != null && faculty.equals(current)) {
-						duplicate = true;
-						break;
-					}
-
-				}
-
-				// if duplicate is false, faculty object is added to the facultyList
-				if (!duplicate && faculty != null) {
-					facultyList.add(faculty);
-				}
-			}
+			// fileReader tokenizer is used to read fileName
+			RecordTokenizer fileReader = new RecordTokenizer(new InputStreamReader(new FileInputStream(fileName)));
+			List<Faculty> read = applyChanges(fileName, readFaculty(fileReader));
 
 			// closes fileReader and returns the facultyList
 			fileReader.close();
-			return facultyList;
+			return toFacultyList(read);
 		} catch (FileNotFoundException e) {
 			throw new FileNotFoundException("Unable to write to file " + fileName);
 		}
 	}
 
 	/**
-	 * Writes the LinkedList of faculty to a file containing their information.
+	 * Reads each remaining line of the tokenizer as a Faculty. Lines that are not
+	 * able to be processed are skipped.
+	 * 
+	 * @param fileReader tokenizer to read lines from
+	 * @return the Faculty that were read, in order
+	 */
+	static List<Faculty> readFaculty(RecordTokenizer fileReader) {
+		List<Faculty> read = new ArrayList<Faculty>();
+		// if fileReader has next line the loop repeats
+		while (fileReader.nextLine()) {
+			// faculty object is created and a call to processFaculty() is made to assign
+			// its value
+			Faculty faculty = processFaculty(fileReader);
+			if (faculty != null) {
+				read.add(faculty);
+			}
+		}
+		return read;
+	}
+
+	/**
+	 * Creates the list of faculty from the Faculty that were read, keeping only
+	 * the first Faculty with each id.
+	 * 
+	 * @param read the Faculty that were read, in order
+	 * @return the list of faculty
+	 */
+	static LinkedList<Faculty> toFacultyList(List<Faculty> read) {
+		// LinkedList of faculty is created and given Faculty type. Faculty are added
+		// through an iterator at the end of the list, since add() walks the whole list
+		// to check for a duplicate before walking it again to find the end
+		LinkedList<Faculty> facultyList = new LinkedList<Faculty>();
+		ListIterator<Faculty> end = facultyList.listIterator(0);
+		// ids of the faculty already in the list, so duplicates are found without
+		// walking the list for every faculty read so far
+		Set<String> ids = new HashSet<String>();
+		for (Faculty faculty : read) {
+			// if the faculty's id has not been read before, faculty object is added to the
+			// facultyList, otherwise the first faculty with the id is kept
+			if (ids.add(faculty.getId())) {
+				end.add(faculty);
+			}
+		}
+		return facultyList;
+	}
+
+	/**
+	 * Applies the changes saved in the delta file of a faculty records file, if
+	 * it has one, to the Faculty read from the file. Faculty are matched by id.
+	 * 
+	 * @param fileName the faculty records file
+	 * @param read     the Faculty read from the file, in order
+	 * @return the Faculty with the changes applied
+	 */
+	static List<Faculty> applyChanges(String fileName, List<Faculty> read) {
+		return RecordChangeLog.apply(fileName, read, FacultyRecordIO::processFaculty, Faculty::getId);
+	}
+
+	/**
+	 * Writes the list of faculty to a file containing their information.
+	 * The file is only replaced once every faculty member has been written.
 	 * 
 	 * @param fileName         the file of the directory will be exported to
 	 * @param facultyList the list of faculty objects to write
 	 * @throws IOException if cannot write to file
 	 */
-	public static void writeFacultyRecords(String fileName, LinkedList<Faculty> facultyList) throws IOException {
+	public static void writeFacultyRecords(String fileName, List<Faculty> facultyList) throws IOException {
 		try {
-			// PrintStream fileWriter is created and given fileName as the name for the new
-			// file created
-			PrintStream fileWriter = new PrintStream(new File(fileName));
-
-			// loop iterates for each element of facultyList
-			for (int i = 0; i < facultyList.size(); i++) {
-				// fileWriter is used to write the elements of facultyList
-				fileWriter.println(facultyList.get(i).toString());
+			// RecordWriter fileWriter writes to a temporary file that replaces fileName
+			// once every record has been written
+			RecordWriter fileWriter = new RecordWriter(fileName);
+			try {
+				// loop iterates for each element of facultyList, walking a linked list once
+				// instead of from the front for each element
+				for (Faculty faculty : facultyList) {
+					// fileWriter is used to write the elements of facultyList
+					fileWriter.writeLine(faculty.toString());
+				}
+				fileWriter.commit();
+			} finally {
+				// fileWriter is closed, deleting the temporary file if it was not committed
+				fileWriter.close();
 			}
 
-			// fileWriter is closed
-			fileWriter.close();
-
 		} catch (IOException e) {
 			throw new IOException(fileName + " (Permission denied)");
 		}
 	}
 
 	/**
-	 * Reads in a single line of text as a Faculty object.
+	 * Reads in the current line of the tokenizer as a Faculty object.
 	 * 
-	 * @param line of text from input file
-	 * @return Faculty object with correct parameters from file
-	 * @throws IllegalArgumentException if the line is not able to be processed due to too many tokens
+	 * @param fileReader tokenizer positioned at a line of text from the input file
+	 * @return Faculty object with correct parameters from file, or null if the line is
+	 *         not able to be processed
 	 */
-	private static Faculty processFaculty(String line) {
-		try {
-			// fileReader scanner is used to read line
-			Scanner fileReader = new Scanner(line);
-			// changes delimiter of scanner to ","
-			fileReader.useDelimiter(",");
-
-			// creates a list of string variables to hold the tokens from fileReader
-			// scanning line
-			String firstName = fileReader.next();
-			String lastName = fileReader.next();
-			String id = fileReader.next();
-			String email = fileReader.next();
-			String password = fileReader.next();
-
-			int numCourses = fileReader.nextInt();
-
-			// if fileReader has another line after reading tokens throws IAE as line has
-			// too many tokens
-			if (fileReader.hasNext()) {
-				fileReader.close();
-				throw new IllegalArgumentException("Invalid faculty string.");
-			}
+	private static Faculty processFaculty(RecordTokenizer fileReader) {
+		// creates a list of string variables to hold the tokens from fileReader
+		// scanning line
+		String firstName = fileReader.next();
+		String lastName = fileReader.next();
+		String id = fileReader.next();
+		String email = fileReader.next();
+		String password = fileReader.next();
+
+		int numCourses = fileReader.nextInt();
+
+		// if a token was missing or fileReader has more tokens after reading them, the
+		// line is invalid
+		if (fileReader.isMalformed() || fileReader.hasNext()) {
+			return null;
+		}
 
-			// if fileReader has correct number of tokens it makes a call to constructor
-			// Faculty() in the Faculty class and constructs Faculty object
-			fileReader.close();
+		// if fileReader has correct number of tokens it makes a call to constructor
+		// Faculty() in the Faculty class and constructs Faculty object
+		try {
 			return new Faculty(firstName, lastName, id, email, password, numCourses);
-		} catch (Exception e) {
+		} catch (IllegalArgumentException e) {
 			return null;
 		}
 	}
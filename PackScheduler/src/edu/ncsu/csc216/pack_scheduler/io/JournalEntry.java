@@ -0,0 +1,130 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+/**
+ * One change to registration state recorded in a RegistrationJournal. An entry
+ * names the user and Course by id, name, and section, so it can be applied
+ * again to a catalog and directories that were loaded from a file.
+ *
+ * @author Will Pressler
+ *
+ */
+public final class JournalEntry {
+
+	/**
+	 * The kinds of change that are journaled.
+	 */
+	public enum Operation {
+		/** A Student enrolled in a Course */
+		ENROLL(true),
+		/** A Student dropped a Course */
+		DROP(true),
+		/** A Student's schedule was reset */
+		RESET_SCHEDULE(false),
+		/** A Faculty was assigned a Course */
+		ADD_FACULTY(true),
+		/** A Faculty was removed from a Course */
+		REMOVE_FACULTY(true),
+		/** A Faculty's schedule was reset */
+		RESET_FACULTY_SCHEDULE(false);
+
+		/** Whether the operation names a Course */
+		private final boolean hasCourse;
+
+		/**
+		 * Creates an operation.
+		 *
+		 * @param hasCourse whether the operation names a Course
+		 */
+		Operation(boolean hasCourse) {
+			this.hasCourse = hasCourse;
+		}
+
+		/**
+		 * Returns whether entries for the operation name a Course.
+		 *
+		 * @return true if the operation names a Course
+		 */
+		public boolean hasCourse() {
+			return hasCourse;
+		}
+	}
+
+	/** The kind of change */
+	private final Operation operation;
+	/** Id of the Student or Faculty the change was made for */
+	private final String userId;
+	/** Name of the Course, or null if the operation has no Course */
+	private final String courseName;
+	/** Section of the Course, or null if the operation has no Course */
+	private final String section;
+
+	/**
+	 * Creates a journal entry.
+	 *
+	 * @param operation  the kind of change
+	 * @param userId     id of the Student or Faculty the change was made for
+	 * @param courseName name of the Course, or null if the operation has no
+	 *                   Course
+	 * @param section    section of the Course, or null if the operation has no
+	 *                   Course
+	 * @throws IllegalArgumentException if the operation or user id is null, or
+	 *                                  the Course is missing for an operation
+	 *                                  that needs one
+	 */
+	public JournalEntry(Operation operation, String userId, String courseName, String section) {
+		if (operation == null || userId == null
+				|| operation.hasCourse() && (courseName == null || section == null)) {
+			throw new IllegalArgumentException("Invalid journal entry");
+		}
+		this.operation = operation;
+		this.userId = userId;
+		this.courseName = operation.hasCourse() ? courseName : null;
+		this.section = operation.hasCourse() ? section : null;
+	}
+
+	/**
+	 * Returns the kind of change.
+	 *
+	 * @return the operation
+	 */
+	public Operation getOperation() {
+		return operation;
+	}
+
+	/**
+	 * Returns the id of the Student or Faculty the change was made for.
+	 *
+	 * @return the user's id
+	 */
+	public String getUserId() {
+		return userId;
+	}
+
+	/**
+	 * Returns the name of the Course, or null if the operation has no Course.
+	 *
+	 * @return the Course's name
+	 */
+	public String getCourseName() {
+		return courseName;
+	}
+
+	/**
+	 * Returns the section of the Course, or null if the operation has no Course.
+	 *
+	 * @return the Course's section
+	 */
+	public String getSection() {
+		return section;
+	}
+
+	/**
+	 * Returns the entry as a comma separated string, for messages and tests.
+	 *
+	 * @return the operation, user id, and Course of the entry
+	 */
+	@Override
+	public String toString() {
+		return operation + "," + userId + (operation.hasCourse() ? "," + courseName + "," + section : "");
+	}
+}
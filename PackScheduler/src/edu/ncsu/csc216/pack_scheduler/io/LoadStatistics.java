@@ -0,0 +1,151 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How long a load by PipelinedRecordLoader took, in total and in each of its
+ * stages, and how many lines and records it handled. Times are in nanoseconds.
+ * The parse time is added up across every parser, so with several parsers it
+ * can be longer than the whole load.
+ *
+ * @author Will Pressler
+ *
+ */
+public final class LoadStatistics {
+
+	/** Number of lines read from the file */
+	private final long lineCount;
+	/** Number of records loaded */
+	private final int recordCount;
+	/** Time from the start of the load until the records were built */
+	private final long elapsedNanos;
+	/** Time the reader spent reading and splitting the file */
+	private final long readNanos;
+	/** Time the reader spent waiting for room in the pipeline */
+	private final long readWaitNanos;
+	/** Time the parsers spent parsing, added up across parsers */
+	private final long parseNanos;
+	/** Time spent inserting the parsed records and building the result */
+	private final long insertNanos;
+
+	/**
+	 * Creates the statistics of a load.
+	 *
+	 * @param lineCount     number of lines read from the file
+	 * @param recordCount   number of records loaded
+	 * @param elapsedNanos  time the whole load took
+	 * @param readNanos     time the reader spent reading
+	 * @param readWaitNanos time the reader spent waiting for room
+	 * @param parseNanos    time the parsers spent parsing
+	 * @param insertNanos   time spent inserting and building the result
+	 */
+	LoadStatistics(long lineCount, int recordCount, long elapsedNanos, long readNanos, long readWaitNanos,
+			long parseNanos, long insertNanos) {
+		this.lineCount = lineCount;
+		this.recordCount = recordCount;
+		this.elapsedNanos = elapsedNanos;
+		this.readNanos = readNanos;
+		this.readWaitNanos = readWaitNanos;
+		this.parseNanos = parseNanos;
+		this.insertNanos = insertNanos;
+	}
+
+	/**
+	 * Returns the number of lines read from the file, including blank and
+	 * invalid lines.
+	 *
+	 * @return the number of lines
+	 */
+	public long getLineCount() {
+		return lineCount;
+	}
+
+	/**
+	 * Returns the number of records that were loaded.
+	 *
+	 * @return the number of records
+	 */
+	public int getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Returns the time the whole load took.
+	 *
+	 * @return the elapsed time in nanoseconds
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * Returns the time the reader stage spent reading the file and splitting it
+	 * into batches of lines, not counting time spent waiting for room.
+	 *
+	 * @return the read time in nanoseconds
+	 */
+	public long getReadNanos() {
+		return readNanos;
+	}
+
+	/**
+	 * Returns the time the reader stage spent waiting because the pipeline was
+	 * full. A long wait means the later stages are the bottleneck.
+	 *
+	 * @return the wait time in nanoseconds
+	 */
+	public long getReadWaitNanos() {
+		return readWaitNanos;
+	}
+
+	/**
+	 * Returns the time the parser stage spent parsing and validating lines, added
+	 * up across every parser.
+	 *
+	 * @return the parse time in nanoseconds
+	 */
+	public long getParseNanos() {
+		return parseNanos;
+	}
+
+	/**
+	 * Returns the time the insert stage spent adding parsed records in file order
+	 * and building the finished list.
+	 *
+	 * @return the insert time in nanoseconds
+	 */
+	public long getInsertNanos() {
+		return insertNanos;
+	}
+
+	/**
+	 * Returns the number of lines read per second over the whole load.
+	 *
+	 * @return the lines per second, or 0 if no time has passed
+	 */
+	public double getLinesPerSecond() {
+		return elapsedNanos == 0 ? 0 : lineCount * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+	}
+
+	/**
+	 * Returns the statistics as a line of text, with times in milliseconds.
+	 *
+	 * @return the statistics
+	 */
+	@Override
+	public String toString() {
+		return String.format("%d lines, %d records in %.1f ms (%.0f lines/s): read %.1f ms, read wait %.1f ms, "
+				+ "parse %.1f ms, insert %.1f ms", lineCount, recordCount, millis(elapsedNanos), getLinesPerSecond(),
+				millis(readNanos), millis(readWaitNanos), millis(parseNanos), millis(insertNanos));
+	}
+
+	/**
+	 * Converts nanoseconds to milliseconds.
+	 *
+	 * @param nanos the time in nanoseconds
+	 * @return the time in milliseconds
+	 */
+	private static double millis(long nanos) {
+		return nanos / 1e6;
+	}
+}
@@ -0,0 +1,366 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.io.CharArrayReader;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.user.Faculty;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+import edu.ncsu.csc216.pack_scheduler.util.LinkedList;
+
+/**
+ * Loads course, student, and faculty record files by parsing parts of the file
+ * in parallel. The file is read into memory and split into chunks that each
+ * end at a line break, and the chunks are parsed at the same time on the common
+ * fork-join pool. The records of the chunks are then put back together in file
+ * order and handed to the same code the serial readers in CourseRecordIO,
+ * StudentRecordIO, and FacultyRecordIO use to remove duplicates, link
+ * instructors, and build their lists, so the results are the same as theirs.
+ *
+ * A file is only split when a line break byte cannot be part of another
+ * character, which is true of UTF-8 and single byte charsets. Other files are
+ * parsed as a single chunk.
+ *
+ * Files smaller than MAP_SIZE are read into a heap buffer. Only larger files
+ * are memory mapped. A mapping is not released until it is garbage collected,
+ * and on Windows a mapped file cannot be replaced, so mapping every file would
+ * make the atomic rename in RecordWriter fail when the file is saved after it
+ * was loaded.
+ *
+ * @author Will Pressler
+ *
+ */
+public final class ParallelRecordLoader {
+
+	/** Smallest number of bytes worth parsing in a chunk of its own */
+	static final int MIN_CHUNK_SIZE = 64 * 1024;
+	/** Number of chunks for each thread in the pool, so uneven chunks balance out */
+	private static final int CHUNKS_PER_THREAD = 4;
+	/** Smallest file that is memory mapped instead of read into a heap buffer */
+	static final long MAP_SIZE = 64L * 1024 * 1024;
+
+	/**
+	 * The loader only has static methods, so it cannot be constructed.
+	 */
+	private ParallelRecordLoader() {
+		// no instances
+	}
+
+	/**
+	 * Reads course records from a file, the same as
+	 * CourseRecordIO.readCourseList(String), with the lines parsed in parallel.
+	 * Instructors are linked afterwards, in file order.
+	 *
+	 * @param fileName file to read Course records from
+	 * @return a list of valid Courses in file order
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	public static List<Course> readCourseList(String fileName) throws FileNotFoundException {
+		CourseChunk chunk = readCourseChunks(fileName, MIN_CHUNK_SIZE);
+		CourseRecordIO.applyChanges(fileName, chunk.courses, chunk.instructorIds);
+		return CourseRecordIO.linkInstructors(chunk.courses, chunk.instructorIds);
+	}
+
+	/**
+	 * Reads course records from a file and links them to the given faculty, the
+	 * same as CourseRecordIO.readCourseList(String, Collection), with the lines
+	 * parsed in parallel.
+	 *
+	 * @param fileName file to read Course records from
+	 * @param faculty  the faculty to assign the Courses to
+	 * @return a summary with the loaded Courses in file order and the instructors
+	 *         that could not be linked
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	public static CourseLoadSummary readCourseList(String fileName, Collection<Faculty> faculty)
+			throws FileNotFoundException {
+		CourseChunk chunk = readCourseChunks(fileName, MIN_CHUNK_SIZE);
+		CourseRecordIO.applyChanges(fileName, chunk.courses, chunk.instructorIds);
+		return CourseRecordIO.linkInstructors(chunk.courses, chunk.instructorIds, faculty);
+	}
+
+	/**
+	 * Reads student records from a file, the same as
+	 * StudentRecordIO.readStudentRecords(String), with the lines parsed in
+	 * parallel. The students are sorted once instead of being added to a
+	 * SortedList one at a time.
+	 *
+	 * @param fileName input file's name
+	 * @return the Students, in sorted order
+	 * @throws FileNotFoundException if file does not exist
+	 */
+	public static List<Student> readStudentRecords(String fileName) throws FileNotFoundException {
+		return readStudentRecords(fileName, MIN_CHUNK_SIZE);
+	}
+
+	/**
+	 * Reads faculty records from a file, the same as
+	 * FacultyRecordIO.readFacultyRecords(String), with the lines parsed in
+	 * parallel.
+	 *
+	 * @param fileName input file's name
+	 * @return a list of Faculty
+	 * @throws FileNotFoundException if file does not exist
+	 */
+	public static LinkedList<Faculty> readFacultyRecords(String fileName) throws FileNotFoundException {
+		return readFacultyRecords(fileName, MIN_CHUNK_SIZE);
+	}
+
+	/**
+	 * Reads student records from a file, splitting it into chunks of at least the
+	 * given size.
+	 *
+	 * @param fileName  input file's name
+	 * @param chunkSize smallest number of bytes in a chunk
+	 * @return the Students, in sorted order
+	 * @throws FileNotFoundException if file does not exist
+	 */
+	static List<Student> readStudentRecords(String fileName, int chunkSize) throws FileNotFoundException {
+		List<List<Student>> chunks;
+		try {
+			chunks = parseChunks(fileName, chunkSize, StudentRecordIO::readStudents);
+		} catch (FileNotFoundException e) {
+			throw new FileNotFoundException("Unable to write to file " + fileName);
+		}
+		List<Student> read = new ArrayList<Student>();
+		for (List<Student> chunk : chunks) {
+			read.addAll(chunk);
+		}
+		return StudentRecordIO.toSortedStudents(StudentRecordIO.applyChanges(fileName, read));
+	}
+
+	/**
+	 * Reads faculty records from a file, splitting it into chunks of at least the
+	 * given size.
+	 *
+	 * @param fileName  input file's name
+	 * @param chunkSize smallest number of bytes in a chunk
+	 * @return a list of Faculty
+	 * @throws FileNotFoundException if file does not exist
+	 */
+	static LinkedList<Faculty> readFacultyRecords(String fileName, int chunkSize) throws FileNotFoundException {
+		List<List<Faculty>> chunks;
+		try {
+			chunks = parseChunks(fileName, chunkSize, FacultyRecordIO::readFaculty);
+		} catch (FileNotFoundException e) {
+			throw new FileNotFoundException("Unable to write to file " + fileName);
+		}
+		List<Faculty> read = new ArrayList<Faculty>();
+		for (List<Faculty> chunk : chunks) {
+			read.addAll(chunk);
+		}
+		return FacultyRecordIO.toFacultyList(FacultyRecordIO.applyChanges(fileName, read));
+	}
+
+	/**
+	 * Reads the Courses of a file and their instructor ids, splitting it into
+	 * chunks of at least the given size.
+	 *
+	 * @param fileName  file to read Course records from
+	 * @param chunkSize smallest number of bytes in a chunk
+	 * @return the Courses and instructor ids of the whole file, in order
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	static CourseChunk readCourseChunks(String fileName, int chunkSize) throws FileNotFoundException {
+		List<CourseChunk> chunks = parseChunks(fileName, chunkSize, fileReader -> {
+			CourseChunk chunk = new CourseChunk();
+			chunk.courses = CourseRecordIO.readCourses(fileReader, chunk.instructorIds);
+			return chunk;
+		});
+		CourseChunk all = new CourseChunk();
+		all.courses = new ArrayList<Course>();
+		for (CourseChunk chunk : chunks) {
+			all.courses.addAll(chunk.courses);
+			all.instructorIds.addAll(chunk.instructorIds);
+		}
+		return all;
+	}
+
+	/**
+	 * Reads a file into memory, splits it into chunks that end at line breaks, and
+	 * parses each chunk in parallel with the given parser.
+	 *
+	 * @param <R>       the type of a parsed chunk
+	 * @param fileName  file to read
+	 * @param chunkSize smallest number of bytes in a chunk
+	 * @param parser    reads every line of a chunk's tokenizer
+	 * @return the parsed chunks, in file order
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	private static <R> List<R> parseChunks(String fileName, int chunkSize, Function<RecordTokenizer, R> parser)
+			throws FileNotFoundException {
+		ByteBuffer file = readFile(fileName, MAP_SIZE);
+		Charset charset = Charset.defaultCharset();
+		int[] bounds = findChunks(file, splittable(charset) ? chunkSize : Integer.MAX_VALUE);
+		List<R> results = new ArrayList<R>(bounds.length - 1);
+		for (int i = 1; i < bounds.length; i++) {
+			results.add(null);
+		}
+		ForkJoinPool.commonPool().invoke(new ParseTask<R>(file, charset, bounds, 0, bounds.length - 1, parser, results));
+		return results;
+	}
+
+	/**
+	 * Reads the whole of a file into a heap buffer, or memory maps it if it is at
+	 * least mapSize bytes long.
+	 *
+	 * @param fileName file to read
+	 * @param mapSize  smallest file to map
+	 * @return the contents of the file, from position 0 to its limit
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	static ByteBuffer readFile(String fileName, long mapSize) throws FileNotFoundException {
+		try (FileInputStream in = new FileInputStream(fileName); FileChannel channel = in.getChannel()) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new FileNotFoundException(fileName + " (File too large)");
+			}
+			if (size >= mapSize) {
+				// only released once collected, so the file cannot be replaced on
+				// Windows until then
+				return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			}
+			ByteBuffer file = ByteBuffer.allocate((int) size);
+			while (file.hasRemaining() && channel.read(file) >= 0) {
+				// read until the buffer is full or the file ends
+			}
+			file.flip();
+			return file;
+		} catch (FileNotFoundException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new FileNotFoundException(fileName + " (" + e.getMessage() + ")");
+		}
+	}
+
+	/**
+	 * Returns whether a '\n' byte always means a line break in text encoded with
+	 * the given charset.
+	 *
+	 * @param charset the charset of the file
+	 * @return true if the file can be split at '\n' bytes
+	 */
+	private static boolean splittable(Charset charset) {
+		return StandardCharsets.UTF_8.equals(charset)
+				|| charset.canEncode() && charset.newEncoder().maxBytesPerChar() == 1.0f;
+	}
+
+	/**
+	 * Splits the file into chunks of at least the given size that each end just
+	 * after a '\n' byte, or at the end of the file.
+	 *
+	 * @param file      the contents of the file
+	 * @param chunkSize smallest number of bytes in a chunk
+	 * @return the start of each chunk followed by the end of the file
+	 */
+	private static int[] findChunks(ByteBuffer file, int chunkSize) {
+		int size = file.limit();
+		int threads = ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD;
+		int count = Math.max(1, Math.min(size / Math.max(1, chunkSize), threads));
+		int[] bounds = new int[count + 1];
+		int found = 1;
+		for (int i = 1; i < count; i++) {
+			int pos = (int) ((long) size * i / count);
+			pos = Math.max(pos, bounds[found - 1]);
+			while (pos < size && file.get(pos) != '\n') {
+				pos++;
+			}
+			if (pos + 1 < size) {
+				bounds[found++] = pos + 1;
+			}
+		}
+		bounds[found++] = size;
+		int[] trimmed = new int[found];
+		System.arraycopy(bounds, 0, trimmed, 0, found);
+		return trimmed;
+	}
+
+	/**
+	 * Parses a range of chunks, splitting the range in half until there is one
+	 * chunk left.
+	 *
+	 * @param <R> the type of a parsed chunk
+	 */
+	private static class ParseTask<R> extends RecursiveAction {
+
+		/** Serialization id */
+		private static final long serialVersionUID = 1L;
+		/** The contents of the file */
+		private final ByteBuffer file;
+		/** Charset of the file */
+		private final Charset charset;
+		/** Start of each chunk, followed by the end of the file */
+		private final int[] bounds;
+		/** First chunk to parse */
+		private final int from;
+		/** One past the last chunk to parse */
+		private final int to;
+		/** Reads every line of a chunk */
+		private final Function<RecordTokenizer, R> parser;
+		/** Parsed chunks, set at the index of each chunk */
+		private final List<R> results;
+
+		/**
+		 * Creates a task that parses chunks from up to, but not including, to.
+		 *
+		 * @param file    the contents of the file
+		 * @param charset charset of the file
+		 * @param bounds  start of each chunk, followed by the end of the file
+		 * @param from    first chunk to parse
+		 * @param to      one past the last chunk to parse
+		 * @param parser  reads every line of a chunk
+		 * @param results parsed chunks, set at the index of each chunk
+		 */
+		ParseTask(ByteBuffer file, Charset charset, int[] bounds, int from, int to, Function<RecordTokenizer, R> parser,
+				List<R> results) {
+			this.file = file;
+			this.charset = charset;
+			this.bounds = bounds;
+			this.from = from;
+			this.to = to;
+			this.parser = parser;
+			this.results = results;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new ParseTask<R>(file, charset, bounds, from, mid, parser, results),
+						new ParseTask<R>(file, charset, bounds, mid, to, parser, results));
+				return;
+			}
+			ByteBuffer chunk = file.duplicate();
+			chunk.limit(bounds[to]);
+			chunk.position(bounds[from]);
+			CharBuffer chars = charset.decode(chunk);
+			RecordTokenizer fileReader = new RecordTokenizer(
+					new CharArrayReader(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining()));
+			results.set(from, parser.apply(fileReader));
+			fileReader.close();
+		}
+	}
+
+	/**
+	 * The Courses read from part of a file, with the instructor id of each one.
+	 */
+	static class CourseChunk {
+		/** Courses that were read, in order */
+		List<Course> courses;
+		/** Instructor id of each Course */
+		final List<String> instructorIds = new ArrayList<String>();
+	}
+}
@@ -0,0 +1,545 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.io.CharArrayReader;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.user.Faculty;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+import edu.ncsu.csc216.pack_scheduler.util.LinkedList;
+
+/**
+ * Loads course, student, and faculty record files in a pipeline of three
+ * stages, so reading the file, parsing and validating its lines, and building
+ * the list of records all happen at the same time.
+ *
+ * <ol>
+ * <li>A reader thread reads the file and splits it into batches of whole
+ * lines.</li>
+ * <li>A number of parser threads each take a batch and parse it with the same
+ * code the serial readers use, which also runs the setters and validators of
+ * each record.</li>
+ * <li>The calling thread inserts the parsed batches in file order, and then
+ * removes duplicates, links instructors, and builds the list the same way the
+ * serial readers do, so the results are the same as theirs.</li>
+ * </ol>
+ *
+ * The stages are connected by bounded queues, and only a fixed number of
+ * batches can be between the reader and the insert stage at once. When the
+ * parsers or the insert stage fall behind, the reader waits instead of reading
+ * the whole file into memory. How long each stage took is kept in a
+ * LoadStatistics for the last load.
+ *
+ * @author Will Pressler
+ *
+ */
+public class PipelinedRecordLoader {
+
+	/** Number of characters the reader tries to put in each batch */
+	static final int BATCH_SIZE = 32 * 1024;
+	/** Number of batches each queue holds if no capacity is given */
+	private static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+	/** Number of parser threads */
+	private final int parsers;
+	/** Number of batches each queue between stages can hold */
+	private final int queueCapacity;
+	/** Number of characters the reader tries to put in each batch */
+	private final int batchSize;
+	/** Statistics of the last load, or null if nothing has been loaded */
+	private volatile LoadStatistics statistics;
+
+	/**
+	 * Creates a loader with a parser thread for each processor.
+	 */
+	public PipelinedRecordLoader() {
+		this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * Creates a loader with the given number of parser threads and queue
+	 * capacity.
+	 *
+	 * @param parsers       number of parser threads
+	 * @param queueCapacity number of batches each queue between stages can hold
+	 * @throws IllegalArgumentException if either number is less than 1
+	 */
+	public PipelinedRecordLoader(int parsers, int queueCapacity) {
+		this(parsers, queueCapacity, BATCH_SIZE);
+	}
+
+	/**
+	 * Creates a loader that splits files into batches of the given size.
+	 *
+	 * @param parsers       number of parser threads
+	 * @param queueCapacity number of batches each queue between stages can hold
+	 * @param batchSize     number of characters to put in each batch
+	 * @throws IllegalArgumentException if any number is less than 1
+	 */
+	PipelinedRecordLoader(int parsers, int queueCapacity, int batchSize) {
+		if (parsers < 1 || queueCapacity < 1 || batchSize < 1) {
+			throw new IllegalArgumentException("Invalid pipeline");
+		}
+		this.parsers = parsers;
+		this.queueCapacity = queueCapacity;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Returns the statistics of the last load that finished.
+	 *
+	 * @return the statistics, or null if nothing has been loaded
+	 */
+	public LoadStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Reads course records from a file, the same as
+	 * CourseRecordIO.readCourseList(String).
+	 *
+	 * @param fileName file to read Course records from
+	 * @return a list of valid Courses in file order
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	public List<Course> readCourseList(String fileName) throws FileNotFoundException {
+		Run run = new Run();
+		List<Course> read = new ArrayList<Course>();
+		List<String> instructorIds = new ArrayList<String>();
+		load(fileName, new FileInputStream(fileName), run, courseParser(), courseInserter(read, instructorIds));
+		long start = System.nanoTime();
+		CourseRecordIO.applyChanges(fileName, read, instructorIds);
+		List<Course> courses = CourseRecordIO.linkInstructors(read, instructorIds);
+		run.finish(start, courses.size());
+		return courses;
+	}
+
+	/**
+	 * Reads course records from a file and links them to the given faculty, the
+	 * same as CourseRecordIO.readCourseList(String, Collection).
+	 *
+	 * @param fileName file to read Course records from
+	 * @param faculty  the faculty to assign the Courses to
+	 * @return a summary with the loaded Courses in file order and the instructors
+	 *         that could not be linked
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	public CourseLoadSummary readCourseList(String fileName, Collection<Faculty> faculty)
+			throws FileNotFoundException {
+		Run run = new Run();
+		List<Course> read = new ArrayList<Course>();
+		List<String> instructorIds = new ArrayList<String>();
+		load(fileName, new FileInputStream(fileName), run, courseParser(), courseInserter(read, instructorIds));
+		long start = System.nanoTime();
+		CourseRecordIO.applyChanges(fileName, read, instructorIds);
+		CourseLoadSummary summary = CourseRecordIO.linkInstructors(read, instructorIds, faculty);
+		run.finish(start, summary.getCourses().size());
+		return summary;
+	}
+
+	/**
+	 * Reads student records from a file, the same as
+	 * StudentRecordIO.readStudentRecords(String), with the students sorted once
+	 * instead of being added to a SortedList one at a time.
+	 *
+	 * @param fileName input file's name
+	 * @return the Students, in sorted order
+	 * @throws FileNotFoundException if file does not exist
+	 */
+	public List<Student> readStudentRecords(String fileName) throws FileNotFoundException {
+		Run run = new Run();
+		List<Student> read = new ArrayList<Student>();
+		load(fileName, open(fileName), run, StudentRecordIO::readStudents, read::addAll);
+		long start = System.nanoTime();
+		List<Student> students = StudentRecordIO.toSortedStudents(StudentRecordIO.applyChanges(fileName, read));
+		run.finish(start, students.size());
+		return students;
+	}
+
+	/**
+	 * Reads faculty records from a file, the same as
+	 * FacultyRecordIO.readFacultyRecords(String).
+	 *
+	 * @param fileName input file's name
+	 * @return a list of Faculty
+	 * @throws FileNotFoundException if file does not exist
+	 */
+	public LinkedList<Faculty> readFacultyRecords(String fileName) throws FileNotFoundException {
+		Run run = new Run();
+		List<Faculty> read = new ArrayList<Faculty>();
+		load(fileName, open(fileName), run, FacultyRecordIO::readFaculty, read::addAll);
+		long start = System.nanoTime();
+		LinkedList<Faculty> faculty = FacultyRecordIO.toFacultyList(FacultyRecordIO.applyChanges(fileName, read));
+		run.finish(start, faculty.size());
+		return faculty;
+	}
+
+	/**
+	 * Opens a student or faculty file, with the same message the serial readers
+	 * give if it is missing.
+	 *
+	 * @param fileName the file to open
+	 * @return a stream of the file
+	 * @throws FileNotFoundException if the file does not exist
+	 */
+	private static FileInputStream open(String fileName) throws FileNotFoundException {
+		try {
+			return new FileInputStream(fileName);
+		} catch (FileNotFoundException e) {
+			throw new FileNotFoundException("Unable to write to file " + fileName);
+		}
+	}
+
+	/**
+	 * Returns a parser for a batch of course lines.
+	 *
+	 * @return reads every course line of a tokenizer
+	 */
+	private static Function<RecordTokenizer, ParallelRecordLoader.CourseChunk> courseParser() {
+		return fileReader -> {
+			ParallelRecordLoader.CourseChunk chunk = new ParallelRecordLoader.CourseChunk();
+			chunk.courses = CourseRecordIO.readCourses(fileReader, chunk.instructorIds);
+			return chunk;
+		};
+	}
+
+	/**
+	 * Returns an inserter that adds the Courses of a batch and their instructor
+	 * ids to the given lists.
+	 *
+	 * @param read          the list of Courses
+	 * @param instructorIds the list of instructor ids
+	 * @return adds each batch's Courses to the lists
+	 */
+	private static Consumer<ParallelRecordLoader.CourseChunk> courseInserter(List<Course> read,
+			List<String> instructorIds) {
+		return chunk -> {
+			read.addAll(chunk.courses);
+			instructorIds.addAll(chunk.instructorIds);
+		};
+	}
+
+	/**
+	 * Runs the reader and parser stages on their own threads and the insert stage
+	 * on this one, until every batch of the file has been inserted.
+	 *
+	 * @param <R>      the type of a parsed batch
+	 * @param fileName the file being read, for error messages
+	 * @param in       stream of the file, which is closed when it has been read
+	 * @param run      the timings of this load
+	 * @param parser   reads every line of a batch's tokenizer
+	 * @param inserter adds a parsed batch to the records, called in file order
+	 * @throws FileNotFoundException if the file cannot be read
+	 */
+	private <R> void load(String fileName, FileInputStream in, Run run, Function<RecordTokenizer, R> parser,
+			Consumer<R> inserter) throws FileNotFoundException {
+		BlockingQueue<Batch<R>> toParse = new ArrayBlockingQueue<Batch<R>>(queueCapacity);
+		BlockingQueue<Batch<R>> toInsert = new ArrayBlockingQueue<Batch<R>>(queueCapacity);
+		// Batches the reader has started that are not inserted yet, so a slow batch
+		// cannot leave the insert stage holding an unbounded number of later ones
+		Semaphore inFlight = new Semaphore(2 * queueCapacity + parsers);
+		Batch<R> end = new Batch<R>(-1, null, 0);
+
+		List<Thread> threads = new ArrayList<Thread>();
+		threads.add(new Thread(() -> read(new InputStreamReader(in), run, toParse, inFlight, end), "record-reader"));
+		for (int i = 0; i < parsers; i++) {
+			threads.add(new Thread(() -> parse(run, parser, toParse, toInsert, end), "record-parser-" + i));
+		}
+		for (Thread thread : threads) {
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		Map<Long, Batch<R>> waiting = new HashMap<Long, Batch<R>>();
+		long next = 0;
+		int finished = 0;
+		try {
+			while (finished < parsers) {
+				Batch<R> batch = toInsert.take();
+				if (batch == end) {
+					finished++;
+					continue;
+				}
+				waiting.put(batch.sequence, batch);
+				for (Batch<R> ready = waiting.remove(next); ready != null; ready = waiting.remove(next)) {
+					long start = System.nanoTime();
+					if (run.failure.get() == null) {
+						inserter.accept(ready.parsed);
+					}
+					run.insertNanos += System.nanoTime() - start;
+					next++;
+					inFlight.release();
+				}
+			}
+		} catch (InterruptedException e) {
+			for (Thread thread : threads) {
+				thread.interrupt();
+			}
+			Thread.currentThread().interrupt();
+			throw new FileNotFoundException(fileName + " (Interrupted)");
+		}
+
+		Throwable failure = run.failure.get();
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		} else if (failure instanceof Error) {
+			throw (Error) failure;
+		} else if (failure != null) {
+			throw new FileNotFoundException(fileName + " (" + failure.getMessage() + ")");
+		}
+	}
+
+	/**
+	 * The reader stage. Reads the file into batches of whole lines and queues them
+	 * for the parsers, then queues an end marker for each parser.
+	 *
+	 * @param <R>      the type of a parsed batch
+	 * @param in       reader of the file, which is closed when it has been read
+	 * @param run      the timings of this load
+	 * @param toParse  queue of batches for the parsers
+	 * @param inFlight permits for batches that are not inserted yet
+	 * @param end      the end marker
+	 */
+	private <R> void read(Reader in, Run run, BlockingQueue<Batch<R>> toParse, Semaphore inFlight, Batch<R> end) {
+		try {
+			long sequence = 0;
+			char[] buffer = new char[batchSize];
+			int filled = 0;
+			long start = System.nanoTime();
+			while (true) {
+				if (filled == buffer.length) {
+					int cut = lastLineEnd(buffer, filled);
+					if (cut == 0) {
+						// A line longer than a batch is kept whole
+						buffer = Arrays.copyOf(buffer, buffer.length * 2);
+						continue;
+					}
+					Batch<R> batch = new Batch<R>(sequence++, Arrays.copyOf(buffer, cut), cut);
+					char[] rest = new char[Math.max(batchSize, 2 * (filled - cut))];
+					System.arraycopy(buffer, cut, rest, 0, filled - cut);
+					filled -= cut;
+					buffer = rest;
+					run.readNanos += System.nanoTime() - start;
+					queue(batch, run, toParse, inFlight);
+					start = System.nanoTime();
+				}
+				int count = in.read(buffer, filled, buffer.length - filled);
+				if (count < 0) {
+					break;
+				}
+				filled += count;
+			}
+			run.readNanos += System.nanoTime() - start;
+			if (filled > 0) {
+				queue(new Batch<R>(sequence, buffer, filled), run, toParse, inFlight);
+			}
+		} catch (IOException e) {
+			run.fail(e);
+		} catch (InterruptedException e) {
+			return;
+		} finally {
+			try {
+				in.close();
+			} catch (IOException e) {
+				// The file was already read or failed to read
+			}
+		}
+
+		try {
+			for (int i = 0; i < parsers; i++) {
+				toParse.put(end);
+			}
+		} catch (InterruptedException e) {
+			// The load was interrupted, so nothing is waiting for the end markers
+		}
+	}
+
+	/**
+	 * Counts the lines of a batch and queues it for the parsers, waiting for a
+	 * permit and for room in the queue.
+	 *
+	 * @param <R>      the type of a parsed batch
+	 * @param batch    the batch to queue
+	 * @param run      the timings of this load
+	 * @param toParse  queue of batches for the parsers
+	 * @param inFlight permits for batches that are not inserted yet
+	 * @throws InterruptedException if the load is interrupted while waiting
+	 */
+	private static <R> void queue(Batch<R> batch, Run run, BlockingQueue<Batch<R>> toParse, Semaphore inFlight)
+			throws InterruptedException {
+		long start = System.nanoTime();
+		run.lineCount += countLines(batch.text, batch.length);
+		run.readNanos += System.nanoTime() - start;
+		start = System.nanoTime();
+		inFlight.acquire();
+		toParse.put(batch);
+		run.readWaitNanos += System.nanoTime() - start;
+	}
+
+	/**
+	 * The parser stage. Parses batches until an end marker is taken, and then
+	 * passes the end marker on to the insert stage.
+	 *
+	 * @param <R>      the type of a parsed batch
+	 * @param run      the timings of this load
+	 * @param parser   reads every line of a batch's tokenizer
+	 * @param toParse  queue of batches for the parsers
+	 * @param toInsert queue of parsed batches for the insert stage
+	 * @param end      the end marker
+	 */
+	private static <R> void parse(Run run, Function<RecordTokenizer, R> parser, BlockingQueue<Batch<R>> toParse,
+			BlockingQueue<Batch<R>> toInsert, Batch<R> end) {
+		try {
+			for (Batch<R> batch = toParse.take(); batch != end; batch = toParse.take()) {
+				long start = System.nanoTime();
+				if (run.failure.get() == null) {
+					try {
+						RecordTokenizer fileReader = new RecordTokenizer(
+								new CharArrayReader(batch.text, 0, batch.length));
+						batch.parsed = parser.apply(fileReader);
+						fileReader.close();
+					} catch (RuntimeException | Error e) {
+						run.fail(e);
+					}
+				}
+				run.parseNanos.addAndGet(System.nanoTime() - start);
+				toInsert.put(batch);
+			}
+			toInsert.put(end);
+		} catch (InterruptedException e) {
+			// The load was interrupted, so nothing is waiting for the parsed batches
+		}
+	}
+
+	/**
+	 * Returns the index just after the last line break of the text, so the text
+	 * before it is made up of whole lines. A '\r' at the very end is not used,
+	 * since it could be the first half of "\r\n".
+	 *
+	 * @param text   the text
+	 * @param length number of characters of the text
+	 * @return the index after the last line break, or 0 if there is none
+	 */
+	private static int lastLineEnd(char[] text, int length) {
+		for (int i = length - 1; i >= 0; i--) {
+			if (text[i] == '\n' || text[i] == '\r' && i < length - 1) {
+				return i + 1;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Counts the lines of a batch. Each "\n", "\r\n", or lone "\r" ends a line,
+	 * and text after the last line break counts as a line.
+	 *
+	 * @param text   the text of the batch
+	 * @param length number of characters of the text
+	 * @return the number of lines
+	 */
+	private static int countLines(char[] text, int length) {
+		int lines = 0;
+		for (int i = 0; i < length; i++) {
+			if (text[i] == '\n' || text[i] == '\r' && (i + 1 == length || text[i + 1] != '\n')) {
+				lines++;
+			}
+		}
+		if (length > 0 && text[length - 1] != '\n' && text[length - 1] != '\r') {
+			lines++;
+		}
+		return lines;
+	}
+
+	/**
+	 * A batch of whole lines of the file, and the records parsed from it.
+	 *
+	 * @param <R> the type of a parsed batch
+	 */
+	private static final class Batch<R> {
+		/** Position of the batch in the file, counting from 0 */
+		private final long sequence;
+		/** The text of the batch */
+		private final char[] text;
+		/** Number of characters of text that are part of the batch */
+		private final int length;
+		/** The records parsed from the batch, set by a parser */
+		private R parsed;
+
+		/**
+		 * Creates a batch of lines.
+		 *
+		 * @param sequence position of the batch in the file
+		 * @param text     the text of the batch
+		 * @param length   number of characters of text that are part of the batch
+		 */
+		Batch(long sequence, char[] text, int length) {
+			this.sequence = sequence;
+			this.text = text;
+			this.length = length;
+		}
+	}
+
+	/**
+	 * The timings of one load, and the first error any stage ran into. The reader
+	 * fields are only written by the reader thread, and are read after its end
+	 * markers have passed through the queues.
+	 */
+	private final class Run {
+		/** Time the load started */
+		private final long started = System.nanoTime();
+		/** Number of lines read */
+		private long lineCount;
+		/** Time the reader spent reading */
+		private long readNanos;
+		/** Time the reader spent waiting for room */
+		private long readWaitNanos;
+		/** Time the parsers spent parsing */
+		private final AtomicLong parseNanos = new AtomicLong();
+		/** Time spent inserting and building the result */
+		private long insertNanos;
+		/** The first error any stage ran into */
+		private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+		/**
+		 * Records an error, unless one was already recorded. The other stages stop
+		 * doing work once an error is recorded, but keep passing batches on so the
+		 * pipeline drains.
+		 *
+		 * @param error the error
+		 */
+		void fail(Throwable error) {
+			failure.compareAndSet(null, error);
+		}
+
+		/**
+		 * Adds the time spent building the result to the insert time and publishes
+		 * the statistics of the load.
+		 *
+		 * @param buildStart  time the result started being built
+		 * @param recordCount number of records loaded
+		 */
+		void finish(long buildStart, int recordCount) {
+			long now = System.nanoTime();
+			insertNanos += now - buildStart;
+			statistics = new LoadStatistics(lineCount, recordCount, now - started, readNanos, readWaitNanos,
+					parseNanos.get(), insertNanos);
+		}
+	}
+}
@@ -0,0 +1,322 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keeps track of the records of a directory or catalog that changed since it
+ * was loaded or saved, so a save can write only those records. The changes are
+ * appended to a delta file next to the record file, named after it with
+ * ".delta" added. The record readers apply the delta file on top of the record
+ * file when they load it.
+ *
+ * Each line of the delta file is "+," followed by a record that was added or
+ * changed, or "-," followed by the key of a record that was removed. Each save
+ * ends with a line holding only ".", and lines after the last "." are ignored,
+ * so a save cut short by a crash is left out as a whole. The next save cuts
+ * those lines off before it appends, so its own lines are not run into them.
+ *
+ * Once the delta file is half the size of the record file, the next save
+ * compacts them: the whole record file is written again and the delta file is
+ * deleted. The delta file is brought up to date before the record file is
+ * replaced, so if a crash comes between the two, applying the delta file to
+ * the new record file still gives the saved records.
+ *
+ * @param <T> the type of record, whose toString() is its line in the record
+ *            file
+ * @author Will Pressler
+ *
+ */
+public class RecordChangeLog<T> {
+
+	/** Added to the name of a record file to get the name of its delta file */
+	public static final String DELTA_SUFFIX = ".delta";
+	/** First field of a line for a record that was added or changed */
+	private static final String CHANGED = "+";
+	/** First field of a line for a record that was removed */
+	private static final String REMOVED = "-";
+	/** Line that ends each save */
+	private static final String END_OF_SAVE = ".";
+	/** Number of bytes read at a time when looking for the last end of save line */
+	static final int SCAN_BLOCK = 4096;
+
+	/**
+	 * Writes every record to a record file.
+	 *
+	 * @author Will Pressler
+	 *
+	 */
+	public interface RecordFileWriter {
+		/**
+		 * Writes every record to the file, replacing it.
+		 *
+		 * @param fileName the record file
+		 * @throws IOException if the file cannot be written
+		 */
+		void write(String fileName) throws IOException;
+	}
+
+	/** Record for the key of each change, or null for a removal, in order */
+	private final Map<String, T> changes = new LinkedHashMap<String, T>();
+	/** The record file the records were loaded from or last saved to */
+	private String baseFile;
+
+	/**
+	 * Forgets every change and sets the record file the records match, such as
+	 * after they are loaded from it.
+	 *
+	 * @param fileName the record file the records were loaded from, or null if
+	 *                 they do not match any file
+	 */
+	public synchronized void reset(String fileName) {
+		changes.clear();
+		baseFile = fileName;
+	}
+
+	/**
+	 * Records that a record was added or changed.
+	 *
+	 * @param key    the key of the record
+	 * @param record the record as it is now
+	 */
+	public synchronized void changed(String key, T record) {
+		changes.remove(key);
+		changes.put(key, record);
+	}
+
+	/**
+	 * Records that a record was removed.
+	 *
+	 * @param key the key of the record
+	 */
+	public synchronized void removed(String key) {
+		changes.remove(key);
+		changes.put(key, null);
+	}
+
+	/**
+	 * Returns the number of records that changed since the last load or save.
+	 *
+	 * @return the number of changed records
+	 */
+	public synchronized int getChangeCount() {
+		return changes.size();
+	}
+
+	/**
+	 * Writes every record to the record file and deletes its delta file.
+	 *
+	 * @param fileName the record file
+	 * @param writer   writes every record to the record file
+	 * @throws IOException if the files cannot be written
+	 */
+	public synchronized void save(String fileName, RecordFileWriter writer) throws IOException {
+		Path delta = Paths.get(fileName + DELTA_SUFFIX);
+		if (fileName.equals(baseFile) && Files.exists(delta)) {
+			// Bring the delta up to date first, in case the crash comes before it
+			// is deleted
+			appendChanges(fileName);
+		} else {
+			// A delta file for other records cannot be applied to these
+			Files.deleteIfExists(delta);
+		}
+		writer.write(fileName);
+		Files.deleteIfExists(delta);
+		reset(fileName);
+	}
+
+	/**
+	 * Saves only the records that changed since the last load or save, by
+	 * appending them to the delta file. If the records were not loaded from or
+	 * saved to the given file, or the delta file has grown to half the size of
+	 * the record file, every record is written instead.
+	 *
+	 * @param fileName the record file
+	 * @param writer   writes every record to the record file
+	 * @return true if only the changes were saved, or false if every record was
+	 *         written
+	 * @throws IOException if the files cannot be written
+	 */
+	public synchronized boolean saveChanges(String fileName, RecordFileWriter writer) throws IOException {
+		if (!fileName.equals(baseFile) || !Files.exists(Paths.get(fileName))) {
+			save(fileName, writer);
+			return false;
+		}
+		appendChanges(fileName);
+		changes.clear();
+		Path delta = Paths.get(fileName + DELTA_SUFFIX);
+		if (Files.exists(delta) && Files.size(delta) * 2 >= Files.size(Paths.get(fileName))) {
+			save(fileName, writer);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Appends the changes to the delta file, followed by the end of save line,
+	 * and forces the file to disk. Anything after the last end of save line is
+	 * cut off first. Nothing is written if there are no changes.
+	 *
+	 * @param fileName the record file
+	 * @throws IOException if the delta file cannot be written
+	 */
+	private void appendChanges(String fileName) throws IOException {
+		if (changes.isEmpty()) {
+			return;
+		}
+		StringBuilder lines = new StringBuilder();
+		for (Map.Entry<String, T> change : changes.entrySet()) {
+			if (change.getValue() == null) {
+				lines.append(REMOVED).append(',').append(change.getKey());
+			} else {
+				lines.append(CHANGED).append(',').append(change.getValue().toString());
+			}
+			lines.append(System.lineSeparator());
+		}
+		lines.append(END_OF_SAVE).append(System.lineSeparator());
+
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName + DELTA_SUFFIX), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			// Cut off a save the last crash left half written. The cut is made just
+			// after the last ".", so its line break is written again
+			long committed = committedLength(channel);
+			channel.truncate(committed);
+			channel.position(committed);
+			if (committed > 0) {
+				lines.insert(0, System.lineSeparator());
+			}
+			ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(Charset.defaultCharset()));
+			while (bytes.hasRemaining()) {
+				channel.write(bytes);
+			}
+			channel.force(false);
+		}
+	}
+
+	/**
+	 * Returns the length of the delta file up to and including the "." of its
+	 * last end of save line, not counting that line's line break. The file is
+	 * read backward from its end in blocks, so a save usually only reads the last
+	 * block instead of the whole file.
+	 *
+	 * @param channel the delta file
+	 * @return the length of the saves that were finished, or 0 if there are none
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long committedLength(FileChannel channel) throws IOException {
+		long size = channel.size();
+		// one extra byte on each side, to see the line breaks around a "." at
+		// either edge of the block
+		ByteBuffer block = ByteBuffer.allocate(SCAN_BLOCK + 2);
+		byte[] bytes = block.array();
+		for (long end = size; end > 0; end -= SCAN_BLOCK) {
+			long start = Math.max(0, end - SCAN_BLOCK);
+			long from = Math.max(0, start - 1);
+			block.clear();
+			block.limit((int) (Math.min(size, end + 1) - from));
+			while (block.hasRemaining() && channel.read(block, from + block.position()) >= 0) {
+				// read until the block is full
+			}
+			int length = block.position();
+			for (long pos = end - 1; pos >= start; pos--) {
+				int i = (int) (pos - from);
+				if (i >= length || bytes[i] != '.') {
+					continue;
+				}
+				boolean lineStart = pos == 0 || isLineBreak(bytes[i - 1]);
+				boolean lineEnd = pos + 1 == size || i + 1 < length && isLineBreak(bytes[i + 1]);
+				if (lineStart && lineEnd) {
+					return pos + 1;
+				}
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns whether a byte of the delta file is part of a line break.
+	 *
+	 * @param b the byte
+	 * @return true if b is '\n' or '\r'
+	 */
+	private static boolean isLineBreak(byte b) {
+		return b == '\n' || b == '\r';
+	}
+
+	/**
+	 * Applies the delta file of a record file, if it has one, to the records read
+	 * from the record file. A changed record replaces the first record with the
+	 * same key, or is added at the end if there is none, and a removed record's
+	 * key removes the first record with it. When there is a delta file, only the
+	 * first record read with each key is kept. Lines that cannot be parsed are
+	 * skipped.
+	 *
+	 * @param <R>      the type of record
+	 * @param fileName the record file
+	 * @param read     the records read from the record file, in order
+	 * @param parser   reads a record from the rest of a tokenizer's line, or
+	 *                 returns null if it is invalid
+	 * @param key      gives the key of a record
+	 * @return the records with the changes applied, or read itself if there is no
+	 *         delta file
+	 */
+	static <R> List<R> apply(String fileName, List<R> read, Function<RecordTokenizer, R> parser,
+			Function<R, String> key) {
+		RecordTokenizer deltaReader;
+		try {
+			deltaReader = new RecordTokenizer(new InputStreamReader(new FileInputStream(fileName + DELTA_SUFFIX)));
+		} catch (FileNotFoundException e) {
+			return read;
+		}
+
+		Map<String, R> records = new LinkedHashMap<String, R>();
+		for (R record : read) {
+			records.putIfAbsent(key.apply(record), record);
+		}
+		// Changes are applied a save at a time, once the save's end line is read
+		Map<String, R> save = new LinkedHashMap<String, R>();
+		while (deltaReader.nextLine()) {
+			String operation = deltaReader.next();
+			if (CHANGED.equals(operation)) {
+				R record = parser.apply(deltaReader);
+				if (record != null) {
+					save.remove(key.apply(record));
+					save.put(key.apply(record), record);
+				}
+			} else if (REMOVED.equals(operation)) {
+				List<String> fields = new ArrayList<String>();
+				while (deltaReader.hasNext()) {
+					fields.add(deltaReader.next());
+				}
+				String removed = String.join(",", fields);
+				save.remove(removed);
+				save.put(removed, null);
+			} else if (END_OF_SAVE.equals(operation) && !deltaReader.hasNext()) {
+				for (Map.Entry<String, R> change : save.entrySet()) {
+					if (change.getValue() == null) {
+						records.remove(change.getKey());
+					} else {
+						records.put(change.getKey(), change.getValue());
+					}
+				}
+				save.clear();
+			}
+		}
+		deltaReader.close();
+		return new ArrayList<R>(records.values());
+	}
+}
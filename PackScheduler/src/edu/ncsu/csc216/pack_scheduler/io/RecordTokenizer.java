@@ -0,0 +1,239 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Splits the lines of a record file into comma separated fields. The record
+ * readers used to create a new Scanner with a regular expression delimiter for
+ * every line. The tokenizer instead reads the file into a char buffer that is
+ * reused for every line, and reads fields and ints straight out of it.
+ *
+ * Fields are split the same way as a Scanner using "," as its delimiter. A
+ * single comma before a field is skipped, so a line may start with a comma,
+ * two commas in a row give an empty field, and a single comma at the end of a
+ * line does not start another field. Ints are read the same way as
+ * Scanner.nextInt(), with an optional sign and no spaces.
+ *
+ * A field that is missing or is not an int marks the line as malformed
+ * instead of throwing an exception, and every field read after that on the
+ * same line is also missing. Errors while reading the file end the input, as
+ * they do for a Scanner.
+ *
+ * @author Will Pressler
+ *
+ */
+class RecordTokenizer implements Closeable {
+
+	/** Number of chars read from the file at a time */
+	private static final int BUFFER_SIZE = 8192;
+	/** Starting size of the line buffer */
+	private static final int LINE_SIZE = 128;
+
+	/** Source of the records */
+	private final Reader in;
+	/** Chars read from the source that have not been split into lines yet */
+	private final char[] buffer;
+	/** Position of the next unread char in buffer */
+	private int bufferPos;
+	/** Number of chars in buffer */
+	private int bufferEnd;
+	/** Chars of the current line, reused for every line */
+	private char[] line;
+	/** Number of chars in the current line */
+	private int lineLength;
+	/** Position in the current line where the next field starts looking */
+	private int pos;
+	/** Whether a field that was read from the current line was missing or invalid */
+	private boolean malformed;
+	/** Whether the end of the source has been reached */
+	private boolean eof;
+	/** Whether the last line ended with '\r', so a '\n' right after it is skipped */
+	private boolean skipLineFeed;
+
+	/**
+	 * Creates a tokenizer that reads records from the given source.
+	 *
+	 * @param in the source of the records
+	 */
+	RecordTokenizer(Reader in) {
+		this.in = in;
+		this.buffer = new char[BUFFER_SIZE];
+		this.line = new char[LINE_SIZE];
+	}
+
+	/**
+	 * Moves to the next line of the source. Lines end with "\n", "\r", "\r\n",
+	 * or any other line separator that a Scanner recognizes.
+	 *
+	 * @return true if there was another line, false at the end of the source
+	 */
+	boolean nextLine() {
+		lineLength = 0;
+		pos = 0;
+		malformed = false;
+		if (eof) {
+			return false;
+		}
+
+		boolean read = false;
+		while (true) {
+			if (bufferPos == bufferEnd && !fill()) {
+				eof = true;
+				return read;
+			}
+			char c = buffer[bufferPos++];
+			if (skipLineFeed) {
+				skipLineFeed = false;
+				if (c == '\n') {
+					continue;
+				}
+			}
+			read = true;
+			if (c == '\n' || c == '\u2028' || c == '\u2029' || c == '\u0085') {
+				return true;
+			}
+			if (c == '\r') {
+				skipLineFeed = true;
+				return true;
+			}
+			if (lineLength == line.length) {
+				line = Arrays.copyOf(line, line.length * 2);
+			}
+			line[lineLength++] = c;
+		}
+	}
+
+	/**
+	 * Returns whether the current line has another field.
+	 *
+	 * @return true if there is another field
+	 */
+	boolean hasNext() {
+		return !malformed && fieldStart() < lineLength;
+	}
+
+	/**
+	 * Returns the next field of the current line. If there is no next field, the
+	 * line is marked as malformed.
+	 *
+	 * @return the next field, or null if there is none
+	 */
+	String next() {
+		int start = fieldStart();
+		if (malformed || start >= lineLength) {
+			malformed = true;
+			return null;
+		}
+		int end = fieldEnd(start);
+		pos = end;
+		return new String(line, start, end - start);
+	}
+
+	/**
+	 * Returns the next field of the current line as an int. If there is no next
+	 * field or it is not an int, the line is marked as malformed.
+	 *
+	 * @return the value of the next field, or 0 if it is missing or not an int
+	 */
+	int nextInt() {
+		int start = fieldStart();
+		if (malformed || start >= lineLength) {
+			malformed = true;
+			return 0;
+		}
+		int end = fieldEnd(start);
+		pos = end;
+
+		int i = start;
+		boolean negative = false;
+		if (line[i] == '-' || line[i] == '+') {
+			negative = line[i] == '-';
+			i++;
+		}
+		if (i == end) {
+			malformed = true;
+			return 0;
+		}
+
+		// the value is kept as a long so that Integer.MIN_VALUE can be read
+		long value = 0;
+		long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+		for (; i < end; i++) {
+			int digit = Character.digit(line[i], 10);
+			value = value * 10 + digit;
+			if (digit < 0 || value > limit) {
+				malformed = true;
+				return 0;
+			}
+		}
+		return (int) (negative ? -value : value);
+	}
+
+	/**
+	 * Returns whether a field read from the current line was missing or invalid.
+	 *
+	 * @return true if the current line is malformed
+	 */
+	boolean isMalformed() {
+		return malformed;
+	}
+
+	/**
+	 * Closes the source of the records. As with a Scanner, an error while closing
+	 * the source is ignored.
+	 */
+	@Override
+	public void close() {
+		try {
+			in.close();
+		} catch (IOException e) {
+			// the records have already been read
+		}
+	}
+
+	/**
+	 * Returns where the next field starts, skipping a single comma before it.
+	 *
+	 * @return the position of the next field, or lineLength if there is none
+	 */
+	private int fieldStart() {
+		return pos < lineLength && line[pos] == ',' ? pos + 1 : pos;
+	}
+
+	/**
+	 * Returns where the field starting at the given position ends.
+	 *
+	 * @param start the start of the field
+	 * @return the position of the comma after the field, or lineLength
+	 */
+	private int fieldEnd(int start) {
+		int end = start;
+		while (end < lineLength && line[end] != ',') {
+			end++;
+		}
+		return end;
+	}
+
+	/**
+	 * Reads more chars from the source into the buffer.
+	 *
+	 * @return true if any chars were read
+	 */
+	private boolean fill() {
+		int read;
+		try {
+			read = in.read(buffer, 0, buffer.length);
+		} catch (IOException e) {
+			return false;
+		}
+		if (read <= 0) {
+			return false;
+		}
+		bufferPos = 0;
+		bufferEnd = read;
+		return true;
+	}
+}
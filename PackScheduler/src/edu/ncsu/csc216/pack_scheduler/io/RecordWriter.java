@@ -0,0 +1,198 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a record file one line at a time without ever leaving a partly
+ * written file behind. Binary files, such as snapshots, can be written through
+ * stream() instead of writeLine(). The lines are encoded into a reusable buffer and
+ * written through a FileChannel to a temporary file next to the target. When
+ * commit() is called, the temporary file is forced to disk and renamed over
+ * the target in one step, so the target always has either its old contents or
+ * all of the new ones. If the writer is closed without being committed, the
+ * temporary file is deleted and the target is left alone.
+ *
+ * Lines are encoded in the platform's default charset and end with the
+ * platform's line separator, the same as PrintStream.println().
+ *
+ * @author Will Pressler
+ *
+ */
+final class RecordWriter implements Closeable {
+
+	/** Number of bytes encoded before they are written to the file */
+	static final int BUFFER_SIZE = 64 * 1024;
+	/** Line separator written after each line */
+	private static final String LINE_SEPARATOR = System.lineSeparator();
+
+	/** The file being replaced */
+	private final Path target;
+	/** The temporary file the lines are written to */
+	private final Path temp;
+	/** Channel to the temporary file */
+	private final FileChannel channel;
+	/** Encoder for the lines, reused for every line */
+	private final CharsetEncoder encoder;
+	/** Encoded bytes waiting to be written */
+	private final ByteBuffer buffer;
+	/** Whether the temporary file has been renamed over the target */
+	private boolean committed;
+
+	/**
+	 * Creates a writer that will replace the given file.
+	 *
+	 * @param fileName the file to replace
+	 * @throws IOException if the temporary file cannot be created
+	 */
+	RecordWriter(String fileName) throws IOException {
+		target = Paths.get(fileName).toAbsolutePath();
+		temp = target.resolveSibling("." + target.getFileName() + "." + System.nanoTime() + ".tmp");
+		channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		encoder = Charset.defaultCharset().newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		buffer = ByteBuffer.allocate(BUFFER_SIZE);
+	}
+
+	/**
+	 * Encodes a line and its line separator into the buffer, writing the buffer
+	 * to the file whenever it fills up.
+	 *
+	 * @param line the line to write
+	 * @throws IOException if the file cannot be written
+	 */
+	void writeLine(String line) throws IOException {
+		encode(CharBuffer.wrap(line));
+		encode(CharBuffer.wrap(LINE_SEPARATOR));
+	}
+
+	/**
+	 * Returns a stream that writes bytes through the same buffer as writeLine().
+	 * Closing the stream does not commit or close the writer.
+	 *
+	 * @return the stream
+	 */
+	OutputStream stream() {
+		return new OutputStream() {
+
+			@Override
+			public void write(int b) throws IOException {
+				if (!buffer.hasRemaining()) {
+					RecordWriter.this.flush();
+				}
+				buffer.put((byte) b);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				while (len > 0) {
+					if (!buffer.hasRemaining()) {
+						RecordWriter.this.flush();
+					}
+					int n = Math.min(len, buffer.remaining());
+					buffer.put(b, off, n);
+					off += n;
+					len -= n;
+				}
+			}
+		};
+	}
+
+	/**
+	 * Writes the rest of the buffer, forces the temporary file to disk, and
+	 * renames it over the target.
+	 *
+	 * @throws IOException if the file cannot be written, forced, or renamed
+	 */
+	void commit() throws IOException {
+		flush();
+		channel.force(true);
+		channel.close();
+		try {
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+		committed = true;
+		forceDirectory();
+	}
+
+	/**
+	 * Closes the writer. If it was not committed, the temporary file is deleted
+	 * and the target is not changed.
+	 */
+	@Override
+	public void close() {
+		if (committed) {
+			return;
+		}
+		try {
+			channel.close();
+			Files.deleteIfExists(temp);
+		} catch (IOException e) {
+			// Nothing more can be done about a temporary file that cannot be deleted
+		}
+	}
+
+	/**
+	 * Encodes the characters into the buffer, writing the buffer to the file each
+	 * time it fills up.
+	 *
+	 * @param chars the characters to encode
+	 * @throws IOException if the file cannot be written
+	 */
+	private void encode(CharBuffer chars) throws IOException {
+		while (true) {
+			CoderResult result = encoder.encode(chars, buffer, true);
+			if (result.isOverflow()) {
+				flush();
+			} else {
+				break;
+			}
+		}
+		while (encoder.flush(buffer).isOverflow()) {
+			flush();
+		}
+		encoder.reset();
+	}
+
+	/**
+	 * Writes the encoded bytes in the buffer to the file and empties the buffer.
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Forces the directory of the target to disk, so the rename is not lost in a
+	 * crash. Some platforms cannot open a directory, in which case the rename is
+	 * left to the file system.
+	 */
+	private void forceDirectory() {
+		try (FileChannel directory = FileChannel.open(target.getParent(), StandardOpenOption.READ)) {
+			directory.force(true);
+		} catch (IOException e) {
+			// The directory cannot be forced on this platform
+		}
+	}
+}
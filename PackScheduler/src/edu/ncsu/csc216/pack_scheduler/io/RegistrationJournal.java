@@ -0,0 +1,385 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of changes to registration state, so changes made
+ * since the last save can be applied again after a crash. An entry is on disk
+ * before append() returns.
+ *
+ * Forcing the file to disk is much slower than writing to it, so appends are
+ * committed in groups. Threads that append while a force is in progress queue
+ * their entries, and when the force finishes one of them writes every queued
+ * entry and forces the file once for all of them. Under load each force covers
+ * many entries instead of one.
+ *
+ * Each record is the length of its payload, a CRC-32 of the payload, and the
+ * payload. A crash can leave the last record partly written, so when the
+ * journal is opened it keeps the records up to the first one that is cut short
+ * or fails its check, and cuts off the rest.
+ *
+ * @author Will Pressler
+ *
+ */
+public class RegistrationJournal implements Closeable {
+
+	/** Bytes before the payload of each record: its length and checksum */
+	private static final int RECORD_HEADER = 8;
+
+	/** The journal file, positioned at the end of the last record */
+	private final FileChannel channel;
+	/** Entries read from the file when it was opened */
+	private final List<JournalEntry> recovered;
+	/** Lock for the fields below, which threads wait on for their group */
+	private final Object lock = new Object();
+	/** Records appended but not yet written */
+	private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+	/** Number of records appended */
+	private long appended;
+	/** Number of records written and forced to disk */
+	private long durable;
+	/** Whether a thread is writing and forcing a group */
+	private boolean writing;
+	/** Number of times the file has been forced */
+	private long syncCount;
+	/** The error that stopped the journal, or null if it is working */
+	private IOException failure;
+	/** Whether the journal has been closed */
+	private boolean closed;
+
+	/**
+	 * Opens a journal file, creating it if it does not exist. The entries already
+	 * in the file can be read with getRecoveredEntries(), and new entries are
+	 * appended after them.
+	 *
+	 * @param fileName the journal file
+	 * @throws IOException if the file cannot be opened or read
+	 */
+	public RegistrationJournal(String fileName) throws IOException {
+		channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			List<JournalEntry> entries = new ArrayList<JournalEntry>();
+			long validLength = readRecords(channel, entries);
+			if (validLength < channel.size()) {
+				// Cut off a record the last crash left half written
+				channel.truncate(validLength);
+				channel.force(false);
+			}
+			channel.position(validLength);
+			recovered = Collections.unmodifiableList(entries);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the entries that were in the file when the journal was opened, in
+	 * the order they were appended.
+	 *
+	 * @return the entries read from the file
+	 */
+	public List<JournalEntry> getRecoveredEntries() {
+		return recovered;
+	}
+
+	/**
+	 * Appends an entry to the journal and waits until it is forced to disk,
+	 * along with any other entries appended at the same time.
+	 *
+	 * @param entry the entry to append
+	 * @throws IOException if the journal is closed or cannot be written. Once a
+	 *                     write fails, every later append fails too, since it is
+	 *                     not known which entries reached the disk.
+	 */
+	public void append(JournalEntry entry) throws IOException {
+		byte[] record = encode(entry);
+		long sequence;
+		synchronized (lock) {
+			checkUsable();
+			pending.write(record, 0, record.length);
+			sequence = ++appended;
+		}
+		sync(sequence);
+	}
+
+	/**
+	 * Removes every entry from the journal, such as after the state they changed
+	 * has been saved. Waits for entries being appended to be written first.
+	 *
+	 * @throws IOException if the journal is closed or cannot be written
+	 */
+	public void clear() throws IOException {
+		synchronized (lock) {
+			checkUsable();
+			awaitIdle();
+			channel.truncate(0);
+			channel.force(false);
+		}
+	}
+
+	/**
+	 * Writes any entries still being appended and closes the journal file.
+	 *
+	 * @throws IOException if the entries cannot be written or the file cannot be
+	 *                     closed
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (lock) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			try {
+				awaitIdle();
+			} finally {
+				channel.close();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of times the journal file has been forced to disk.
+	 *
+	 * @return the number of forces
+	 */
+	long getSyncCount() {
+		synchronized (lock) {
+			return syncCount;
+		}
+	}
+
+	/**
+	 * Waits until the record with the given sequence number is on disk. If no
+	 * other thread is writing, this thread writes every pending record and forces
+	 * the file once for all of them.
+	 *
+	 * @param sequence the sequence number of the record to wait for
+	 * @throws IOException if the records cannot be written
+	 */
+	private void sync(long sequence) throws IOException {
+		while (true) {
+			ByteBuffer group;
+			long groupEnd;
+			synchronized (lock) {
+				while (writing && durable < sequence && failure == null) {
+					waitOnLock();
+				}
+				if (failure != null) {
+					throw failure;
+				}
+				if (durable >= sequence) {
+					return;
+				}
+				writing = true;
+				group = ByteBuffer.wrap(pending.toByteArray());
+				groupEnd = appended;
+				pending = new ByteArrayOutputStream();
+			}
+
+			// Write outside the lock, so other threads can queue the next group
+			IOException error = null;
+			try {
+				while (group.hasRemaining()) {
+					channel.write(group);
+				}
+				channel.force(false);
+			} catch (IOException e) {
+				error = e;
+			}
+
+			synchronized (lock) {
+				writing = false;
+				if (error == null) {
+					durable = groupEnd;
+					syncCount++;
+				} else {
+					failure = error;
+				}
+				lock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Waits, holding the lock, until every appended record has been written and
+	 * no thread is writing.
+	 *
+	 * @throws IOException if the records cannot be written
+	 */
+	private void awaitIdle() throws IOException {
+		while (writing) {
+			waitOnLock();
+		}
+		if (durable < appended && failure == null) {
+			ByteBuffer group = ByteBuffer.wrap(pending.toByteArray());
+			pending = new ByteArrayOutputStream();
+			while (group.hasRemaining()) {
+				channel.write(group);
+			}
+			channel.force(false);
+			durable = appended;
+			syncCount++;
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Waits on the lock for a group to finish.
+	 *
+	 * @throws IOException if the thread is interrupted while waiting
+	 */
+	private void waitOnLock() throws IOException {
+		try {
+			lock.wait();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for journal");
+		}
+	}
+
+	/**
+	 * Checks that entries can still be appended.
+	 *
+	 * @throws IOException if the journal is closed or a write has failed
+	 */
+	private void checkUsable() throws IOException {
+		if (closed) {
+			throw new IOException("Journal is closed");
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Encodes an entry as a record of the journal file.
+	 *
+	 * @param entry the entry to encode
+	 * @return the bytes of the record
+	 * @throws IOException if the entry cannot be encoded
+	 */
+	static byte[] encode(JournalEntry entry) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(0); // length, filled in below
+		out.writeInt(0); // checksum, filled in below
+		out.writeByte(entry.getOperation().ordinal());
+		writeString(out, entry.getUserId());
+		if (entry.getOperation().hasCourse()) {
+			writeString(out, entry.getCourseName());
+			writeString(out, entry.getSection());
+		}
+
+		ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+		int length = record.capacity() - RECORD_HEADER;
+		CRC32 crc = new CRC32();
+		crc.update(record.array(), RECORD_HEADER, length);
+		record.putInt(0, length);
+		record.putInt(4, (int) crc.getValue());
+		return record.array();
+	}
+
+	/**
+	 * Reads the records of a journal file from the start, up to the first record
+	 * that is cut short or fails its checksum.
+	 *
+	 * @param channel the journal file
+	 * @param entries the list to add the entries of the valid records to
+	 * @return the number of bytes taken up by the valid records
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long readRecords(FileChannel channel, List<JournalEntry> entries) throws IOException {
+		long size = channel.size();
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("Journal is too large");
+		}
+		ByteBuffer in = ByteBuffer.allocate((int) size);
+		channel.position(0);
+		while (in.hasRemaining() && channel.read(in) >= 0) {
+			// keep reading until the buffer is full
+		}
+		in.flip();
+
+		CRC32 crc = new CRC32();
+		JournalEntry.Operation[] operations = JournalEntry.Operation.values();
+		int valid = 0;
+		while (in.remaining() >= RECORD_HEADER) {
+			int length = in.getInt();
+			int checksum = in.getInt();
+			if (length <= 0 || length > in.remaining()) {
+				break;
+			}
+			crc.reset();
+			crc.update(in.array(), in.position(), length);
+			if ((int) crc.getValue() != checksum) {
+				break;
+			}
+			ByteBuffer payload = in.slice();
+			payload.limit(length);
+			in.position(in.position() + length);
+			try {
+				int operation = payload.get();
+				if (operation < 0 || operation >= operations.length) {
+					break;
+				}
+				JournalEntry.Operation op = operations[operation];
+				String userId = readString(payload);
+				String courseName = op.hasCourse() ? readString(payload) : null;
+				String section = op.hasCourse() ? readString(payload) : null;
+				entries.add(new JournalEntry(op, userId, courseName, section));
+			} catch (BufferUnderflowException | IllegalArgumentException e) {
+				break;
+			}
+			valid = in.position();
+		}
+		return valid;
+	}
+
+	/**
+	 * Writes a string as its length in bytes followed by its UTF-8 bytes.
+	 *
+	 * @param out the stream to write to
+	 * @param s   the string to write
+	 * @throws IOException if the string cannot be written
+	 */
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Reads a string written by writeString().
+	 *
+	 * @param in the payload to read from
+	 * @return the string that was read
+	 */
+	private static String readString(ByteBuffer in) {
+		int length = in.getInt();
+		if (length < 0 || length > in.remaining()) {
+			throw new BufferUnderflowException();
+		}
+		byte[] bytes = new byte[length];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,68 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.util.Collections;
+import java.util.List;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.user.Faculty;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+import edu.ncsu.csc216.pack_scheduler.util.LinkedList;
+
+/**
+ * The registration state read back from a snapshot file. The Courses already
+ * have their rolls and waitlists, the Students and Faculty already have their
+ * schedules, and each Course already has its instructor, so the lists can be
+ * handed straight to the catalog and directories.
+ *
+ * @author Will Pressler
+ *
+ */
+public class RegistrationSnapshot {
+
+	/** Courses of the catalog, in catalog order */
+	private final List<Course> courses;
+	/** Students of the student directory, in sorted order */
+	private final List<Student> students;
+	/** Faculty of the faculty directory, in directory order */
+	private final LinkedList<Faculty> faculty;
+
+	/**
+	 * Creates the registration state read from a snapshot.
+	 *
+	 * @param courses  Courses of the catalog, in catalog order
+	 * @param students Students of the student directory, in sorted order
+	 * @param faculty  Faculty of the faculty directory, in directory order
+	 */
+	RegistrationSnapshot(List<Course> courses, List<Student> students, LinkedList<Faculty> faculty) {
+		this.courses = Collections.unmodifiableList(courses);
+		this.students = Collections.unmodifiableList(students);
+		this.faculty = faculty;
+	}
+
+	/**
+	 * Returns the Courses of the catalog, in catalog order.
+	 *
+	 * @return the Courses that were read
+	 */
+	public List<Course> getCourses() {
+		return courses;
+	}
+
+	/**
+	 * Returns the Students of the student directory, in sorted order.
+	 *
+	 * @return the Students that were read
+	 */
+	public List<Student> getStudents() {
+		return students;
+	}
+
+	/**
+	 * Returns the Faculty of the faculty directory, in directory order.
+	 *
+	 * @return the Faculty that were read
+	 */
+	public LinkedList<Faculty> getFaculty() {
+		return faculty;
+	}
+}
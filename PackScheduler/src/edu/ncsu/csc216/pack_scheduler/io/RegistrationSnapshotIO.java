@@ -0,0 +1,448 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.user.Faculty;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Writes and reads a binary snapshot of the whole registration state: the
+ * course catalog, the student and faculty directories, every Course's roll and
+ * waitlist in order, and every Student's and Faculty's schedule. Reading a
+ * snapshot does not parse any text or look anything up by id, so restarting
+ * from one is much faster than loading the three record files, and enrollment
+ * is not lost.
+ *
+ * A snapshot starts with a magic number and a format version, followed by
+ * sections. Each section is a one byte tag, the length of its payload in
+ * bytes, and the payload, so a reader can skip sections it does not know.
+ * Every string is stored once in a string table section, and the other
+ * sections refer to strings, Courses, Students, and Faculty by their index.
+ *
+ * @author Will Pressler
+ *
+ */
+public final class RegistrationSnapshotIO {
+
+	/** First four bytes of every snapshot file, "PSNP" */
+	static final int MAGIC = 0x50534E50;
+	/** Version of the format written by this class */
+	static final int VERSION = 1;
+
+	/** Tag of the string table section */
+	private static final byte STRINGS = 1;
+	/** Tag of the faculty section */
+	private static final byte FACULTY = 2;
+	/** Tag of the student section */
+	private static final byte STUDENTS = 3;
+	/** Tag of the course section */
+	private static final byte COURSES = 4;
+	/** Tag of the course roll and waitlist section */
+	private static final byte ROLLS = 5;
+	/** Tag of the student schedule section */
+	private static final byte STUDENT_SCHEDULES = 6;
+	/** Tag of the faculty schedule section */
+	private static final byte FACULTY_SCHEDULES = 7;
+	/** Index written in place of a missing string */
+	private static final int NONE = -1;
+
+	/**
+	 * The class only has static methods, so it cannot be constructed.
+	 */
+	private RegistrationSnapshotIO() {
+		// no instances
+	}
+
+	/**
+	 * Writes a snapshot of the given Courses, Students, and Faculty to a file.
+	 * Schedules and rolls are written with the people and Courses they belong
+	 * to. A schedule or roll entry for a Course or Student that is not in the
+	 * given lists is left out. The file is only replaced once the whole snapshot
+	 * is on disk, so it always holds either the old snapshot or the new one.
+	 *
+	 * @param fileName file to write the snapshot to
+	 * @param courses  Courses of the catalog, in catalog order
+	 * @param students Students of the student directory
+	 * @param faculty  Faculty of the faculty directory, in directory order
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void writeSnapshot(String fileName, List<Course> courses, List<Student> students,
+			List<Faculty> faculty) throws IOException {
+		StringTable strings = new StringTable();
+		Map<Course, Integer> courseIndexes = new IdentityHashMap<Course, Integer>();
+		for (int i = 0; i < courses.size(); i++) {
+			courseIndexes.put(courses.get(i), i);
+		}
+		Map<Student, Integer> studentIndexes = new IdentityHashMap<Student, Integer>();
+		for (int i = 0; i < students.size(); i++) {
+			studentIndexes.put(students.get(i), i);
+		}
+
+		// The sections are built first, since the string table has to be written
+		// before them and is only complete once they have been built
+		List<Section> sections = new ArrayList<Section>();
+
+		Section section = new Section(FACULTY);
+		section.out.writeInt(faculty.size());
+		for (Faculty f : faculty) {
+			section.out.writeInt(strings.indexOf(f.getFirstName()));
+			section.out.writeInt(strings.indexOf(f.getLastName()));
+			section.out.writeInt(strings.indexOf(f.getId()));
+			section.out.writeInt(strings.indexOf(f.getEmail()));
+			section.out.writeInt(strings.indexOf(f.getPassword()));
+			section.out.writeInt(f.getMaxCourses());
+		}
+		sections.add(section);
+
+		section = new Section(STUDENTS);
+		section.out.writeInt(students.size());
+		for (Student s : students) {
+			section.out.writeInt(strings.indexOf(s.getFirstName()));
+			section.out.writeInt(strings.indexOf(s.getLastName()));
+			section.out.writeInt(strings.indexOf(s.getId()));
+			section.out.writeInt(strings.indexOf(s.getEmail()));
+			section.out.writeInt(strings.indexOf(s.getPassword()));
+			section.out.writeInt(s.getMaxCredits());
+			section.out.writeInt(strings.indexOf(s.getSchedule().getTitle()));
+		}
+		sections.add(section);
+
+		section = new Section(COURSES);
+		section.out.writeInt(courses.size());
+		for (Course c : courses) {
+			section.out.writeInt(strings.indexOf(c.getName()));
+			section.out.writeInt(strings.indexOf(c.getTitle()));
+			section.out.writeInt(strings.indexOf(c.getSection()));
+			section.out.writeInt(c.getCredits());
+			section.out.writeInt(strings.indexOf(c.getInstructorId()));
+			section.out.writeInt(c.getCourseRoll().getEnrollmentCap());
+			section.out.writeInt(strings.indexOf(c.getMeetingDays()));
+			section.out.writeInt(c.getStartTime());
+			section.out.writeInt(c.getEndTime());
+		}
+		sections.add(section);
+
+		section = new Section(ROLLS);
+		section.out.writeInt(courses.size());
+		for (Course c : courses) {
+			writeIndexes(section.out, c.getCourseRoll().getEnrolledStudents(), studentIndexes);
+			writeIndexes(section.out, c.getCourseRoll().getWaitlistedStudents(), studentIndexes);
+		}
+		sections.add(section);
+
+		section = new Section(STUDENT_SCHEDULES);
+		section.out.writeInt(students.size());
+		for (Student s : students) {
+			writeIndexes(section.out, s.getSchedule().getCourses(), courseIndexes);
+		}
+		sections.add(section);
+
+		section = new Section(FACULTY_SCHEDULES);
+		section.out.writeInt(faculty.size());
+		for (Faculty f : faculty) {
+			writeIndexes(section.out, f.getSchedule().getCourses(), courseIndexes);
+		}
+		sections.add(section);
+
+		Section stringSection = new Section(STRINGS);
+		stringSection.out.writeInt(strings.strings.size());
+		for (String s : strings.strings) {
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			stringSection.out.writeInt(bytes.length);
+			stringSection.out.write(bytes);
+		}
+
+		// The snapshot goes to a temporary file that replaces fileName once it is
+		// on disk, so a crash never leaves a partly written snapshot behind
+		try (RecordWriter writer = new RecordWriter(fileName)) {
+			DataOutputStream fileWriter = new DataOutputStream(writer.stream());
+			fileWriter.writeInt(MAGIC);
+			fileWriter.writeInt(VERSION);
+			stringSection.writeTo(fileWriter);
+			for (Section s : sections) {
+				s.writeTo(fileWriter);
+			}
+			fileWriter.flush();
+			writer.commit();
+		}
+	}
+
+	/**
+	 * Reads a snapshot written by writeSnapshot(). The Courses are given back
+	 * their rolls, waitlists, and instructors, and the Students and Faculty
+	 * their schedules, in the order they were written.
+	 *
+	 * @param fileName file to read the snapshot from
+	 * @return the registration state in the snapshot
+	 * @throws IOException if the file cannot be read, is not a snapshot, was
+	 *                     written by a newer version, or is corrupt
+	 */
+	public static RegistrationSnapshot readSnapshot(String fileName) throws IOException {
+		ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(Paths.get(fileName)));
+		try {
+			if (in.getInt() != MAGIC) {
+				throw new IOException("Invalid snapshot");
+			}
+			if (in.getInt() > VERSION) {
+				throw new IOException("Unsupported snapshot version");
+			}
+			return readSections(in);
+		} catch (RuntimeException e) {
+			// A length or index that runs off the end of the file, or records that
+			// the Courses and users themselves reject
+			throw new IOException("Invalid snapshot");
+		}
+	}
+
+	/**
+	 * Reads the sections that follow the header and builds the registration state
+	 * from them. Sections with an unknown tag are skipped.
+	 *
+	 * @param in the snapshot, positioned after the header
+	 * @return the registration state in the snapshot
+	 */
+	private static RegistrationSnapshot readSections(ByteBuffer in) {
+		Map<Byte, ByteBuffer> sections = new HashMap<Byte, ByteBuffer>();
+		while (in.hasRemaining()) {
+			byte tag = in.get();
+			int length = in.getInt();
+			ByteBuffer payload = in.slice();
+			payload.limit(length);
+			in.position(in.position() + length);
+			sections.put(tag, payload);
+		}
+
+		String[] strings = readStrings(sections.get(STRINGS));
+
+		List<Faculty> faculty = new ArrayList<Faculty>();
+		ByteBuffer section = sections.get(FACULTY);
+		for (int i = count(section); i > 0; i--) {
+			faculty.add(new Faculty(string(strings, section), string(strings, section), string(strings, section),
+					string(strings, section), string(strings, section), section.getInt()));
+		}
+
+		List<Student> students = new ArrayList<Student>();
+		section = sections.get(STUDENTS);
+		for (int i = count(section); i > 0; i--) {
+			Student s = new Student(string(strings, section), string(strings, section), string(strings, section),
+					string(strings, section), string(strings, section), section.getInt());
+			s.getSchedule().setTitle(string(strings, section));
+			students.add(s);
+		}
+
+		// Courses are created without an instructor, so their faculty can be
+		// given them below
+		List<Course> courses = new ArrayList<Course>();
+		List<String> instructorIds = new ArrayList<String>();
+		section = sections.get(COURSES);
+		for (int i = count(section); i > 0; i--) {
+			String name = string(strings, section);
+			String title = string(strings, section);
+			String courseSection = string(strings, section);
+			int credits = section.getInt();
+			instructorIds.add(string(strings, section));
+			int enrollmentCap = section.getInt();
+			String meetingDays = string(strings, section);
+			int startTime = section.getInt();
+			int endTime = section.getInt();
+			if ("A".equals(meetingDays)) {
+				courses.add(new Course(name, title, courseSection, credits, null, enrollmentCap, meetingDays));
+			} else {
+				courses.add(new Course(name, title, courseSection, credits, null, enrollmentCap, meetingDays,
+						startTime, endTime));
+			}
+		}
+
+		section = sections.get(FACULTY_SCHEDULES);
+		for (int i = 0, n = count(section); i < n; i++) {
+			for (Course c : readIndexes(section, courses)) {
+				faculty.get(i).getSchedule().addCourseToSchedule(c);
+			}
+		}
+		// A Course can name an instructor that has no schedule with it, such as
+		// one that is not in the faculty directory
+		for (int i = 0; i < courses.size(); i++) {
+			if (courses.get(i).getInstructorId() == null) {
+				courses.get(i).setInstructorId(instructorIds.get(i));
+			}
+		}
+
+		section = sections.get(STUDENT_SCHEDULES);
+		for (int i = 0, n = count(section); i < n; i++) {
+			for (Course c : readIndexes(section, courses)) {
+				students.get(i).getSchedule().addCourseToSchedule(c);
+			}
+		}
+
+		section = sections.get(ROLLS);
+		for (int i = 0, n = count(section); i < n; i++) {
+			List<Student> enrolled = readIndexes(section, students);
+			List<Student> waitlisted = readIndexes(section, students);
+			courses.get(i).getCourseRoll().restore(enrolled, waitlisted);
+		}
+
+		return new RegistrationSnapshot(courses, StudentRecordIO.toSortedStudents(students),
+				FacultyRecordIO.toFacultyList(faculty));
+	}
+
+	/**
+	 * Reads the string table section.
+	 *
+	 * @param section the string table section, or null if there is none
+	 * @return the strings in the table, by index
+	 */
+	private static String[] readStrings(ByteBuffer section) {
+		String[] strings = new String[count(section)];
+		for (int i = 0; i < strings.length; i++) {
+			byte[] bytes = new byte[section.getInt()];
+			section.get(bytes);
+			strings[i] = new String(bytes, StandardCharsets.UTF_8);
+		}
+		return strings;
+	}
+
+	/**
+	 * Reads the number of records at the start of a section.
+	 *
+	 * @param section the section, or null if the snapshot does not have it
+	 * @return the number of records in the section, or 0 if there is no section
+	 */
+	private static int count(ByteBuffer section) {
+		return section == null ? 0 : section.getInt();
+	}
+
+	/**
+	 * Reads a string index from the section and returns its string.
+	 *
+	 * @param strings the string table
+	 * @param section the section to read the index from
+	 * @return the string at the index, or null if no string was written
+	 */
+	private static String string(String[] strings, ByteBuffer section) {
+		int index = section.getInt();
+		return index == NONE ? null : strings[index];
+	}
+
+	/**
+	 * Reads a count followed by that many indexes, and returns the items at those
+	 * indexes.
+	 *
+	 * @param <E>     type of the items
+	 * @param section the section to read from
+	 * @param items   the items the indexes refer to
+	 * @return the items at the indexes, in the order they were written
+	 */
+	private static <E> List<E> readIndexes(ByteBuffer section, List<E> items) {
+		int size = section.getInt();
+		List<E> list = new ArrayList<E>(Math.max(0, Math.min(size, items.size())));
+		for (int i = 0; i < size; i++) {
+			list.add(items.get(section.getInt()));
+		}
+		return list;
+	}
+
+	/**
+	 * Writes the number of the given items that have an index, followed by their
+	 * indexes in order. Items without an index are left out.
+	 *
+	 * @param <E>     type of the items
+	 * @param out     the section to write to
+	 * @param items   the items to write
+	 * @param indexes the index of each item that can be written
+	 * @throws IOException if the section cannot be written
+	 */
+	private static <E> void writeIndexes(DataOutputStream out, List<E> items, Map<E, Integer> indexes)
+			throws IOException {
+		List<Integer> written = new ArrayList<Integer>(items.size());
+		for (E item : items) {
+			Integer index = indexes.get(item);
+			if (index != null) {
+				written.add(index);
+			}
+		}
+		out.writeInt(written.size());
+		for (int index : written) {
+			out.writeInt(index);
+		}
+	}
+
+	/**
+	 * A section being built in memory, so its length is known before it is
+	 * written to the file.
+	 */
+	private static final class Section {
+
+		/** Tag of the section */
+		private final byte tag;
+		/** Bytes of the payload */
+		private final ByteArrayOutputStream bytes;
+		/** Stream the payload is written with */
+		private final DataOutputStream out;
+
+		/**
+		 * Creates an empty section.
+		 *
+		 * @param tag tag of the section
+		 */
+		Section(byte tag) {
+			this.tag = tag;
+			this.bytes = new ByteArrayOutputStream();
+			this.out = new DataOutputStream(bytes);
+		}
+
+		/**
+		 * Writes the tag, length, and payload of the section.
+		 *
+		 * @param fileWriter the stream to write the section to
+		 * @throws IOException if the section cannot be written
+		 */
+		void writeTo(DataOutputStream fileWriter) throws IOException {
+			fileWriter.writeByte(tag);
+			fileWriter.writeInt(bytes.size());
+			bytes.writeTo(fileWriter);
+		}
+	}
+
+	/**
+	 * The strings of a snapshot being written, each stored once.
+	 */
+	private static final class StringTable {
+
+		/** Strings in the order they were first seen */
+		private final List<String> strings = new ArrayList<String>();
+		/** Index of each string in strings */
+		private final Map<String, Integer> indexes = new HashMap<String, Integer>();
+
+		/**
+		 * Returns the index of the string in the table, adding it if it is not
+		 * there yet.
+		 *
+		 * @param s the string to find
+		 * @return the index of the string, or NONE if s is null
+		 */
+		int indexOf(String s) {
+			if (s == null) {
+				return NONE;
+			}
+			Integer index = indexes.get(s);
+			if (index == null) {
+				index = strings.size();
+				strings.add(s);
+				indexes.put(s, index);
+			}
+			return index;
+		}
+	}
+}
@@ -1,14 +1,16 @@
 package edu.ncsu.csc216.pack_scheduler.io;
 
-import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintStream;
-import java.util.Scanner;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import edu.ncsu.csc216.pack_scheduler.user.Student;
-import edu.ncsu.csc216.pack_scheduler.user.User;
 import edu.ncsu.csc217.collections.list.SortedList;
 
 /**
@@ -35,119 +37,171 @@ public class StudentRecordIO {
 	 */
 	public static SortedList<Student> readStudentRecords(String fileName) throws FileNotFoundException {
 		try {
-			// fileReader scanner is used to read fileName
-			Scanner fileReader = new Scanner(new FileInputStream(fileName));
+			// fileReader tokenizer is used to read fileName
+			RecordTokenizer fileReader = new RecordTokenizer(new InputStreamReader(new FileInputStream(fileName)));
+			List<Student> read = applyChanges(fileName, readStudents(fileReader));
 
-			// SortedList of students is created and given Student type
-			SortedList<Student> students = new SortedList<Student>();
-
-			// if fileReader has next line the loop repeats
-
-			while (fileReader.hasNextLine()) {
-				// student object is created and a call to processStudent() is made to assign
-				// its value
-				Student student = processStudent(fileReader.nextLine());
-
-				// duplicate is a boolean variable that determines if a duplicate is found
-				boolean duplicate = false;
-
-				// loop that iterates through each element in students SortedList
-				for (int i = 0; i < students.size(); i++) {
+			// closes fileReader and returns students SortedList
+			fileReader.close();
+			return toStudentList(read);
+		} catch (FileNotFoundException e) {
+			throw new FileNotFoundException("Unable to write to file " + fileName);
+		}
+	}
 
-					// current variable is given current element being analyzed from students
-					// SortedList
-					User current = students.get(i);
+	/**
+	 * Reads each remaining line of the tokenizer as a Student. Lines that are not
+	 * able to be processed are skipped.
+	 * 
+	 * @param fileReader tokenizer to read lines from
+	 * @return the Students that were read, in order
+	 */
+	static List<Student> readStudents(RecordTokenizer fileReader) {
+		List<Student> read = new ArrayList<Student>();
+		// if fileReader has next line the loop repeats
+		while (fileReader.nextLine()) {
+			// student object is created and a call to processStudent() is made to assign
+			// its value
+			Student student = processStudent(fileReader);
+			if (student != null) {
+				read.add(student);
+			}
+		}
+		return read;
+	}
 
-					// if student is equivalent to current the variable duplicate is set to true and
-					// the loop is exited
-					if (student != null && student.equals(current)) {
-						duplicate = true;
-						break;
-					}
+	/**
+	 * Applies the changes saved in the delta file of a student records file, if
+	 * it has one, to the Students read from the file. Students are matched by id.
+	 * 
+	 * @param fileName the student records file
+	 * @param read     the Students read from the file, in order
+	 * @return the Students with the changes applied
+	 */
+	static List<Student> applyChanges(String fileName, List<Student> read) {
+		return RecordChangeLog.apply(fileName, read, StudentRecordIO::processStudent, Student::getId);
+	}
 
-				}
+	/**
+	 * Creates the SortedList of students from the Students that were read,
+	 * keeping only the first Student with each id. SortedList.add() checks every
+	 * student already in the list, so this is quadratic in the number of
+	 * students; loads into the StudentDirectory use toSortedStudents() instead.
+	 * 
+	 * @param read the Students that were read, in order
+	 * @return the SortedList of students
+	 */
+	static SortedList<Student> toStudentList(List<Student> read) {
+		List<Student> unique = toSortedStudents(read);
+
+		// SortedList of students is created and given Student type. The students are
+		// added from last to first so each one is placed at the front of the list
+		// instead of after a search through every student already added
+		SortedList<Student> students = new SortedList<Student>();
+		for (int i = unique.size() - 1; i >= 0; i--) {
+			students.add(unique.get(i));
+		}
+		return students;
+	}
 
-				// if duplicate is false student object is added to students SortedList
-				if (!duplicate && student != null) {
-					students.add(student);
-				}
+	/**
+	 * Sorts the Students that were read, keeping only the first Student with
+	 * each id. Duplicates are found with a hash set and the students are sorted
+	 * once, so this takes O(n log n) time.
+	 * 
+	 * @param read the Students that were read, in order
+	 * @return the students, in sorted order
+	 */
+	static List<Student> toSortedStudents(List<Student> read) {
+		// ids of the students already kept, so duplicates are found without comparing
+		// against every student read so far
+		List<Student> unique = new ArrayList<Student>(read.size());
+		Set<String> ids = new HashSet<String>();
+		for (Student student : read) {
+			// if the student's id has not been read before the student object is kept,
+			// otherwise the first student with the id is kept
+			if (ids.add(student.getId())) {
+				unique.add(student);
 			}
-
-			// closes fileReader and returns students SortedList
-			fileReader.close();
-			return students;
-		} catch (FileNotFoundException e) {
-			throw new FileNotFoundException("Unable to write to file " + fileName);
 		}
+		Collections.sort(unique);
+		return unique;
 	}
 
 	/**
 	 * Writes the SortedList of students to a file containing their information.
+	 * The file is only replaced once every student has been written.
 	 * 
 	 * @param fileName         the file of the directory will be exported to
 	 * @param studentDirectory the directory of all the Student objects
 	 * @throws IOException if cannot write to file
 	 */
 	public static void writeStudentRecords(String fileName, SortedList<Student> studentDirectory) throws IOException {
+		List<Student> students = new ArrayList<Student>(studentDirectory.size());
+		for (int i = 0; i < studentDirectory.size(); i++) {
+			students.add(studentDirectory.get(i));
+		}
+		writeStudentRecords(fileName, students);
+	}
+
+	/**
+	 * Writes the list of students to a file containing their information, in list
+	 * order. The file is only replaced once every student has been written.
+	 * 
+	 * @param fileName         the file of the directory will be exported to
+	 * @param studentDirectory the students to write
+	 * @throws IOException if cannot write to file
+	 */
+	public static void writeStudentRecords(String fileName, List<Student> studentDirectory) throws IOException {
 		try {
-			// PrintStream fileWriter is created and given fileName as the name for the new
-			// file created
-			PrintStream fileWriter = new PrintStream(new File(fileName));
-
-			// loop iterates for each element of studentDirectory
-			for (int i = 0; i < studentDirectory.size(); i++) {
-				// fileWriter is used to print the elements of studentDirectory using the get
-				// and toString classes
-				fileWriter.println(studentDirectory.get(i).toString());
+			// RecordWriter fileWriter writes to a temporary file that replaces fileName
+			// once every record has been written
+			RecordWriter fileWriter = new RecordWriter(fileName);
+			try {
+				// fileWriter is used to write each element of studentDirectory using its
+				// toString method
+				for (Student student : studentDirectory) {
+					fileWriter.writeLine(student.toString());
+				}
+				fileWriter.commit();
+			} finally {
+				// fileWriter is closed, deleting the temporary file if it was not committed
+				fileWriter.close();
 			}
 
-			// fileWriter is closed
-			fileWriter.close();
-
 		} catch (IOException e) {
 			throw new IOException(fileName + " (Permission denied)");
 		}
 	}
 
 	/**
-	 * Reads in a single line of text as a Student object.
+	 * Reads in the current line of the tokenizer as a Student object.
 	 * 
-	 * @param line of text from input file
-	 * @return Student object with correct parameters from file
-	 * @throws IllegalArgumentException if the line is not able to be processed
+	 * @param fileReader tokenizer positioned at a line of text from the input file
+	 * @return Student object with correct parameters from file, or null if the line is
+	 *         not able to be processed
 	 */
-	private static Student processStudent(String line) {
-		try {
-			// fileReader scanner is used to read line
-			Scanner fileReader = new Scanner(line);
-			// changes delimiter of scanner to ","
-			fileReader.useDelimiter(",");
-
-			// creates a list of string variables to hold the tokens from fileReader
-			// scanning line
-			String firstName = fileReader.next();
-			String lastName = fileReader.next();
-			String id = fileReader.next();
-			String email = fileReader.next();
-			String password = fileReader.next();
-			int maxCredits = Student.MAX_CREDITS;
-
-			// if (fileReader.hasNextInt()) {
-			maxCredits = fileReader.nextInt();
-			// }
-
-			// if fileReader has another line after reading tokens throws IAE as line has
-			// too many tokens
-			if (fileReader.hasNext()) {
-				fileReader.close();
-				throw new IllegalArgumentException("Invalid student string.");
-			}
+	private static Student processStudent(RecordTokenizer fileReader) {
+		// creates a list of string variables to hold the tokens from fileReader
+		// scanning line
+		String firstName = fileReader.next();
+		String lastName = fileReader.next();
+		String id = fileReader.next();
+		String email = fileReader.next();
+		String password = fileReader.next();
+		int maxCredits = fileReader.nextInt();
+
+		// if a token was missing or fileReader has more tokens after reading them, the
+		// line is invalid
+		if (fileReader.isMalformed() || fileReader.hasNext()) {
+			return null;
+		}
 
-			// if fileReader has correct number of tokens it makes a call to constructor
-			// Student() in the Student.java class and constructs Student object
-			fileReader.close();
+		// if fileReader has correct number of tokens it makes a call to constructor
+		// Student() in the Student.java class and constructs Student object
+		try {
 			return new Student(firstName, lastName, id, email, password, maxCredits);
-		} catch (Exception e) {
+		} catch (IllegalArgumentException e) {
 			return null;
 		}
 	}
@@ -1,11 +1,10 @@
 package edu.ncsu.csc216.pack_scheduler.manager;
 
 import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
+import java.util.List;
 import java.util.Properties;
 
 import edu.ncsu.csc216.pack_scheduler.catalog.CourseCatalog;
@@ -13,7 +12,14 @@ import edu.ncsu.csc216.pack_scheduler.course.Course;
 import edu.ncsu.csc216.pack_scheduler.course.roll.CourseRoll;
 import edu.ncsu.csc216.pack_scheduler.directory.FacultyDirectory;
 import edu.ncsu.csc216.pack_scheduler.directory.StudentDirectory;
+import edu.ncsu.csc216.pack_scheduler.io.CourseRollRecordIO;
+import edu.ncsu.csc216.pack_scheduler.io.JournalEntry;
+import edu.ncsu.csc216.pack_scheduler.io.JournalEntry.Operation;
+import edu.ncsu.csc216.pack_scheduler.io.RegistrationJournal;
+import edu.ncsu.csc216.pack_scheduler.io.RegistrationSnapshot;
+import edu.ncsu.csc216.pack_scheduler.io.RegistrationSnapshotIO;
 import edu.ncsu.csc216.pack_scheduler.user.Faculty;
+import edu.ncsu.csc216.pack_scheduler.user.PasswordHasher;
 import edu.ncsu.csc216.pack_scheduler.user.Student;
 import edu.ncsu.csc216.pack_scheduler.user.User;
 import edu.ncsu.csc216.pack_scheduler.user.schedule.Schedule;
@@ -46,10 +52,10 @@ public class RegistrationManager {
 	private User currentUser;
 	/** the faculty directory */
 	private FacultyDirectory facultyDirectory;
-	/** Hashing algorithm */
-	private static final String HASH_ALGORITHM = "SHA-256";
 	/** The file with registrar properties */
 	private static final String PROP_FILE = "registrar.properties";
+	/** Journal of enrollment and assignment changes, or null if there is none */
+	private RegistrationJournal journal;
 
 	/**
 	 * Constructor for the RegistrationManager
@@ -72,7 +78,7 @@ public class RegistrationManager {
 		try (InputStream input = new FileInputStream(PROP_FILE)) {
 			prop.load(input);
 
-			String hashPW = hashPW(prop.getProperty("pw"));
+			String hashPW = PasswordHasher.hash(prop.getProperty("pw"));
 
 			registrar = new Registrar(prop.getProperty("first"), prop.getProperty("last"), prop.getProperty("id"),
 					prop.getProperty("email"), hashPW);
@@ -81,23 +87,6 @@ public class RegistrationManager {
 		}
 	}
 
-	/**
-	 * Returns an encoded password.
-	 * 
-	 * @param pw the password to be encoded
-	 * @return String the encoded password
-	 * @throws IllegalArgumentException if the password cannot be hashed
-	 */
-	private String hashPW(String pw) {
-		try {
-			MessageDigest digest1 = MessageDigest.getInstance(HASH_ALGORITHM);
-			digest1.update(pw.getBytes());
-			return Base64.getEncoder().encodeToString(digest1.digest());
-		} catch (NoSuchAlgorithmException e) {
-			throw new IllegalArgumentException("Cannot hash password");
-		}
-	}
-
 	/**
 	 * Gets access to the only instance of the RegistrationManager
 	 * 
@@ -148,7 +137,7 @@ public class RegistrationManager {
 	 *                                  properties
 	 */
 	public boolean login(String id, String password) {
-		String localHashPW = hashPW(password);
+		String localHashPW = PasswordHasher.hash(password);
 		
 		if (currentUser != null) {
 			return false;
@@ -214,32 +203,257 @@ public class RegistrationManager {
 		facultyDirectory.newFacultyDirectory();
 	}
 
+	/**
+	 * Saves the course catalog, both directories, every Course's roll and
+	 * waitlist, and every schedule to a binary snapshot file. If a journal is
+	 * open, it is cleared once the snapshot is saved, since the snapshot has every
+	 * change in it. The journal is only cleared after the snapshot has been
+	 * forced to disk and renamed over the file, so a crash or a failed save never
+	 * loses changes that are in neither.
+	 * 
+	 * @param fileName the file to save the snapshot to
+	 * @throws IllegalArgumentException if the file cannot be written
+	 */
+	public void saveSnapshot(String fileName) {
+		try {
+			RegistrationSnapshotIO.writeSnapshot(fileName, courseCatalog.getSnapshot().getCourses(),
+					studentDirectory.getStudentList(), facultyDirectory.getFacultyList());
+		} catch (IOException e) {
+			// the journal is kept, since the old snapshot does not have its changes
+			throw new IllegalArgumentException("Unable to write to file " + fileName);
+		}
+		if (journal != null) {
+			try {
+				journal.clear();
+			} catch (IOException e) {
+				throw new IllegalArgumentException("Unable to write to journal");
+			}
+		}
+	}
+
+	/**
+	 * Opens a journal of enrollment and faculty assignment changes. Any changes
+	 * already in the journal are applied first, on top of the catalog and
+	 * directories as they are now, so the journal should be opened after the
+	 * last saved files or snapshot have been loaded. From then on, every
+	 * enrollment, drop, schedule reset, and faculty assignment change is written
+	 * to the journal before the method that made it returns. An entry that can no
+	 * longer be applied, such as one for a Course that is not in the catalog, is
+	 * skipped.
+	 * 
+	 * A change is journaled after it has been made in memory, not ahead of it,
+	 * since a drop or reset cannot be undone exactly once waitlisted Students
+	 * have been moved onto the roll. If the entry cannot be written, the change
+	 * is kept in memory and the method that made it throws an
+	 * IllegalArgumentException, so the caller knows the change would not survive
+	 * a crash. Every later change fails the same way until the journal is
+	 * reopened.
+	 * 
+	 * @param fileName the journal file, which is created if it does not exist
+	 * @return the number of journal entries that were applied
+	 * @throws IllegalArgumentException if the file cannot be opened or read
+	 */
+	public int openJournal(String fileName) {
+		closeJournal();
+		RegistrationJournal opened;
+		try {
+			opened = new RegistrationJournal(fileName);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to read file " + fileName);
+		}
+		int applied = replay(opened.getRecoveredEntries());
+		journal = opened;
+		return applied;
+	}
+
+	/**
+	 * Closes the journal, if one is open. Changes after this are no longer
+	 * journaled.
+	 * 
+	 * @throws IllegalArgumentException if the last entries cannot be written
+	 */
+	public void closeJournal() {
+		if (journal != null) {
+			RegistrationJournal closing = journal;
+			journal = null;
+			try {
+				closing.close();
+			} catch (IOException e) {
+				throw new IllegalArgumentException("Unable to write to journal");
+			}
+		}
+	}
+
+	/**
+	 * Applies journal entries to the catalog and directories, in order.
+	 * 
+	 * @param entries the entries to apply
+	 * @return the number of entries that were applied
+	 */
+	private int replay(List<JournalEntry> entries) {
+		int applied = 0;
+		for (JournalEntry entry : entries) {
+			Course c = null;
+			if (entry.getOperation().hasCourse()) {
+				c = courseCatalog.getCourseFromCatalog(entry.getCourseName(), entry.getSection());
+				if (c == null) {
+					continue;
+				}
+			}
+			Student s = studentDirectory.getStudentById(entry.getUserId());
+			Faculty f = facultyDirectory.getFacultyById(entry.getUserId());
+			try {
+				boolean done = false;
+				switch (entry.getOperation()) {
+				case ENROLL:
+					done = s != null && enroll(s, c);
+					break;
+				case DROP:
+					done = s != null && drop(s, c);
+					break;
+				case RESET_SCHEDULE:
+					done = s != null && resetSchedule(s);
+					break;
+				case ADD_FACULTY:
+					done = f != null && addFaculty(c, f);
+					break;
+				case REMOVE_FACULTY:
+					done = f != null && removeFaculty(c, f);
+					break;
+				case RESET_FACULTY_SCHEDULE:
+					if (f != null) {
+						clearFacultySchedule(f);
+						done = true;
+					}
+					break;
+				default:
+					break;
+				}
+				if (done) {
+					applied++;
+				}
+			} catch (IllegalArgumentException e) {
+				// The change can no longer be made, skip it!
+			}
+		}
+		return applied;
+	}
+
+	/**
+	 * Writes a change that has already been made to the journal, if one is open.
+	 * The change is kept if the entry cannot be written.
+	 * 
+	 * @param operation the kind of change
+	 * @param user      the user the change was made for
+	 * @param c         the Course that changed, or null if there is none
+	 * @throws IllegalArgumentException if the journal cannot be written
+	 */
+	private void journal(Operation operation, User user, Course c) {
+		if (journal == null) {
+			return;
+		}
+		try {
+			journal.append(new JournalEntry(operation, user.getId(), c == null ? null : c.getName(),
+					c == null ? null : c.getSection()));
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to write to journal");
+		}
+	}
+
+	/**
+	 * Replaces the course catalog, both directories, and all enrollment with the
+	 * state saved in a snapshot file. Nothing is replaced if the file cannot be
+	 * read.
+	 * 
+	 * @param fileName the file to load the snapshot from
+	 * @throws IllegalArgumentException if the file cannot be read or is not a
+	 *                                  valid snapshot
+	 */
+	public void loadSnapshot(String fileName) {
+		RegistrationSnapshot snapshot;
+		try {
+			snapshot = RegistrationSnapshotIO.readSnapshot(fileName);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to read file " + fileName);
+		}
+		courseCatalog.loadCourses(snapshot.getCourses());
+		studentDirectory.loadStudents(snapshot.getStudents());
+		facultyDirectory.loadFaculty(snapshot.getFaculty());
+	}
+
+	/**
+	 * Saves the roll and waitlist of every course in the catalog to a file, by
+	 * student id.
+	 * 
+	 * @param fileName the file to save the rolls to
+	 * @throws IllegalArgumentException if the file cannot be written
+	 */
+	public void saveRolls(String fileName) {
+		try {
+			CourseRollRecordIO.writeRollRecords(fileName, courseCatalog.getSnapshot().getCourses());
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to write to file " + fileName);
+		}
+	}
+
+	/**
+	 * Loads the rolls and waitlists saved by saveRolls() into the catalog's
+	 * courses, and puts the courses back on the schedules of their enrolled
+	 * students. The catalog and student directory should be loaded first, and no
+	 * student should be enrolled yet.
+	 * 
+	 * @param fileName the file to load the rolls from
+	 * @return the number of students put on rolls and waitlists
+	 * @throws IllegalArgumentException if the file cannot be read
+	 */
+	public int loadRolls(String fileName) {
+		try {
+			return CourseRollRecordIO.readRollRecords(fileName, courseCatalog.getSnapshot().getCourses(),
+					studentDirectory.getStudentList());
+		} catch (FileNotFoundException e) {
+			throw new IllegalArgumentException("Unable to read file " + fileName);
+		}
+	}
+
 	/**
 	 * Returns true if the logged in student can enroll in the given course.
 	 * 
 	 * @param c Course to enroll in
 	 * @return true if enrolled
+	 * @throws IllegalArgumentException if the change was made but could not be
+	 *                                  written to the journal
 	 */
 	public boolean enrollStudentInCourse(Course c) {
 	    if (!(currentUser instanceof Student)) {
 	        throw new IllegalArgumentException("Illegal Action");
 	    }
+	    boolean enrolled;
 	    try {
-	        Student s = (Student)currentUser;
-//	        Schedule schedule = s.getSchedule();
-	        CourseRoll roll = c.getCourseRoll();
-	        
-	        if (s.canAdd(c) && roll.canEnroll(s)) {
-//	            schedule.addCourseToSchedule(c);
-	            roll.enroll(s);
-	            return true;
-	        }
-	        
+	        enrolled = enroll((Student) currentUser, c);
 	    } catch (IllegalArgumentException e) {
 	        return false;
 	    }
-	    return false;
+	    if (enrolled) {
+	        journal(Operation.ENROLL, currentUser, c);
+	    }
+	    return enrolled;
+	}
 
+	/**
+	 * Enrolls the student in the course if they can add it.
+	 * 
+	 * @param s Student to enroll
+	 * @param c Course to enroll in
+	 * @return true if enrolled
+	 * @throws IllegalArgumentException if the course roll cannot take the student
+	 */
+	private boolean enroll(Student s, Course c) {
+	    CourseRoll roll = c.getCourseRoll();
+	    if (s.canAdd(c) && roll.canEnroll(s)) {
+	        roll.enroll(s);
+	        return true;
+	    }
+	    return false;
 	}
 
 	/**
@@ -247,30 +461,62 @@ public class RegistrationManager {
 	 * 
 	 * @param c Course to drop
 	 * @return true if dropped
+	 * @throws IllegalArgumentException if the change was made but could not be
+	 *                                  written to the journal
 	 */
 	public boolean dropStudentFromCourse(Course c) {
 		if (!(currentUser instanceof Student)) {
 			throw new IllegalArgumentException("Illegal Action");
 		}
+		Student s = (Student) currentUser;
 		try {
-			Student s = (Student) currentUser;
 			c.getCourseRoll().drop(s);
-			return s.getSchedule().removeCourseFromSchedule(c);
 		} catch (IllegalArgumentException e) {
 			return false;
 		}
+		// Dropping a waitlisted student changes the waitlist, so it is journaled
+		// even though the course is not on their schedule
+		journal(Operation.DROP, s, c);
+		return s.getSchedule().removeCourseFromSchedule(c);
+	}
+
+	/**
+	 * Drops the student from the course's roll or waitlist and their schedule.
+	 * 
+	 * @param s Student to drop
+	 * @param c Course to drop
+	 * @return true if the course was on the student's schedule
+	 * @throws IllegalArgumentException if the student cannot be dropped
+	 */
+	private boolean drop(Student s, Course c) {
+		c.getCourseRoll().drop(s);
+		return s.getSchedule().removeCourseFromSchedule(c);
 	}
 
 	/**
 	 * Resets the logged in student's schedule by dropping them from every course
 	 * and then resetting the schedule.
+	 * 
+	 * @throws IllegalArgumentException if the change was made but could not be
+	 *                                  written to the journal
 	 */
 	public void resetSchedule() {
 		if (!(currentUser instanceof Student)) {
 			throw new IllegalArgumentException("Illegal Action");
 		}
+		resetSchedule((Student) currentUser);
+		journal(Operation.RESET_SCHEDULE, currentUser, null);
+	}
+
+	/**
+	 * Drops the student from every course on their schedule and then resets the
+	 * schedule.
+	 * 
+	 * @param s Student whose schedule is reset
+	 * @return true, so replaying the reset counts as applied
+	 */
+	private boolean resetSchedule(Student s) {
 		try {
-			Student s = (Student) currentUser;
 			Schedule schedule = s.getSchedule();
 			String[][] scheduleArray = schedule.getScheduledCourses();
 			for (int i = 0; i < scheduleArray.length; i++) {
@@ -283,6 +529,7 @@ public class RegistrationManager {
 			System.out.println("test");
 
 		}
+		return true;
 	}
 	
 	/**
@@ -290,13 +537,17 @@ public class RegistrationManager {
 	 * @param course to be added
 	 * @param f faculty member added to the course
 	 * @return true if the addition was successful
+	 * @throws IllegalArgumentException if the change was made but could not be
+	 *                                  written to the journal
 	 */
 	public boolean addFacultyToCourse(Course course, Faculty f) {
 		if (currentUser != null) {
 			if (currentUser != registrar) {
 				throw new IllegalArgumentException();
 			}
-			f.getSchedule().addCourseToSchedule(course);
+			if (addFaculty(course, f)) {
+				journal(Operation.ADD_FACULTY, f, course);
+			}
 			return true;
 		}
 		return false;
@@ -307,13 +558,17 @@ public class RegistrationManager {
 	 * @param course to be removed
 	 * @param f faculty to be removed
 	 * @return true if the removal was successful
+	 * @throws IllegalArgumentException if the change was made but could not be
+	 *                                  written to the journal
 	 */
 	public boolean removeFacultyFromCourse(Course course, Faculty f) {
 		if (currentUser != null) {
 			if (currentUser != registrar) {
 				throw new IllegalArgumentException();
 			}
-			f.getSchedule().removeCourseFromSchedule(course);
+			if (removeFaculty(course, f)) {
+				journal(Operation.REMOVE_FACULTY, f, course);
+			}
 			return true;
 		}
 		
@@ -323,13 +578,62 @@ public class RegistrationManager {
 	/**
 	 * Resets the schedule of the given faculty
 	 * @param f faculty whose schedule will be reset
+	 * @throws IllegalArgumentException if the change was made but could not be
+	 *                                  written to the journal
 	 */
 	public void resetFacultySchedule(Faculty f) {
 		if (currentUser != null) {
 			if (currentUser != registrar) {
 				throw new IllegalArgumentException();
 			}
-			f.getSchedule().resetSchedule();
+			clearFacultySchedule(f);
+			journal(Operation.RESET_FACULTY_SCHEDULE, f, null);
+		}
+	}
+
+	/**
+	 * Adds a Course to a Faculty's schedule and marks the Course as changed in the
+	 * catalog, since its instructor is saved with it.
+	 * 
+	 * @param course the Course to add
+	 * @param f      the Faculty to add it to
+	 * @return true if the Course was added
+	 */
+	private boolean addFaculty(Course course, Faculty f) {
+		if (f.getSchedule().addCourseToSchedule(course)) {
+			courseCatalog.markCourseChanged(course.getName(), course.getSection());
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Removes a Course from a Faculty's schedule and marks the Course as changed
+	 * in the catalog.
+	 * 
+	 * @param course the Course to remove
+	 * @param f      the Faculty to remove it from
+	 * @return true if the Course was removed
+	 */
+	private boolean removeFaculty(Course course, Faculty f) {
+		if (f.getSchedule().removeCourseFromSchedule(course)) {
+			courseCatalog.markCourseChanged(course.getName(), course.getSection());
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Resets a Faculty's schedule and marks each Course that was on it as changed
+	 * in the catalog.
+	 * 
+	 * @param f the Faculty whose schedule is reset
+	 */
+	private void clearFacultySchedule(Faculty f) {
+		List<Course> courses = f.getSchedule().getCourses();
+		f.getSchedule().resetSchedule();
+		for (Course c : courses) {
+			courseCatalog.markCourseChanged(c.getName(), c.getSection());
 		}
 	}
 
@@ -28,6 +28,7 @@ import javax.swing.border.TitledBorder;
 import javax.swing.table.AbstractTableModel;
 
 import edu.ncsu.csc216.pack_scheduler.catalog.CourseCatalog;
+import edu.ncsu.csc216.pack_scheduler.io.CourseLoadSummary;
 import edu.ncsu.csc216.pack_scheduler.manager.RegistrationManager;
 
 /**
@@ -373,11 +374,16 @@ public class CourseCatalogPanel extends JPanel implements ActionListener {
 		if (e.getSource() == btnLoadCourseCatalog) {
 			try {
 				String fileName = getFileName(true);
-				catalog.loadCoursesFromFile(fileName);
+				CourseLoadSummary summary = catalog.loadCoursesFromFile(fileName,
+						RegistrationManager.getInstance().getFacultyDirectory().getFacultyList());
 				courseCatalogTableModel.updateData();
 				scrollCourseCatalog.revalidate();
 				scrollCourseCatalog.repaint();
 				courseCatalogTableModel.fireTableDataChanged();
+				if (!summary.getUnresolvedInstructors().isEmpty()) {
+					JOptionPane.showMessageDialog(this, "Courses loaded without instructors not in the directory: "
+							+ String.join(", ", summary.getUnresolvedInstructors().keySet()));
+				}
 			} catch (IllegalArgumentException | IllegalStateException iae) {
 				JOptionPane.showMessageDialog(this, iae.getMessage());
 			}
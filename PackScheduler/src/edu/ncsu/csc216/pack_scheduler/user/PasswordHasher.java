@@ -0,0 +1,144 @@
+package edu.ncsu.csc216.pack_scheduler.user;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Hashes passwords for the directories and the registration manager. A
+ * password is hashed with SHA-256 and the digest is encoded in base64, so the
+ * hash only uses [a-zA-Z0-9+/=] and can be safely copied into record files.
+ *
+ * Each thread gets its own MessageDigest and buffers the first time it hashes
+ * a password, and reuses them after that, so hashing is safe from any number of
+ * threads at once and does not look up the algorithm or allocate working
+ * arrays on every call. A password is turned into bytes with the default
+ * charset, the same as String.getBytes(). Passwords that are plain ASCII are
+ * copied straight into the reused buffer when the default charset stores ASCII
+ * as single bytes, which is true of UTF-8 and the single byte charsets.
+ *
+ * @author Will Pressler
+ *
+ */
+public final class PasswordHasher {
+
+	/** Hashing algorithm */
+	private static final String HASH_ALGORITHM = "SHA-256";
+	/** Whether the default charset writes each ASCII character as its own byte */
+	private static final boolean ASCII_BYTES = asciiBytes();
+	/** The digest and buffers of each thread */
+	private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+	/**
+	 * The hasher only has static methods, so it cannot be constructed.
+	 */
+	private PasswordHasher() {
+		// no instances
+	}
+
+	/**
+	 * Hashes a password according to the SHA-256 algorithm, and returns the
+	 * digest in base64 encoding.
+	 *
+	 * @param password the password to hash
+	 * @return the encoded digest of the password
+	 * @throws IllegalArgumentException "Cannot hash password" if the password is
+	 *                                  null or cannot be hashed
+	 */
+	public static String hash(String password) {
+		if (password == null) {
+			throw new IllegalArgumentException("Cannot hash password");
+		}
+		State state = STATE.get();
+		if (state.digest == null) {
+			throw new IllegalArgumentException("Cannot hash password");
+		}
+		int length = 0;
+		try {
+			if (ASCII_BYTES && isAscii(password)) {
+				length = password.length();
+				if (state.input.length < length) {
+					state.input = new byte[Math.max(length, state.input.length * 2)];
+				}
+				for (int i = 0; i < length; i++) {
+					state.input[i] = (byte) password.charAt(i);
+				}
+				state.digest.update(state.input, 0, length);
+			} else {
+				state.digest.update(password.getBytes());
+			}
+			state.digest.digest(state.hash, 0, state.hash.length);
+		} catch (DigestException e) {
+			throw new IllegalArgumentException("Cannot hash password");
+		} finally {
+			// the buffer outlives the call, so the password is not left in it
+			Arrays.fill(state.input, 0, length, (byte) 0);
+			state.digest.reset();
+		}
+		int encoded = Base64.getEncoder().encode(state.hash, state.encoded);
+		return new String(state.encoded, 0, encoded, StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * Returns whether every character of the password is ASCII.
+	 *
+	 * @param password the password
+	 * @return true if the password is plain ASCII
+	 */
+	private static boolean isAscii(String password) {
+		for (int i = 0; i < password.length(); i++) {
+			if (password.charAt(i) >= 0x80) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns whether the default charset writes each ASCII character as the
+	 * byte with the same value.
+	 *
+	 * @return true if ASCII text can be copied into bytes directly
+	 */
+	private static boolean asciiBytes() {
+		char[] chars = new char[0x80];
+		byte[] expected = new byte[0x80];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = (char) i;
+			expected[i] = (byte) i;
+		}
+		return Arrays.equals(expected, new String(chars).getBytes());
+	}
+
+	/**
+	 * The digest and buffers one thread reuses for every password it hashes.
+	 */
+	private static class State {
+		/** Digest of the thread, or null if SHA-256 is not available */
+		private final MessageDigest digest;
+		/** Bytes of an ASCII password, grown as needed */
+		private byte[] input = new byte[64];
+		/** Digest of the password */
+		private final byte[] hash;
+		/** Base64 encoding of the digest */
+		private final byte[] encoded;
+
+		/**
+		 * Creates the digest and buffers of a thread.
+		 */
+		State() {
+			MessageDigest d = null;
+			try {
+				d = MessageDigest.getInstance(HASH_ALGORITHM);
+			} catch (NoSuchAlgorithmException e) {
+				// hash() reports that passwords cannot be hashed
+			}
+			digest = d;
+			hash = new byte[d == null ? 0 : d.getDigestLength()];
+			encoded = new byte[(hash.length + 2) / 3 * 4];
+		}
+	}
+}
@@ -1,5 +1,8 @@
 package edu.ncsu.csc216.pack_scheduler.user.schedule;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import edu.ncsu.csc216.pack_scheduler.course.ConflictException;
 import edu.ncsu.csc216.pack_scheduler.course.Course;
 import edu.ncsu.csc216.pack_scheduler.util.LinkedListRecursive;
@@ -53,6 +56,29 @@ public class FacultySchedule {
 		return false;
 	}
 
+	/**
+	 * Adds each of the given courses to the schedule, in order. A course that
+	 * cannot be added because it is already assigned, conflicts with the
+	 * schedule, or already has an instructor is skipped instead of stopping the
+	 * rest from being added.
+	 * 
+	 * @param courses Courses to add to schedule
+	 * @return the courses that were not added, in the order they were given
+	 */
+	public List<Course> addCoursesToSchedule(List<Course> courses) {
+		List<Course> notAdded = new ArrayList<Course>();
+		for (Course course : courses) {
+			try {
+				if (!addCourseToSchedule(course)) {
+					notAdded.add(course);
+				}
+			} catch (IllegalArgumentException e) {
+				notAdded.add(course);
+			}
+		}
+		return notAdded;
+	}
+
 	/**
 	 * Removes a course from the schedule.
 	 * 
@@ -91,6 +117,20 @@ public class FacultySchedule {
 		return scheduleArray;
 	}
 
+	/**
+	 * Returns the courses the faculty is scheduled to teach, in the order they
+	 * were added.
+	 * 
+	 * @return a copy of the scheduled courses
+	 */
+	public List<Course> getCourses() {
+		List<Course> courses = new ArrayList<Course>(schedule.size());
+		for (int i = 0; i < schedule.size(); i++) {
+			courses.add(schedule.get(i));
+		}
+		return courses;
+	}
+
 	/**
 	 * Returns the number of courses the faculty is scheduled to teach.
 	 * 
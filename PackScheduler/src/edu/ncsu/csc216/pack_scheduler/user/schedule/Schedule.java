@@ -3,6 +3,9 @@
  */
 package edu.ncsu.csc216.pack_scheduler.user.schedule;
 
+import java.util.Collections;
+import java.util.List;
+
 import edu.ncsu.csc216.pack_scheduler.course.Course;
 import edu.ncsu.csc216.pack_scheduler.util.ArrayList;
 
@@ -102,6 +105,15 @@ public class Schedule {
 		return scheduledCourses;
 	}
 
+	/**
+	 * Returns the courses in the Schedule, in the order they were added.
+	 * 
+	 * @return a read-only view of the scheduled courses
+	 */
+	public List<Course> getCourses() {
+		return Collections.unmodifiableList(schedule);
+	}
+
 	/**
 	 * Sets the title of the Schedule
 	 * 
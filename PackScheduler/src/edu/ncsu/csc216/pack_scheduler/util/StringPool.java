@@ -0,0 +1,106 @@
+package edu.ncsu.csc216.pack_scheduler.util;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * The StringPool class keeps a single shared copy of strings that are repeated
+ * across many objects, such as course names, titles, and meeting days. Every
+ * section of a course is read from its own line of a file, so without the pool
+ * each section would keep its own copy of the same strings. The pool is safe to
+ * use from more than one thread.
+ *
+ * The pool only holds its strings weakly, so a string is dropped from it once
+ * no Course or other object refers to it any more, such as after the catalog
+ * is reloaded. The strings are spread over several maps by their hash code,
+ * each with its own lock, so threads loading a file at the same time do not all
+ * wait on one lock.
+ *
+ * @author Will Pressler
+ *
+ */
+public final class StringPool {
+
+	/** Number of maps the strings are spread over, a power of two */
+	private static final int STRIPES = 16;
+	/** Shared copy of each string that has been interned, by its hash code */
+	private static final Stripe[] POOL = new Stripe[STRIPES];
+
+	static {
+		for (int i = 0; i < STRIPES; i++) {
+			POOL[i] = new Stripe();
+		}
+	}
+
+	/**
+	 * The pool only has static methods, so it cannot be constructed.
+	 */
+	private StringPool() {
+		// no instances
+	}
+
+	/**
+	 * Returns the shared copy of a string that is equal to s, adding s to the pool
+	 * if there is not one yet.
+	 *
+	 * @param s the string to intern
+	 * @return the shared copy of s, or null if s is null
+	 */
+	public static String intern(String s) {
+		if (s == null) {
+			return null;
+		}
+		int h = s.hashCode();
+		return POOL[(h ^ (h >>> 16)) & (STRIPES - 1)].intern(s);
+	}
+
+	/**
+	 * Returns the number of distinct strings in the pool that are still in use.
+	 *
+	 * @return the size of the pool
+	 */
+	public static int size() {
+		int size = 0;
+		for (Stripe stripe : POOL) {
+			size += stripe.size();
+		}
+		return size;
+	}
+
+	/**
+	 * One of the maps the pool's strings are spread over. Each string is a weak
+	 * key that maps to a weak reference to itself, so the map does not keep the
+	 * string alive.
+	 */
+	private static final class Stripe {
+
+		/** Shared copy of each string in the stripe */
+		private final WeakHashMap<String, WeakReference<String>> strings = new WeakHashMap<String, WeakReference<String>>();
+
+		/**
+		 * Returns the shared copy of a string that is equal to s, adding s if there
+		 * is not one yet.
+		 *
+		 * @param s the string to intern
+		 * @return the shared copy of s
+		 */
+		synchronized String intern(String s) {
+			WeakReference<String> ref = strings.get(s);
+			String shared = ref == null ? null : ref.get();
+			if (shared == null) {
+				strings.put(s, new WeakReference<String>(s));
+				shared = s;
+			}
+			return shared;
+		}
+
+		/**
+		 * Returns the number of strings in the stripe that are still in use.
+		 *
+		 * @return the size of the stripe
+		 */
+		synchronized int size() {
+			return strings.size();
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package edu.ncsu.csc216.pack_scheduler.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Tests AvailabilityIndex.
+ *
+ * @author Will Pressler
+ *
+ */
+public class AvailabilityIndexTest {
+
+	/** Course with an enrollment cap of 10 */
+	private Course csc116;
+	/** Course with an enrollment cap of 20 */
+	private Course csc216;
+	/** Course with an enrollment cap of 10 */
+	private Course csc226;
+	/** Index being tested */
+	private AvailabilityIndex index;
+
+	/**
+	 * Creates the Courses and adds them to a new index.
+	 */
+	@BeforeEach
+	public void setUp() {
+		csc116 = new Course("CSC116", "Intro to Programming - Java", "001", 3, null, 10, "MW", 910, 1100);
+		csc216 = new Course("CSC216", "Software Development Fundamentals", "001", 3, null, 20, "TH", 1330, 1445);
+		csc226 = new Course("CSC226", "Discrete Mathematics for Computer Scientists", "001", 3, null, 10, "MWF", 935,
+				1025);
+
+		index = new AvailabilityIndex();
+		index.addCourse(csc226);
+		index.addCourse(csc216);
+		index.addCourse(csc116);
+	}
+
+	/**
+	 * Enrolls the given number of new Students in a Course.
+	 *
+	 * @param c        the Course to enroll in
+	 * @param students the number of Students to enroll
+	 */
+	private void enroll(Course c, int students) {
+		for (int i = 0; i < students; i++) {
+			c.getCourseRoll().enroll(new Student("First" + i, "Last", "id" + i, "id" + i + "@ncsu.edu", "pw"));
+		}
+	}
+
+	/**
+	 * Tests AvailabilityIndex.getCoursesWithOpenSeats() and updateCourse().
+	 */
+	@Test
+	public void testGetCoursesWithOpenSeats() {
+		List<Course> courses = index.getCoursesWithOpenSeats();
+		assertEquals(3, courses.size());
+		assertEquals(csc116, courses.get(0));
+		assertEquals(csc216, courses.get(1));
+		assertEquals(csc226, courses.get(2));
+
+		enroll(csc116, 10);
+		assertTrue(index.updateCourse(csc116));
+		assertFalse(index.updateCourse(csc116));
+		courses = index.getCoursesWithOpenSeats();
+		assertEquals(2, courses.size());
+		assertEquals(csc216, courses.get(0));
+
+		csc116.getCourseRoll().setEnrollmentCap(15);
+		assertTrue(index.updateCourse(csc116));
+		assertEquals(3, index.getCoursesWithOpenSeats().size());
+	}
+
+	/**
+	 * Tests AvailabilityIndex.getCoursesClosestToFull().
+	 */
+	@Test
+	public void testGetCoursesClosestToFull() {
+		enroll(csc216, 18);
+		enroll(csc226, 5);
+		enroll(csc116, 10);
+		index.updateCourse(csc216);
+		index.updateCourse(csc226);
+		index.updateCourse(csc116);
+
+		List<Course> courses = index.getCoursesClosestToFull(5);
+		assertEquals(2, courses.size());
+		assertEquals(csc216, courses.get(0));
+		assertEquals(csc226, courses.get(1));
+		courses = index.getCoursesClosestToFull(1);
+		assertEquals(1, courses.size());
+		assertEquals(csc216, courses.get(0));
+		assertEquals(0, index.getCoursesClosestToFull(0).size());
+
+		assertThrows(IllegalArgumentException.class, () -> index.getCoursesClosestToFull(-1));
+	}
+
+	/**
+	 * Tests AvailabilityIndex.getCoursesWithWaitlist().
+	 */
+	@Test
+	public void testGetCoursesWithWaitlist() {
+		assertEquals(0, index.getCoursesWithWaitlist().size());
+
+		enroll(csc116, 10);
+		Student waiting = new Student("Wait", "Listed", "wlisted", "wlisted@ncsu.edu", "pw");
+		csc116.getCourseRoll().enroll(waiting);
+		// a change to the waitlist alone does not change the open seats
+		index.updateCourse(csc116);
+		assertFalse(index.updateCourse(csc116));
+		List<Course> courses = index.getCoursesWithWaitlist();
+		assertEquals(1, courses.size());
+		assertEquals(csc116, courses.get(0));
+
+		csc116.getCourseRoll().drop(waiting);
+		assertFalse(index.updateCourse(csc116));
+		assertEquals(0, index.getCoursesWithWaitlist().size());
+	}
+
+	/**
+	 * Tests AvailabilityIndex.removeCourse() and clear().
+	 */
+	@Test
+	public void testRemoveCourse() {
+		index.removeCourse(csc216);
+		assertEquals(2, index.getCoursesWithOpenSeats().size());
+		assertFalse(index.updateCourse(csc216));
+
+		// removing a Course that is not in the index does nothing
+		index.removeCourse(csc216);
+		assertEquals(2, index.getCoursesWithOpenSeats().size());
+
+		index.clear();
+		assertEquals(0, index.getCoursesWithOpenSeats().size());
+		assertEquals(0, index.getCoursesClosestToFull(3).size());
+	}
+}
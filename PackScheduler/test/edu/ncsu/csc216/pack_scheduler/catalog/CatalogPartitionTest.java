@@ -0,0 +1,180 @@
+package edu.ncsu.csc216.pack_scheduler.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Tests CatalogPartition.
+ *
+ * @author Will Pressler
+ *
+ */
+public class CatalogPartitionTest {
+
+	/** Version counter shared with the partition */
+	private AtomicInteger version;
+	/** Number of times the partition reported a change */
+	private AtomicInteger changes;
+	/** Partition being tested */
+	private CatalogPartition partition;
+
+	/**
+	 * Creates an empty partition.
+	 */
+	@BeforeEach
+	public void setUp() {
+		version = new AtomicInteger();
+		changes = new AtomicInteger();
+		partition = new CatalogPartition(version, changes::incrementAndGet);
+	}
+
+	/**
+	 * Tests CatalogPartition.getDepartment().
+	 */
+	@Test
+	public void testGetDepartment() {
+		assertEquals("CSC", CatalogPartition.getDepartment("CSC216"));
+		assertEquals("E", CatalogPartition.getDepartment("E115"));
+		assertEquals("MAE", CatalogPartition.getDepartment("MAE206"));
+		assertEquals("HESF", CatalogPartition.getDepartment("HESF101L"));
+		assertEquals("MA", CatalogPartition.getDepartment("MA"));
+	}
+
+	/**
+	 * Tests adding and removing Courses, and the snapshot and changes that follow.
+	 */
+	@Test
+	public void testAddAndRemoveCourse() {
+		Course c216 = new Course("CSC216", "Software Development Fundamentals", "001", 3, null, 10, "TH", 1330, 1445);
+		Course c116 = new Course("CSC116", "Intro to Programming - Java", "001", 3, null, 10, "MW", 910, 1100);
+		assertTrue(partition.addCourse(c216));
+		assertTrue(partition.addCourse(c116));
+		assertFalse(partition.addCourse(c116));
+		assertEquals(2, version.get());
+		assertEquals(2, changes.get());
+
+		CatalogSnapshot segment = partition.getSegment();
+		assertEquals(2, segment.size());
+		assertSame(c116, segment.getCourses().get(0));
+		assertSame(c216, partition.getCourse("CSC216,001"));
+
+		List<String[]> changed = new ArrayList<String[]>();
+		partition.getChanges(1, changed);
+		assertEquals(1, changed.size());
+		assertEquals("CSC116", changed.get(0)[0]);
+
+		assertTrue(partition.removeCourse("CSC216,001"));
+		assertFalse(partition.removeCourse("CSC216,001"));
+		assertNull(partition.getCourse("CSC216,001"));
+		assertEquals(1, partition.getSegment().size());
+		List<String[]> removed = new ArrayList<String[]>();
+		partition.getRemoved(2, removed);
+		assertEquals(1, removed.size());
+		assertEquals("001", removed.get(0)[1]);
+	}
+
+	/**
+	 * Tests that roll changes update the partition until it is detached.
+	 */
+	@Test
+	public void testRollChangesAndDetach() {
+		Course c = new Course("CSC216", "Software Development Fundamentals", "001", 3, null, 10, "TH", 1330, 1445);
+		List<Course> group = new ArrayList<Course>();
+		group.add(c);
+		assertEquals(0, partition.addCourses(group).size());
+		assertEquals(1, partition.addCourses(group).size());
+		int added = version.get();
+
+		c.getCourseRoll().enroll(new Student("Zahir", "King", "zking", "zking@ncsu.edu", "pw"));
+		assertEquals(added + 1, version.get());
+		assertEquals("9", partition.getSegment().getCourseCatalog()[0][4]);
+		assertEquals(1, partition.getCoursesClosestToFull(5).size());
+
+		partition.detach();
+		c.getCourseRoll().setEnrollmentCap(20);
+		assertEquals(added + 1, version.get());
+	}
+
+	/**
+	 * Tests that a change only builds the display row of the Course that changed,
+	 * and every other row is shared with the previous snapshot.
+	 */
+	@Test
+	public void testOnlyChangedRowRebuilt() {
+		List<Course> group = new ArrayList<Course>();
+		for (int i = 0; i < 5; i++) {
+			group.add(new Course("CSC" + (316 - i * 50), "Topics", "001", 3, null, 10, "MW", 1000, 1115));
+		}
+		partition.addCourses(group);
+		String[][] before = partition.getSegment().getDisplayRows();
+
+		Course c216 = partition.getCourse("CSC216,001");
+		c216.getCourseRoll().enroll(new Student("Zahir", "King", "zking", "zking@ncsu.edu", "pw"));
+		String[][] after = partition.getSegment().getDisplayRows();
+		assertEquals(5, after.length);
+		for (int i = 0; i < after.length; i++) {
+			if (i == 2) {
+				assertNotSame(before[i], after[i]);
+				assertEquals("9", after[i][4]);
+			} else {
+				assertSame(before[i], after[i]);
+			}
+		}
+
+		Course c200 = new Course("CSC200", "Topics", "001", 3, null, 10, "A");
+		assertTrue(partition.addCourse(c200));
+		String[][] added = partition.getSegment().getDisplayRows();
+		assertEquals(6, added.length);
+		assertEquals("CSC200", added[2][0]);
+		assertSame(after[1], added[1]);
+		assertSame(after[2], added[3]);
+
+		assertTrue(partition.removeCourse("CSC116,001"));
+		String[][] removed = partition.getSegment().getDisplayRows();
+		assertEquals(5, removed.length);
+		assertEquals("CSC166", removed[0][0]);
+		assertSame(added[2], removed[1]);
+		assertSame(added[5], removed[4]);
+	}
+
+	/**
+	 * Tests that a large department meeting at the same time, so that every
+	 * Course falls in the same index buckets, is added in a reasonable time.
+	 */
+	@Test
+	public void testAddLargeDepartment() {
+		int count = 40000;
+		List<Course> group = new ArrayList<Course>(count);
+		for (int i = 0; i < count; i++) {
+			// spread out so the Courses are not added in order
+			int n = (int) ((long) i * 7919 % count);
+			group.add(new Course("CSC" + (100 + n / 1000), "Topics", String.format("%03d", n % 1000), 3, null,
+					10 + n % 50, "MW", 1000, 1115));
+		}
+		assertTimeoutPreemptively(Duration.ofSeconds(30), () -> assertEquals(0, partition.addCourses(group).size()));
+
+		assertEquals(count, partition.getSegment().size());
+		assertEquals(count, partition.getCoursesMeetingBetween('M', 1030, 1030).size());
+		List<Course> closest = partition.getCoursesClosestToFull(3);
+		assertEquals(3, closest.size());
+		assertEquals("CSC100", closest.get(0).getName());
+		assertEquals("000", closest.get(0).getSection());
+		assertEquals("050", closest.get(1).getSection());
+	}
+}
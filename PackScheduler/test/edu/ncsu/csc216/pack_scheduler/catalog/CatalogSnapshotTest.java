@@ -0,0 +1,135 @@
+package edu.ncsu.csc216.pack_scheduler.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Tests CatalogSnapshot and how CourseCatalog publishes it.
+ *
+ * @author Will Pressler
+ *
+ */
+public class CatalogSnapshotTest {
+
+	/** Valid course records */
+	private final String validTestFile = "test-files/course_records.txt";
+	/** Catalog being tested */
+	private CourseCatalog cc;
+
+	/**
+	 * Loads the valid course records into a new catalog.
+	 */
+	@BeforeEach
+	public void setUp() {
+		cc = new CourseCatalog();
+		cc.loadCoursesFromFile(validTestFile);
+	}
+
+	/**
+	 * Tests that a snapshot does not change when the catalog does.
+	 */
+	@Test
+	public void testSnapshotIsImmutable() {
+		CatalogSnapshot before = cc.getSnapshot();
+		assertEquals(13, before.size());
+		assertEquals(cc.getVersion(), before.getVersion());
+		assertSame(before, cc.getSnapshot());
+
+		assertTrue(cc.removeCourseFromCatalog("CSC216", "001"));
+		CatalogSnapshot after = cc.getSnapshot();
+		assertNotSame(before, after);
+		assertEquals(13, before.size());
+		assertEquals(12, after.size());
+		assertEquals("CSC216", before.getCourseFromCatalog("CSC216", "001").getName());
+		assertNull(after.getCourseFromCatalog("CSC216", "001"));
+		assertEquals(cc.getVersion(), after.getVersion());
+
+		List<Course> courses = after.getCourses();
+		assertThrows(UnsupportedOperationException.class, () -> courses.remove(0));
+
+		String[][] rows = after.getCourseCatalog();
+		rows[0][0] = "changed";
+		assertEquals("CSC116", after.getCourseCatalog()[0][0]);
+	}
+
+	/**
+	 * Tests that a new snapshot is published when a Course's open seats change.
+	 */
+	@Test
+	public void testSnapshotFollowsEnrollment() {
+		CatalogSnapshot before = cc.getSnapshot();
+		Course c = cc.getCourseFromCatalog("CSC226", "001");
+		c.getCourseRoll().enroll(new Student("Zahir", "King", "zking", "zking@ncsu.edu", "pw"));
+
+		CatalogSnapshot after = cc.getSnapshot();
+		assertNotSame(before, after);
+		assertEquals("10", before.getCourseCatalog()[10][4]);
+		assertEquals("9", after.getCourseCatalog()[10][4]);
+		assertSame(cc.getCourseCatalog()[10], cc.getSnapshot().getDisplayRows()[10]);
+	}
+
+	/**
+	 * Tests that readers only ever see whole snapshots while another thread is
+	 * changing the catalog.
+	 *
+	 * @throws InterruptedException if the test is interrupted while waiting for
+	 *                              the threads
+	 */
+	@Test
+	public void testConcurrentReaders() throws InterruptedException {
+		AtomicBoolean torn = new AtomicBoolean(false);
+		AtomicBoolean done = new AtomicBoolean(false);
+		Thread[] readers = new Thread[4];
+		for (int r = 0; r < readers.length; r++) {
+			readers[r] = new Thread(() -> {
+				while (!done.get()) {
+					CatalogSnapshot s = cc.getSnapshot();
+					String[][] rows = s.getDisplayRows();
+					if (rows.length != s.size()) {
+						torn.set(true);
+					}
+					for (int i = 0; i < rows.length; i++) {
+						Course c = s.getCourses().get(i);
+						if (!rows[i][0].equals(c.getName()) || !rows[i][1].equals(c.getSection())
+								|| i > 0 && s.getCourses().get(i - 1).compareTo(c) >= 0) {
+							torn.set(true);
+						}
+					}
+				}
+			});
+			readers[r].start();
+		}
+
+		for (int i = 0; i < 200; i++) {
+			String section = String.format("%03d", 100 + i % 50);
+			if (i < 50) {
+				cc.addCourseToCatalog("CSC400", "Topics", section, 3, null, 10, "A", 0, 0);
+			} else if (i < 100) {
+				cc.removeCourseFromCatalog("CSC400", section);
+			} else {
+				cc.addCourseToCatalog("CSC100", "Topics", section, 3, null, 10, "A", 0, 0);
+			}
+		}
+		done.set(true);
+		for (Thread reader : readers) {
+			reader.join();
+		}
+
+		assertFalse(torn.get());
+		assertEquals(63, cc.getSnapshot().size());
+	}
+}
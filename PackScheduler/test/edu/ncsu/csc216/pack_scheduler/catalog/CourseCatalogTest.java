@@ -3,17 +3,31 @@
  */
 package edu.ncsu.csc216.pack_scheduler.catalog;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.Assert.fail;
 
 
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.junit.Test;
 
 import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.io.RecordChangeLog;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
 
 
 
@@ -114,4 +128,398 @@ public class CourseCatalogTest {
 		
 	}
 	
+	/**
+	 * Tests that lookups stay consistent with the catalog after loading, adding,
+	 * removing, and clearing courses.
+	 */
+	@Test
+	public void testCourseLookupAfterChanges() {
+		CourseCatalog cc = new CourseCatalog();
+		cc.loadCoursesFromFile(validTestFile);
+		Course c = cc.getCourseFromCatalog("CSC216", "601");
+		assertEquals("CSC216", c.getName());
+		assertEquals("601", c.getSection());
+		assertNull(cc.getCourseFromCatalog("CSC216", "999"));
+		
+		// a loaded course cannot be added again
+		assertFalse(cc.addCourseToCatalog("CSC216", TITLE, "601", CREDITS, INSTRUCTOR_ID, ENROLLMENT_CAP, "A", 0, 0));
+		
+		assertTrue(cc.removeCourseFromCatalog("CSC216", "601"));
+		assertNull(cc.getCourseFromCatalog("CSC216", "601"));
+		assertFalse(cc.removeCourseFromCatalog("CSC216", "601"));
+		assertEquals(12, cc.getCourseCatalog().length);
+		assertEquals("CSC216", cc.getCourseCatalog()[4][0]);
+		assertEquals("002", cc.getCourseCatalog()[4][1]);
+		assertEquals("CSC217", cc.getCourseCatalog()[5][0]);
+		
+		cc.newCourseCatalog();
+		assertNull(cc.getCourseFromCatalog("CSC116", "001"));
+		assertTrue(cc.addCourseToCatalog("CSC116", TITLE, "001", CREDITS, INSTRUCTOR_ID, ENROLLMENT_CAP, MEETING_DAYS, START_TIME, END_TIME));
+		assertEquals("001", cc.getCourseFromCatalog("CSC116", "001").getSection());
+	}
+	
+	/**
+	 * Tests CourseCatalog.getCoursesByPrefix() and getCoursesByDepartment().
+	 */
+	@Test
+	public void testGetCoursesByPrefix() {
+		CourseCatalog cc = new CourseCatalog();
+		assertEquals(0, cc.getCoursesByPrefix("CSC").size());
+		
+		cc.loadCoursesFromFile(validTestFile);
+		List<Course> courses = cc.getCoursesByPrefix("CSC2");
+		assertEquals(9, courses.size());
+		assertEquals("CSC216", courses.get(0).getName());
+		assertEquals("001", courses.get(0).getSection());
+		assertEquals("CSC230", courses.get(8).getName());
+		
+		courses = cc.getCoursesByPrefix("CSC217");
+		assertEquals(4, courses.size());
+		assertEquals("202", courses.get(0).getSection());
+		assertEquals("601", courses.get(3).getSection());
+		
+		assertEquals(13, cc.getCoursesByPrefix("").size());
+		assertEquals(0, cc.getCoursesByPrefix("CSC9").size());
+		assertEquals(0, cc.getCoursesByPrefix("MA").size());
+		
+		assertTrue(cc.addCourseToCatalog("MA141", "Calculus I", "001", 4, null, ENROLLMENT_CAP, "MWF", 800, 850));
+		assertTrue(cc.addCourseToCatalog("MAE206", "Engineering Statics", "001", 3, null, ENROLLMENT_CAP, "TH", 800, 915));
+		assertEquals(2, cc.getCoursesByPrefix("MA").size());
+		courses = cc.getCoursesByDepartment("MA");
+		assertEquals(1, courses.size());
+		assertEquals("MA141", courses.get(0).getName());
+		assertEquals(13, cc.getCoursesByDepartment("CSC").size());
+		assertEquals(0, cc.getCoursesByDepartment("CSC116").size());
+		assertTrue(cc.addCourseToCatalog("CSC116A", "Intro to Programming - Lab", "001", 1, null, ENROLLMENT_CAP, "A", 0, 0));
+		assertEquals(0, cc.getCoursesByDepartment("CSC116").size());
+		assertEquals(14, cc.getCoursesByDepartment("CSC").size());
+		assertTrue(cc.removeCourseFromCatalog("CSC116A", "001"));
+		
+		try {
+			cc.getCoursesByPrefix(null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(15, cc.getCourseCatalog().length);
+		}
+		try {
+			cc.getCoursesByDepartment("");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(15, cc.getCourseCatalog().length);
+		}
+	}
+	
+	/**
+	 * Tests that CourseCatalog meeting time queries stay current as Courses are
+	 * loaded, added, and removed.
+	 */
+	@Test
+	public void testGetCoursesMeetingAt() {
+		CourseCatalog cc = new CourseCatalog();
+		cc.loadCoursesFromFile(validTestFile);
+		List<Course> courses = cc.getCoursesMeetingAt('H', 1330);
+		assertEquals(1, courses.size());
+		assertEquals("CSC216", courses.get(0).getName());
+		assertEquals("001", courses.get(0).getSection());
+		assertEquals(2, cc.getArrangedCourses().size());
+		assertEquals(6, cc.getCoursesMeetingBetween('M', 900, 1200).size());
+		
+		assertTrue(cc.removeCourseFromCatalog("CSC216", "001"));
+		assertEquals(0, cc.getCoursesMeetingAt('H', 1330).size());
+		assertTrue(cc.addCourseToCatalog("CSC316", "Data Structures and Algorithms", "002", 3, null, ENROLLMENT_CAP, "TH", 1300, 1415));
+		assertEquals(1, cc.getCoursesMeetingAt('H', 1330).size());
+		
+		cc.newCourseCatalog();
+		assertEquals(0, cc.getCoursesMeetingAt('H', 1330).size());
+		assertEquals(0, cc.getArrangedCourses().size());
+	}
+	
+	/**
+	 * Tests that getCourseCatalog() is cached until the catalog changes, and that
+	 * getCourseCatalogChanges() and getRemovedCourses() return only what changed.
+	 */
+	@Test
+	public void testGetCourseCatalogChanges() {
+		CourseCatalog cc = new CourseCatalog();
+		cc.loadCoursesFromFile(validTestFile);
+		int loaded = cc.getVersion();
+		String[][] catalog = cc.getCourseCatalog();
+		// each call gets its own array, but the cached rows are shared
+		assertNotSame(catalog, cc.getCourseCatalog());
+		assertSame(catalog[0], cc.getCourseCatalog()[0]);
+		assertEquals(0, cc.getCourseCatalogChanges(loaded).length);
+		assertEquals(13, cc.getCourseCatalogChanges(loaded - 1).length);
+		
+		// enrolling a student changes the open seats of the course
+		Course c = cc.getCourseFromCatalog("CSC216", "001");
+		c.getCourseRoll().enroll(new Student("Randy", "Woodson", "gopack", "gopack@ncsu.edu", "gopack", 18));
+		assertTrue(cc.getVersion() > loaded);
+		String[][] changes = cc.getCourseCatalogChanges(loaded);
+		assertEquals(1, changes.length);
+		assertEquals("CSC216", changes[0][0]);
+		assertEquals("001", changes[0][1]);
+		assertEquals("9", changes[0][4]);
+		
+		String[][] updated = cc.getCourseCatalog();
+		assertNotSame(catalog, updated);
+		assertEquals("9", updated[3][4]);
+		// rows of courses that did not change are reused
+		assertSame(catalog[0], updated[0]);
+		
+		int enrolled = cc.getVersion();
+		assertTrue(cc.addCourseToCatalog("CSC316", "Data Structures and Algorithms", "002", 3, null, ENROLLMENT_CAP, "TH", 1300, 1415));
+		assertTrue(cc.removeCourseFromCatalog("CSC216", "601"));
+		changes = cc.getCourseCatalogChanges(enrolled);
+		assertEquals(1, changes.length);
+		assertEquals("CSC316", changes[0][0]);
+		String[][] removed = cc.getRemovedCourses(enrolled);
+		assertEquals(1, removed.length);
+		assertEquals("CSC216", removed[0][0]);
+		assertEquals("601", removed[0][1]);
+		assertEquals(0, cc.getRemovedCourses(cc.getVersion()).length);
+		
+		// courses removed from the catalog no longer change its version
+		int current = cc.getVersion();
+		assertTrue(cc.removeCourseFromCatalog("CSC216", "001"));
+		c.getCourseRoll().setEnrollmentCap(20);
+		assertEquals(current + 1, cc.getVersion());
+		
+		cc.newCourseCatalog();
+		assertEquals(0, cc.getCourseCatalogChanges(current).length);
+		assertEquals(0, cc.getRemovedCourses(current).length);
+	}
+	
+	/**
+	 * Tests that changing the array returned by getCourseCatalog() does not
+	 * change what later calls or queries return.
+	 */
+	@Test
+	public void testGetCourseCatalogCopy() {
+		CourseCatalog cc = new CourseCatalog();
+		cc.loadCoursesFromFile(validTestFile);
+		String[][] catalog = cc.getCourseCatalog();
+		String[] first = catalog[0];
+		catalog[0] = new String[] { "XYZ101", "001", "Changed", "A", "0" };
+		catalog[1] = null;
+
+		String[][] again = cc.getCourseCatalog();
+		assertEquals(13, again.length);
+		assertSame(first, again[0]);
+		assertEquals("CSC116", again[0][0]);
+		assertEquals("CSC116", again[1][0]);
+		assertEquals("CSC116", cc.query().getDisplayRows()[0][0]);
+	}
+	
+	/**
+	 * Tests that the availability queries follow enrollment in the catalog's
+	 * courses.
+	 */
+	@Test
+	public void testGetCoursesWithOpenSeats() {
+		CourseCatalog cc = new CourseCatalog();
+		cc.loadCoursesFromFile(validTestFile);
+		assertEquals(13, cc.getCoursesWithOpenSeats().size());
+		assertEquals(0, cc.getCoursesWithWaitlist().size());
+		
+		Course c = cc.getCourseFromCatalog("CSC226", "001");
+		for (int i = 0; i < 11; i++) {
+			c.getCourseRoll().enroll(new Student("First" + i, "Last", "id" + i, "id" + i + "@ncsu.edu", "pw"));
+		}
+		assertEquals(12, cc.getCoursesWithOpenSeats().size());
+		List<Course> courses = cc.getCoursesWithWaitlist();
+		assertEquals(1, courses.size());
+		assertEquals(c, courses.get(0));
+		
+		Course almostFull = cc.getCourseFromCatalog("CSC116", "003");
+		almostFull.getCourseRoll().enroll(new Student("Randy", "Woodson", "gopack", "gopack@ncsu.edu", "gopack", 18));
+		courses = cc.getCoursesClosestToFull(2);
+		assertEquals(2, courses.size());
+		assertEquals(almostFull, courses.get(0));
+		assertEquals("CSC116", courses.get(1).getName());
+		assertEquals("001", courses.get(1).getSection());
+		
+		assertTrue(cc.removeCourseFromCatalog("CSC226", "001"));
+		assertEquals(0, cc.getCoursesWithWaitlist().size());
+		cc.newCourseCatalog();
+		assertEquals(0, cc.getCoursesWithOpenSeats().size());
+	}
+	
+	/**
+	 * Tests CourseCatalog.addCoursesToCatalog().
+	 */
+	@Test
+	public void testAddCoursesToCatalog() {
+		CourseCatalog cc = new CourseCatalog();
+		cc.addCourseToCatalog("CSC216", TITLE, "002", CREDITS, INSTRUCTOR_ID, ENROLLMENT_CAP, MEETING_DAYS, START_TIME, END_TIME);
+		int before = cc.getVersion();
+		
+		List<Course> batch = new ArrayList<Course>();
+		Course csc316 = new Course("CSC316", "Data Structures and Algorithms", "001", 3, null, 10, "MW", 830, 945);
+		Course csc116 = new Course("CSC116", "Intro to Programming - Java", "001", 3, null, 10, "MW", 910, 1100);
+		Course existing = new Course("CSC216", TITLE, "002", CREDITS, null, ENROLLMENT_CAP, "A");
+		Course csc216 = new Course(NAME, TITLE, SECTION, CREDITS, null, ENROLLMENT_CAP, "A");
+		Course repeated = new Course("CSC116", "Intro to Programming - Java", "001", 3, null, 10, "A");
+		batch.add(csc316);
+		batch.add(csc116);
+		batch.add(existing);
+		batch.add(csc216);
+		batch.add(repeated);
+		
+		List<Course> rejected = cc.addCoursesToCatalog(batch);
+		assertEquals(2, rejected.size());
+		assertSame(existing, rejected.get(0));
+		assertSame(repeated, rejected.get(1));
+		assertEquals(before + 1, cc.getVersion());
+		
+		String[][] catalog = cc.getCourseCatalog();
+		assertEquals(4, catalog.length);
+		assertEquals("CSC116", catalog[0][0]);
+		assertEquals("CSC216", catalog[1][0]);
+		assertEquals("001", catalog[1][1]);
+		assertEquals("CSC216", catalog[2][0]);
+		assertEquals("002", catalog[2][1]);
+		assertEquals("CSC316", catalog[3][0]);
+		
+		assertSame(csc116, cc.getCourseFromCatalog("CSC116", "001"));
+		assertEquals(1, cc.getArrangedCourses().size());
+		assertEquals(3, cc.getCourseCatalogChanges(before).length);
+		assertEquals(4, cc.getCoursesWithOpenSeats().size());
+		
+		// a batch with only duplicates leaves the catalog alone
+		int after = cc.getVersion();
+		assertEquals(1, cc.addCoursesToCatalog(Collections.singletonList(existing)).size());
+		assertEquals(after, cc.getVersion());
+		
+		// single adds still go to the right place after a batch
+		assertTrue(cc.addCourseToCatalog("CSC226", "Discrete Mathematics for Computer Scientists", "001", 3, null, 10, "MWF", 935, 1025));
+		assertEquals("CSC226", cc.getCourseCatalog()[3][0]);
+		assertTrue(cc.removeCourseFromCatalog("CSC216", "001"));
+		assertEquals(4, cc.getCourseCatalog().length);
+		
+		try {
+			cc.addCoursesToCatalog(null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Invalid courses.", e.getMessage());
+		}
+	}
+	
+	/**
+	 * Tests that Courses from several departments are kept in one ordered view.
+	 */
+	@Test
+	public void testDepartmentPartitions() {
+		CourseCatalog cc = new CourseCatalog();
+		assertTrue(cc.addCourseToCatalog("MAE206", "Engineering Statics", "001", 3, null, 10, "MW", 1000, 1050));
+		assertTrue(cc.addCourseToCatalog("MA141", "Calculus I", "001", 4, null, 10, "MWF", 800, 850));
+		assertTrue(cc.addCourseToCatalog("EC205", "Fundamentals of Economics", "001", 3, null, 10, "TH", 800, 915));
+		assertTrue(cc.addCourseToCatalog("E115", "Introduction to Computing Environments", "001", 1, null, 10, "A", 0, 0));
+		assertTrue(cc.addCourseToCatalog("CSC116", "Intro to Programming - Java", "001", 3, null, 10, "MW", 910, 1100));
+		
+		String[][] catalog = cc.getCourseCatalog();
+		assertEquals(5, catalog.length);
+		assertEquals("CSC116", catalog[0][0]);
+		assertEquals("E115", catalog[1][0]);
+		assertEquals("EC205", catalog[2][0]);
+		assertEquals("MA141", catalog[3][0]);
+		assertEquals("MAE206", catalog[4][0]);
+		
+		assertEquals(2, cc.getCoursesByPrefix("MA").size());
+		assertEquals(1, cc.getCoursesByPrefix("MA1").size());
+		assertEquals(1, cc.getCoursesByDepartment("MA").size());
+		assertEquals(2, cc.getCoursesByPrefix("E").size());
+		assertEquals(5, cc.getCoursesByPrefix("").size());
+		assertEquals(3, cc.getCoursesMeetingBetween('M', 800, 1100).size());
+		assertEquals("MA141", cc.getCoursesMeetingAt('F', 830).get(0).getName());
+		assertEquals(1, cc.getArrangedCourses().size());
+		assertEquals(5, cc.getCoursesClosestToFull(10).size());
+		
+		assertTrue(cc.removeCourseFromCatalog("EC205", "001"));
+		assertFalse(cc.removeCourseFromCatalog("EC205", "001"));
+		assertFalse(cc.removeCourseFromCatalog("PY205", "001"));
+		assertNull(cc.getCourseFromCatalog("PY205", "001"));
+		assertEquals("MA141", cc.getCourseCatalog()[2][0]);
+	}
+	
+	/**
+	 * Tests that changes to different departments from several threads all end up
+	 * in the catalog.
+	 * 
+	 * @throws InterruptedException if the test is interrupted while waiting for
+	 *                              the threads
+	 */
+	@Test
+	public void testConcurrentDepartments() throws InterruptedException {
+		CourseCatalog cc = new CourseCatalog();
+		String[] departments = { "CSC", "MA", "E", "PY" };
+		Thread[] writers = new Thread[departments.length];
+		for (int d = 0; d < departments.length; d++) {
+			String department = departments[d];
+			writers[d] = new Thread(() -> {
+				for (int i = 0; i < 100; i++) {
+					cc.addCourseToCatalog(department + "101", "Topics", String.format("%03d", i), 3, null, 10, "A", 0, 0);
+				}
+				for (int i = 0; i < 100; i += 2) {
+					cc.removeCourseFromCatalog(department + "101", String.format("%03d", i));
+				}
+			});
+			writers[d].start();
+		}
+		for (Thread writer : writers) {
+			writer.join();
+		}
+		
+		String[][] catalog = cc.getCourseCatalog();
+		assertEquals(200, catalog.length);
+		assertEquals("CSC101", catalog[0][0]);
+		assertEquals("001", catalog[0][1]);
+		assertEquals("PY101", catalog[199][0]);
+		assertEquals("099", catalog[199][1]);
+		assertEquals(200, cc.getCourseCatalogChanges(0).length);
+		assertEquals(600, cc.getVersion() - 1);
+	}
+	
+	/**
+	 * Tests that Courses added while the catalog is being reloaded from its file
+	 * either end up in the catalog and its saved changes, or are dropped by a
+	 * reload, but are never in one and not the other.
+	 * 
+	 * @throws InterruptedException if the test is interrupted while waiting for
+	 *                              the threads
+	 * @throws IOException          if the test file cannot be copied
+	 */
+	@Test
+	public void testAddDuringReload() throws InterruptedException, IOException {
+		Path file = Files.createTempFile("courses", ".txt");
+		Path delta = Paths.get(file + RecordChangeLog.DELTA_SUFFIX);
+		try {
+			Files.copy(Paths.get(validTestFile), file, StandardCopyOption.REPLACE_EXISTING);
+			CourseCatalog cc = new CourseCatalog();
+			cc.loadCoursesFromFile(file.toString());
+			Thread writer = new Thread(() -> {
+				for (int i = 0; i < 300; i++) {
+					cc.addCourseToCatalog("ZZ101", "Topics", String.format("%03d", i), 3, null, 10, "A", 0, 0);
+					if (i % 3 == 0) {
+						cc.removeCourseFromCatalog("ZZ101", String.format("%03d", i / 2));
+					}
+				}
+			});
+			writer.start();
+			for (int i = 0; i < 30; i++) {
+				cc.loadCoursesFromFile(file.toString());
+				Thread.yield();
+			}
+			writer.join();
+
+			cc.saveCourseCatalogChanges(file.toString());
+			CourseCatalog saved = new CourseCatalog();
+			saved.loadCoursesFromFile(file.toString());
+			assertArrayEquals(cc.getCourseCatalog(), saved.getCourseCatalog());
+			assertArrayEquals(cc.getCourseCatalog(), cc.getCourseCatalogChanges(0));
+		} finally {
+			Files.deleteIfExists(delta);
+			Files.delete(file);
+		}
+	}
+	
 }
@@ -0,0 +1,143 @@
+package edu.ncsu.csc216.pack_scheduler.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Tests CourseQuery.
+ *
+ * @author Will Pressler
+ *
+ */
+public class CourseQueryTest {
+
+	/** Valid course records */
+	private final String validTestFile = "test-files/course_records.txt";
+	/** Catalog being queried */
+	private CourseCatalog cc;
+
+	/**
+	 * Loads the valid course records into a new catalog.
+	 */
+	@BeforeEach
+	public void setUp() {
+		cc = new CourseCatalog();
+		cc.loadCoursesFromFile(validTestFile);
+	}
+
+	/**
+	 * Tests the name prefix and department filters.
+	 */
+	@Test
+	public void testPrefixAndDepartment() {
+		assertEquals(13, cc.query().stream().count());
+
+		List<Course> courses = cc.query().prefix("CSC21").stream().collect(Collectors.toList());
+		assertEquals(7, courses.size());
+		assertEquals("CSC216", courses.get(0).getName());
+		assertEquals("CSC217", courses.get(6).getName());
+
+		assertEquals(13, cc.query().department("CSC").stream().count());
+		assertEquals(0, cc.query().department("CS").stream().count());
+		assertEquals(0, cc.query().department("CSC116").stream().count());
+		assertTrue(cc.addCourseToCatalog("CSC116A", "Intro to Programming - Lab", "001", 1, null, 10, "A", 0, 0));
+		assertEquals(0, cc.query().department("CSC116").stream().count());
+		assertEquals(14, cc.query().department("CSC").stream().count());
+		assertEquals(0, cc.query().prefix("MA").stream().count());
+		assertEquals(0, cc.query().prefix("ZZZ").stream().count());
+
+		assertThrows(IllegalArgumentException.class, () -> cc.query().prefix(null));
+		assertThrows(IllegalArgumentException.class, () -> cc.query().department(""));
+	}
+
+	/**
+	 * Tests the credits, instructor, meeting days, and open seats filters.
+	 */
+	@Test
+	public void testFilters() {
+		assertEquals(4, cc.query().credits(1).stream().count());
+		assertEquals(5, cc.query().prefix("CSC2").credits(3).stream().count());
+
+		assertEquals(6, cc.query().meetingDays("MW").stream().count());
+		assertEquals(1, cc.query().meetingDays("MWF").stream().count());
+		assertEquals(2, cc.query().meetingDays("A").stream().count());
+
+		// instructors are only linked when they are in the faculty directory
+		assertEquals(0, cc.query().instructor("jctetter").stream().count());
+		cc.addCourseToCatalog("CSC316", "Data Structures and Algorithms", "002", 3, "jctetter", 10, "A", 0, 0);
+		List<Course> courses = cc.query().instructor("jctetter").stream().collect(Collectors.toList());
+		assertEquals(1, courses.size());
+		assertEquals("CSC316", courses.get(0).getName());
+		assertEquals("002", courses.get(0).getSection());
+
+		Course full = cc.getCourseFromCatalog("CSC230", "001");
+		for (int i = 0; i < 10; i++) {
+			full.getCourseRoll().enroll(new Student("First" + i, "Last", "id" + i, "id" + i + "@ncsu.edu", "pw"));
+		}
+		assertEquals(13, cc.query().withOpenSeats().stream().count());
+		assertEquals(0, cc.query().prefix("CSC230").withOpenSeats().stream().count());
+
+		assertThrows(IllegalArgumentException.class, () -> cc.query().instructor(null));
+		assertThrows(IllegalArgumentException.class, () -> cc.query().meetingDays(""));
+	}
+
+	/**
+	 * Tests paging with offset and limit, and reading display rows.
+	 */
+	@Test
+	public void testPaging() {
+		List<Course> page = cc.query().offset(3).limit(4).stream().collect(Collectors.toList());
+		assertEquals(4, page.size());
+		assertEquals("CSC216", page.get(0).getName());
+		assertEquals("001", page.get(0).getSection());
+		assertEquals("CSC217", page.get(3).getName());
+		assertEquals("202", page.get(3).getSection());
+
+		assertEquals(1, cc.query().offset(12).stream().count());
+		assertEquals(0, cc.query().offset(20).stream().count());
+		assertEquals(0, cc.query().limit(0).stream().count());
+
+		String[][] rows = cc.query().prefix("CSC217").offset(1).limit(2).getDisplayRows();
+		assertEquals(2, rows.length);
+		assertEquals("211", rows[0][1]);
+		assertEquals("223", rows[1][1]);
+		assertSame(cc.getCourseCatalog()[7], rows[0]);
+
+		assertThrows(IllegalArgumentException.class, () -> cc.query().offset(-1));
+		assertThrows(IllegalArgumentException.class, () -> cc.query().limit(-1));
+	}
+
+	/**
+	 * Tests that the query reads the catalog lazily and from its own snapshot.
+	 */
+	@Test
+	public void testSpliterator() {
+		CourseQuery query = cc.query().limit(2);
+		cc.removeCourseFromCatalog("CSC116", "001");
+
+		Spliterator<Course> it = query.spliterator();
+		assertEquals(2, it.estimateSize());
+		Course[] first = new Course[1];
+		it.tryAdvance(c -> first[0] = c);
+		assertEquals("001", first[0].getSection());
+		it.tryAdvance(c -> first[0] = c);
+		assertEquals("002", first[0].getSection());
+		assertFalse(it.tryAdvance(c -> first[0] = c));
+		assertEquals(0, it.estimateSize());
+
+		assertEquals("002", cc.query().stream().findFirst().get().getSection());
+	}
+}
@@ -0,0 +1,132 @@
+package edu.ncsu.csc216.pack_scheduler.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+
+/**
+ * Tests MeetingTimeIndex.
+ *
+ * @author Will Pressler
+ *
+ */
+public class MeetingTimeIndexTest {
+
+	/** Course meeting Tuesday and Thursday from 1:30PM to 2:45PM */
+	private Course csc216;
+	/** Course meeting Monday and Wednesday from 1:30PM to 2:45PM */
+	private Course csc216Mw;
+	/** Course meeting Monday, Wednesday, and Friday from 9:35AM to 10:25AM */
+	private Course csc226;
+	/** Course meeting Tuesday from 8:30AM to 10:20AM */
+	private Course csc217;
+	/** Arranged Course */
+	private Course csc216Arranged;
+	/** Index being tested */
+	private MeetingTimeIndex index;
+
+	/**
+	 * Creates the Courses and adds them to a new index.
+	 */
+	@BeforeEach
+	public void setUp() {
+		csc216 = new Course("CSC216", "Software Development Fundamentals", "001", 3, null, 10, "TH", 1330, 1445);
+		csc216Mw = new Course("CSC216", "Software Development Fundamentals", "002", 3, null, 10, "MW", 1330, 1445);
+		csc226 = new Course("CSC226", "Discrete Mathematics for Computer Scientists", "001", 3, null, 10, "MWF", 935,
+				1025);
+		csc217 = new Course("CSC217", "Software Development Fundamentals Lab", "211", 1, null, 10, "T", 830, 1020);
+		csc216Arranged = new Course("CSC216", "Software Development Fundamentals", "601", 3, null, 10, "A");
+
+		index = new MeetingTimeIndex();
+		index.addCourse(csc226);
+		index.addCourse(csc216);
+		index.addCourse(csc217);
+		index.addCourse(csc216Mw);
+		index.addCourse(csc216Arranged);
+	}
+
+	/**
+	 * Tests MeetingTimeIndex.getCoursesMeetingAt().
+	 */
+	@Test
+	public void testGetCoursesMeetingAt() {
+		List<Course> courses = index.getCoursesMeetingAt('T', 1330);
+		assertEquals(1, courses.size());
+		assertEquals(csc216, courses.get(0));
+
+		// end times are part of the meeting
+		assertEquals(1, index.getCoursesMeetingAt('H', 1445).size());
+		assertEquals(0, index.getCoursesMeetingAt('H', 1446).size());
+		assertEquals(0, index.getCoursesMeetingAt('T', 1329).size());
+
+		courses = index.getCoursesMeetingAt('W', 1000);
+		assertEquals(1, courses.size());
+		assertEquals(csc226, courses.get(0));
+		assertEquals(1, index.getCoursesMeetingAt('F', 935).size());
+		assertEquals(0, index.getCoursesMeetingAt('F', 1400).size());
+
+		assertThrows(IllegalArgumentException.class, () -> index.getCoursesMeetingAt('A', 1000));
+		assertThrows(IllegalArgumentException.class, () -> index.getCoursesMeetingAt('M', 2400));
+		assertThrows(IllegalArgumentException.class, () -> index.getCoursesMeetingAt('M', 1060));
+	}
+
+	/**
+	 * Tests MeetingTimeIndex.getCoursesMeetingBetween().
+	 */
+	@Test
+	public void testGetCoursesMeetingBetween() {
+		List<Course> courses = index.getCoursesMeetingBetween('T', 800, 1500);
+		assertEquals(2, courses.size());
+		assertEquals(csc216, courses.get(0));
+		assertEquals(csc217, courses.get(1));
+
+		courses = index.getCoursesMeetingBetween('M', 0, 2359);
+		assertEquals(2, courses.size());
+		assertEquals(csc216Mw, courses.get(0));
+		assertEquals(csc226, courses.get(1));
+
+		assertEquals(0, index.getCoursesMeetingBetween('T', 1021, 1329).size());
+		assertEquals(1, index.getCoursesMeetingBetween('T', 1020, 1329).size());
+
+		assertThrows(IllegalArgumentException.class, () -> index.getCoursesMeetingBetween('T', 1500, 1400));
+	}
+
+	/**
+	 * Tests MeetingTimeIndex.getArrangedCourses().
+	 */
+	@Test
+	public void testGetArrangedCourses() {
+		List<Course> courses = index.getArrangedCourses();
+		assertEquals(1, courses.size());
+		assertEquals(csc216Arranged, courses.get(0));
+		assertFalse(index.getCoursesMeetingBetween('M', 0, 2359).contains(csc216Arranged));
+	}
+
+	/**
+	 * Tests MeetingTimeIndex.removeCourse() and clear().
+	 */
+	@Test
+	public void testRemoveCourse() {
+		index.removeCourse(csc216);
+		assertEquals(0, index.getCoursesMeetingAt('T', 1330).size());
+		assertEquals(1, index.getCoursesMeetingAt('T', 900).size());
+
+		index.removeCourse(csc216Arranged);
+		assertEquals(0, index.getArrangedCourses().size());
+
+		// removing a Course that is not in the index does nothing
+		index.removeCourse(csc216);
+		assertEquals(2, index.getCoursesMeetingBetween('M', 0, 2359).size());
+
+		index.clear();
+		assertEquals(0, index.getCoursesMeetingBetween('M', 0, 2359).size());
+		assertEquals(0, index.getCoursesMeetingBetween('T', 0, 2359).size());
+	}
+}
@@ -160,4 +160,46 @@ public class CourseRollTest {
         assertTrue(courseRoll2.canEnroll(studentAdd));
         assertFalse(courseRoll2.canEnroll(new Student("Zahir2", "King", "zking", "Zahir" + "@ncsu.edu", "pw")));
 	}
+	
+	/**
+	 * Tests that the listener is notified when the roll or waitlist changes.
+	 */
+	@Test
+	public void testSetListener() {
+	    Course c = new Course("CSC216", "Programming Concepts - Java", "001", 4, "sesmith5", 10, "A");
+	    CourseRoll courseRoll = c.getCourseRoll();
+	    int[] notifications = new int[1];
+	    courseRoll.setListener(course -> {
+	        assertEquals(c, course);
+	        notifications[0]++;
+	    });
+	    
+	    StudentDirectory directory = new StudentDirectory();
+	    directory.loadStudentsFromFile("test-files/student_records.txt");
+	    String[] studentData = null;
+	    for (int i = 0; i < 10; i++) {
+	        studentData = directory.getStudentDirectory()[i];
+	        courseRoll.enroll(new Student(studentData[0], studentData[1], studentData[2], studentData[0] + "@ncsu.edu", "pw"));
+	    }
+	    assertEquals(10, notifications[0]);
+	    
+	    Student studentAdd = new Student("Randy", "Woodson", "gopack", "gopack@ncsu.edu", "gopack", 18);
+	    courseRoll.enroll(studentAdd);
+	    assertEquals(11, notifications[0]);
+	    courseRoll.drop(new Student("Emerald", "Frost", "efrost", "Emerald" + "@ncsu.edu", "pw"));
+	    assertEquals(12, notifications[0]);
+	    
+	    // dropping a student who is not in the roll or waitlist changes nothing
+	    courseRoll.drop(new Student("Emerald", "Frost", "efrost", "Emerald" + "@ncsu.edu", "pw"));
+	    assertEquals(12, notifications[0]);
+	    
+	    courseRoll.drop(studentAdd);
+	    assertEquals(13, notifications[0]);
+	    courseRoll.setEnrollmentCap(20);
+	    assertEquals(14, notifications[0]);
+	    
+	    courseRoll.setListener(null);
+	    courseRoll.setEnrollmentCap(30);
+	    assertEquals(14, notifications[0]);
+	}
 }
@@ -10,11 +10,15 @@ import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 import org.junit.Before;
 import org.junit.jupiter.api.Test;
 
+import edu.ncsu.csc216.pack_scheduler.user.Faculty;
+
 /**
  * Tests the FacultyDirectory class
  * 
@@ -170,6 +174,89 @@ class FacultyDirectoryTest {
 		assertEquals(2, fd.getFacultyDirectory().length);
 		
 		assertEquals("Ashely", fd.getFacultyById("awitt").getFirstName());
+		assertNull(fd.getFacultyById("bbrewer"));
+		assertFalse(fd.addFaculty("Other", "Name", "awitt", "other@ncsu.edu", "pw", "pw", 1));
+		assertTrue(fd.removeFaculty("awitt"));
+		assertFalse(fd.removeFaculty("awitt"));
+		assertNull(fd.getFacultyById("awitt"));
+		assertEquals("fmeadow", fd.getFacultyDirectory()[0][2]);
+
+		fd.loadFacultyFromFile(validTestFile);
+		for (String[] row : fd.getFacultyDirectory()) {
+			assertEquals(row[0], fd.getFacultyById(row[2]).getFirstName());
+		}
+		fd.newFacultyDirectory();
+		assertNull(fd.getFacultyById("awitt"));
+	}
+
+	/**
+	 * Tests FacultyDirectory.findFacultyByName(), including a Faculty whose first
+	 * and last name both match.
+	 */
+	@Test
+	void testFindFacultyByName() {
+		FacultyDirectory fd = new FacultyDirectory();
+		fd.loadFacultyFromFile(validTestFile);
+		assertEquals("[nbrady, bbrewer, ebriggs]", ids(fd.findFacultyByName("BR", 0, 5)));
+		assertEquals("[bbrewer]", ids(fd.findFacultyByName("br", 1, 1)));
+		assertEquals("[ebriggs]", ids(fd.findFacultyByName("br", 2, 1)));
+		assertEquals("[]", ids(fd.findFacultyByName("br", 3, 1)));
+		assertEquals("[]", ids(fd.findFacultyByName("x", 0, 5)));
+
+		assertTrue(fd.removeFaculty("bbrewer"));
+		assertTrue(fd.addFaculty("Brianna", "Witt", "bwitt", "bwitt@ncsu.edu", "pw", "pw", 2));
+		assertEquals("[nbrady, bwitt, ebriggs]", ids(fd.findFacultyByName("br", 0, 5)));
+		assertThrows(IllegalArgumentException.class, () -> fd.findFacultyByName("br", 0, 0));
+	}
+
+	/**
+	 * Tests FacultyDirectory.importFaculty() against adding the same faculty one
+	 * at a time.
+	 */
+	@Test
+	void testImportFaculty() {
+		FacultyDirectory fd = new FacultyDirectory();
+		FacultyDirectory expected = new FacultyDirectory();
+		fd.loadFacultyFromFile(validTestFile);
+		expected.loadFacultyFromFile(validTestFile);
+		List<String[]> rows = new ArrayList<String[]>();
+		for (int i = 0; i < 300; i++) {
+			rows.add(new String[] { "First" + i, "Last" + i, "f" + i, "f" + i + "@ncsu.edu", "pw" + i, "pw" + i,
+					"" + (i % 3 + 1) });
+			expected.addFaculty("First" + i, "Last" + i, "f" + i, "f" + i + "@ncsu.edu", "pw" + i, "pw" + i,
+					i % 3 + 1);
+		}
+		rows.add(new String[] { "Dup", "Row", "f7", "dup@ncsu.edu", "pw", "pw", "1" });
+		rows.add(new String[] { "Dup", "File", "awitt", "dup@ncsu.edu", "pw", "pw", "1" });
+		rows.add(new String[] { "Too", "Many", "tmany", "tmany@ncsu.edu", "pw", "pw", "4" });
+		rows.add(new String[] { "No", "Number", "nnum", "nnum@ncsu.edu", "pw", "pw", null });
+		rows.add(new String[] { "No", "Password", "npw", "npw@ncsu.edu", "", "", "1" });
+
+		List<ImportResult> results = fd.importFaculty(rows);
+		assertEquals(305, results.size());
+		for (int i = 0; i < 300; i++) {
+			assertTrue(results.get(i).isAdded());
+			assertEquals(i, results.get(i).getRow());
+		}
+		assertEquals("[300,f7,Duplicate id, 301,awitt,Duplicate id, 302,tmany,Invalid max courses, "
+				+ "303,nnum,Invalid max courses, 304,npw,Invalid password]",
+				results.subList(300, 305).toString());
+		assertEquals(expected.getFacultyList().toString(), fd.getFacultyList().toString());
+		assertEquals("Last7", fd.getFacultyById("f7").getLastName());
+		assertEquals("[f12]", ids(fd.findFacultyByName("last12", 0, 1)));
+	}
+
+	/**
+	 * Returns the ids of the Faculty.
+	 * @param faculty the Faculty
+	 * @return the ids, in order
+	 */
+	private static String ids(List<Faculty> faculty) {
+		List<String> ids = new ArrayList<String>();
+		for (Faculty f : faculty) {
+			ids.add(f.getId());
+		}
+		return ids.toString();
 	}
 	
 	/**
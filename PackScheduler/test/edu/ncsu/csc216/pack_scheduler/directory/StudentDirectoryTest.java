@@ -8,11 +8,16 @@ import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 import org.junit.Before;
 import org.junit.jupiter.api.Test;
 
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
 
 
 /**
@@ -161,6 +166,167 @@ public class StudentDirectoryTest {
 		assertEquals("zking", studentDirectory[5][2]);
 	}
 
+	/**
+	 * Tests that a large student file, with duplicate ids and students out of
+	 * order, loads in near-linear time. Loading one student at a time into a
+	 * SortedList took minutes for this many students.
+	 * 
+	 * @throws IOException if the file cannot be written
+	 */
+	@Test
+	public void testLoadLargeFile() throws IOException {
+		int count = 100000;
+		StringBuilder records = new StringBuilder();
+		for (int i = 0; i < count + 1000; i++) {
+			int n = (i * 7919) % count;
+			records.append("First" + n + ",Last" + (n % 997) + ",id" + n + ",id" + n + "@ncsu.edu,pw," + (n % 16 + 3))
+					.append('\n');
+		}
+		Path file = Files.createTempFile("students", ".txt");
+		try {
+			Files.write(file, records.toString().getBytes());
+			StudentDirectory sd = new StudentDirectory();
+			assertTimeoutPreemptively(Duration.ofSeconds(30), () -> sd.loadStudentsFromFile(file.toString()));
+
+			List<Student> students = sd.getStudentList();
+			assertEquals(count, students.size());
+			for (int i = 1; i < students.size(); i++) {
+				assertTrue(students.get(i - 1).compareTo(students.get(i)) < 0);
+			}
+			assertEquals("Last" + (1234 % 997), sd.getStudentById("id1234").getLastName());
+			assertTrue(sd.removeStudent("id1234"));
+			assertNull(sd.getStudentById("id1234"));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	/**
+	 * Tests that StudentDirectory.getStudentById() finds students after each way
+	 * the directory can change.
+	 */
+	@Test
+	public void testGetStudentById() {
+		StudentDirectory sd = new StudentDirectory();
+		assertNull(sd.getStudentById("efrost"));
+		sd.loadStudentsFromFile(validTestFile);
+		assertEquals("Emerald", sd.getStudentById("efrost").getFirstName());
+		assertNull(sd.getStudentById(ID));
+
+		assertTrue(sd.addStudent(FIRST_NAME, LAST_NAME, ID, EMAIL, PASSWORD, PASSWORD, MAX_CREDITS));
+		assertFalse(sd.addStudent("Other", "Name", ID, "other@ncsu.edu", PASSWORD, PASSWORD, MAX_CREDITS));
+		assertEquals(FIRST_NAME, sd.getStudentById(ID).getFirstName());
+
+		assertTrue(sd.removeStudent("efrost"));
+		assertFalse(sd.removeStudent("efrost"));
+		assertNull(sd.getStudentById("efrost"));
+		assertEquals(10, sd.getStudentDirectory().length);
+		for (String[] row : sd.getStudentDirectory()) {
+			assertEquals(row[2], sd.getStudentById(row[2]).getId());
+		}
+
+		sd.newStudentDirectory();
+		assertNull(sd.getStudentById(ID));
+		assertTrue(sd.addStudent(FIRST_NAME, LAST_NAME, ID, EMAIL, PASSWORD, PASSWORD, MAX_CREDITS));
+	}
+
+	/**
+	 * Tests StudentDirectory.findStudentsByName().
+	 */
+	@Test
+	public void testFindStudentsByName() {
+		StudentDirectory sd = new StudentDirectory();
+		assertEquals(0, sd.findStudentsByName("s", 0, 10).size());
+		sd.loadStudentsFromFile(validTestFile);
+		assertEquals("[cschwartz, shansen, gstone]", ids(sd.findStudentsByName("s", 0, 10)));
+		assertEquals("[cschwartz, shansen]", ids(sd.findStudentsByName("S", 0, 2)));
+		assertEquals("[gstone]", ids(sd.findStudentsByName("S", 1, 2)));
+		assertEquals("[]", ids(sd.findStudentsByName("S", 2, 2)));
+		assertEquals(10, sd.findStudentsByName("", 0, 100).size());
+
+		assertTrue(sd.addStudent(FIRST_NAME, LAST_NAME, ID, EMAIL, PASSWORD, PASSWORD, MAX_CREDITS));
+		assertEquals("[gstone, sdent]", ids(sd.findStudentsByName("sT", 0, 10)));
+		assertEquals("[sdent]", ids(sd.findStudentsByName("dEN", 0, 10)));
+		assertTrue(sd.removeStudent("gstone"));
+		assertEquals("[sdent]", ids(sd.findStudentsByName("st", 0, 10)));
+
+		assertThrows(IllegalArgumentException.class, () -> sd.findStudentsByName(null, 0, 10));
+		assertThrows(IllegalArgumentException.class, () -> sd.findStudentsByName("s", -1, 10));
+		assertThrows(IllegalArgumentException.class, () -> sd.findStudentsByName("s", 0, 0));
+		sd.newStudentDirectory();
+		assertEquals("[]", ids(sd.findStudentsByName("st", 0, 10)));
+	}
+
+	/**
+	 * Tests StudentDirectory.importStudents() against adding the same students
+	 * one at a time.
+	 */
+	@Test
+	public void testImportStudents() {
+		StudentDirectory sd = new StudentDirectory();
+		sd.loadStudentsFromFile(validTestFile);
+		List<String[]> rows = new ArrayList<String[]>();
+		rows.add(new String[] { "Ann", "Zeta", "azeta", "azeta@ncsu.edu", PASSWORD, PASSWORD, "15" });
+		rows.add(new String[] { "Zed", "King", "zking", "zed@ncsu.edu", PASSWORD, PASSWORD, "15" });
+		rows.add(new String[] { "Ann", "Other", "azeta", "other@ncsu.edu", PASSWORD, PASSWORD, "15" });
+		rows.add(new String[] { "Bo", "Mismatch", "bmis", "bmis@ncsu.edu", PASSWORD, "other", "15" });
+		rows.add(new String[] { "Cy", "Email", "cemail", "cemail", PASSWORD, PASSWORD, "15" });
+		rows.add(new String[] { "Di", "Max", "dmax", "dmax@ncsu.edu", PASSWORD, PASSWORD, "x" });
+		rows.add(null);
+		rows.add(new String[] { "Ed", "Short" });
+		rows.add(new String[] { "Al", "Abbot", "aabbot", "aabbot@ncsu.edu", PASSWORD, PASSWORD, "30" });
+		assertEquals("[0,azeta,added, 1,zking,Duplicate id, 2,azeta,Duplicate id, 3,bmis,Passwords do not match, "
+				+ "4,cemail,Invalid email, 5,dmax,Invalid max credits, 6,null,Invalid row, 7,null,Invalid row, "
+				+ "8,aabbot,added]", sd.importStudents(rows).toString());
+
+		StudentDirectory expected = new StudentDirectory();
+		expected.loadStudentsFromFile(validTestFile);
+		expected.addStudent("Ann", "Zeta", "azeta", "azeta@ncsu.edu", PASSWORD, PASSWORD, 15);
+		expected.addStudent("Al", "Abbot", "aabbot", "aabbot@ncsu.edu", PASSWORD, PASSWORD, 30);
+		assertEquals(toString(expected), toString(sd));
+		assertEquals("[aabbot]", ids(sd.findStudentsByName("ab", 0, 10)));
+
+		// enough rows to be split into several batches
+		rows.clear();
+		for (int i = 0; i < 1000; i++) {
+			String id = "bulk" + (i * 7 % 1000);
+			rows.add(new String[] { "First" + i, "Last" + (i * 31 % 97), id, id + "@ncsu.edu", PASSWORD + i,
+					PASSWORD + i, "" + (i % 20) });
+			expected.addStudent("First" + i, "Last" + (i * 31 % 97), id, id + "@ncsu.edu", PASSWORD + i,
+					PASSWORD + i, i % 20);
+		}
+		for (ImportResult result : sd.importStudents(rows)) {
+			assertTrue(result.isAdded());
+		}
+		assertEquals(toString(expected), toString(sd));
+		assertThrows(IllegalArgumentException.class, () -> sd.importStudents(null));
+	}
+
+	/**
+	 * Returns every student in the directory as text, including their hashed
+	 * password.
+	 * 
+	 * @param sd the directory
+	 * @return the students, in directory order
+	 */
+	private static String toString(StudentDirectory sd) {
+		return sd.getStudentList().toString();
+	}
+
+	/**
+	 * Returns the ids of the students.
+	 * 
+	 * @param students the students
+	 * @return the ids, in order
+	 */
+	private static String ids(List<Student> students) {
+		List<String> ids = new ArrayList<String>();
+		for (Student s : students) {
+			ids.add(s.getId());
+		}
+		return ids.toString();
+	}
+
 	/**
 	 * Tests StudentDirectory.saveStudentDirectory().
 	 */
@@ -6,6 +6,7 @@ import org.junit.Before;
 import org.junit.jupiter.api.Test;
 
 import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.user.Faculty;
 import edu.ncsu.csc217.collections.list.SortedList;
 
 import java.io.File;
@@ -14,6 +15,9 @@ import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -94,6 +98,93 @@ public class CourseRecordIOTest {
 		}
 	}
 
+	/**
+	 * Tests readCourseList(), which keeps every valid line in file order.
+	 */
+	@Test
+	public void testReadCourseList() {
+		try {
+			List<Course> courses = CourseRecordIO.readCourseList(validTestFile);
+			assertEquals(14, courses.size());
+			assertEquals(validCourse1, courses.get(0).toString());
+			assertEquals("CSC116", courses.get(3).getName());
+			assertEquals("002", courses.get(3).getSection());
+			assertEquals(validCourse13, courses.get(13).toString());
+			
+			assertEquals(0, CourseRecordIO.readCourseList(invalidTestFile).size());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading " + validTestFile);
+		}
+		assertThrows(FileNotFoundException.class, () -> CourseRecordIO.readCourseList("test-files/no_such_file.txt"));
+	}
+
+	/**
+	 * Tests readCourseList() with faculty, which links instructors after the whole
+	 * file is read and reports the ones it could not link.
+	 */
+	@Test
+	public void testReadCourseListWithFaculty() {
+		Faculty sesmith5 = new Faculty("Sarah", "Heckman", "sesmith5", "sesmith5@ncsu.edu", "pw", 3);
+		Faculty jdyoung2 = new Faculty("Jason", "Young", "jdyoung2", "jdyoung2@ncsu.edu", "pw", 2);
+		// jdyoung2 already teaches a course at the same time as CSC116-001
+		jdyoung2.getSchedule().addCourseToSchedule(new Course("CSC246", "Operating Systems", "001", 3, null, 10, "MW", 900, 1000));
+
+		try {
+			CourseLoadSummary summary = CourseRecordIO.readCourseList(validTestFile, Arrays.asList(sesmith5, jdyoung2));
+			List<Course> courses = summary.getCourses();
+			assertEquals(13, courses.size());
+			assertEquals("MW", courses.get(1).getMeetingDays());
+			assertEquals("sesmith5", courses.get(6).getInstructorId());
+			assertNull(courses.get(0).getInstructorId());
+			assertNull(courses.get(1).getInstructorId());
+
+			assertEquals(5, summary.getAssignedCount());
+			assertEquals(5, sesmith5.getSchedule().getNumScheduledCourses());
+			assertEquals(1, jdyoung2.getSchedule().getNumScheduledCourses());
+			assertEquals(1, summary.getRejectedAssignments().size());
+			assertSame(courses.get(0), summary.getRejectedAssignments().get(0));
+
+			assertEquals(Arrays.asList("spbalik", "tbdimitr", "ixdoming", "jctetter", "tmbarnes", "dbsturgi", "jtking"),
+					new ArrayList<String>(summary.getUnresolvedInstructors().keySet()));
+			assertEquals(1, summary.getUnresolvedInstructors().get("jtking").size());
+			assertEquals("CSC316", summary.getUnresolvedInstructors().get("jtking").get(0).getName());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading " + validTestFile);
+		}
+	}
+
+	/**
+	 * Tests that Courses saved without an instructor, which are written with the
+	 * instructor id "null", are read back without one instead of being reported
+	 * as unresolved.
+	 * 
+	 * @throws IOException if the test file cannot be written
+	 */
+	@Test
+	public void testReadCourseListWithoutInstructor() throws IOException {
+		Path file = Files.createTempFile("courses", ".txt");
+		try {
+			List<Course> saved = new ArrayList<Course>();
+			saved.add(new Course("CSC116", "Intro to Programming - Java", "001", 3, null, 10, "MW", 910, 1100));
+			saved.add(new Course("CSC216", "Software Development Fundamentals", "601", 3, null, 10, "A"));
+			saved.add(new Course("CSC226", "Discrete Mathematics for Computer Scientists", "001", 3, "sesmith5", 10,
+					"MWF", 935, 1025));
+			CourseRecordIO.writeCourseRecords(file.toString(), saved);
+			assertTrue(new String(Files.readAllBytes(file)).contains(",null,"));
+
+			Faculty sesmith5 = new Faculty("Sarah", "Heckman", "sesmith5", "sesmith5@ncsu.edu", "pw", 3);
+			CourseLoadSummary summary = CourseRecordIO.readCourseList(file.toString(), Arrays.asList(sesmith5));
+			assertEquals(3, summary.getCourses().size());
+			assertNull(summary.getCourses().get(0).getInstructorId());
+			assertNull(summary.getCourses().get(1).getInstructorId());
+			assertEquals("sesmith5", summary.getCourses().get(2).getInstructorId());
+			assertEquals(1, summary.getAssignedCount());
+			assertTrue(summary.getUnresolvedInstructors().isEmpty());
+		} finally {
+			Files.delete(file);
+		}
+	}
+
 	/**
 	 * Tests readInvalidCourseRecords().
 	 */
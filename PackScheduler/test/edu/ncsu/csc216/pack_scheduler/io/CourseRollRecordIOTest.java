@@ -0,0 +1,161 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Tests CourseRollRecordIO.
+ *
+ * @author Will Pressler
+ *
+ */
+public class CourseRollRecordIOTest {
+
+	/** Roll file used by each test */
+	private Path file;
+
+	/**
+	 * Creates an empty roll file.
+	 *
+	 * @throws IOException if the file cannot be created
+	 */
+	@BeforeEach
+	public void setUp() throws IOException {
+		file = Files.createTempFile("rolls", ".txt");
+	}
+
+	/**
+	 * Deletes the roll file.
+	 *
+	 * @throws IOException if the file cannot be deleted
+	 */
+	@AfterEach
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * Tests that rolls, waitlists, and schedules are the same after being written
+	 * and read back into freshly loaded courses and students.
+	 *
+	 * @throws IOException if a file cannot be read or written
+	 */
+	@Test
+	public void testRoundTrip() throws IOException {
+		List<Course> courses = CourseRecordIO.readCourseList("test-files/course_records.txt");
+		List<Student> students = students();
+		Course csc216 = find(courses, "CSC216", "001");
+		for (Student s : students) {
+			csc216.getCourseRoll().enroll(s);
+		}
+		Course csc116 = find(courses, "CSC116", "001");
+		csc116.getCourseRoll().enroll(students.get(3));
+		csc116.getCourseRoll().enroll(students.get(0));
+		CourseRollRecordIO.writeRollRecords(file.toString(), courses);
+
+		List<String> lines = Files.readAllLines(file);
+		assertEquals(2, lines.size());
+		assertEquals("CSC116,001,2," + students.get(3).getId() + "," + students.get(0).getId(), lines.get(0));
+
+		List<Course> reloadedCourses = CourseRecordIO.readCourseList("test-files/course_records.txt");
+		List<Student> reloadedStudents = students();
+		assertEquals(14, CourseRollRecordIO.readRollRecords(file.toString(), reloadedCourses, reloadedStudents));
+		for (int i = 0; i < courses.size(); i++) {
+			assertEquals(ids(courses.get(i).getCourseRoll().getEnrolledStudents()),
+					ids(reloadedCourses.get(i).getCourseRoll().getEnrolledStudents()));
+			assertEquals(ids(courses.get(i).getCourseRoll().getWaitlistedStudents()),
+					ids(reloadedCourses.get(i).getCourseRoll().getWaitlistedStudents()));
+		}
+		assertEquals(2, reloadedStudents.get(0).getSchedule().getCourses().size());
+		assertEquals(0, reloadedStudents.get(students.size() - 1).getSchedule().getCourses().size());
+	}
+
+	/**
+	 * Tests that invalid lines, unknown courses, and unknown or repeated ids are
+	 * skipped.
+	 *
+	 * @throws IOException if a file cannot be read or written
+	 */
+	@Test
+	public void testInvalidLines() throws IOException {
+		Files.write(file, Arrays.asList("CSC216,001,2,zking,nobody,zking,cschwartz", "CSC999,001,1,zking",
+				"CSC116,001,3,zking", "CSC116,002,x,zking", "", "CSC226,001,1,shansen,zking,cschwartz,daustin,"
+						+ "rbrennan,efrost,lberg,gstone,ahicks,dnolan,zking"));
+		List<Course> courses = CourseRecordIO.readCourseList("test-files/course_records.txt");
+		List<Student> students = students();
+		assertEquals(12, CourseRollRecordIO.readRollRecords(file.toString(), courses, students));
+
+		Course csc216 = find(courses, "CSC216", "001");
+		assertEquals(Arrays.asList("zking"), ids(csc216.getCourseRoll().getEnrolledStudents()));
+		assertEquals(Arrays.asList("cschwartz"), ids(csc216.getCourseRoll().getWaitlistedStudents()));
+		assertEquals(9, find(courses, "CSC226", "001").getCourseRoll().getNumberOnWaitlist());
+
+		assertThrows(FileNotFoundException.class,
+				() -> CourseRollRecordIO.readRollRecords("test-files/no_such_file.txt", courses, students));
+	}
+
+	/**
+	 * Returns the Course with the given name and section.
+	 *
+	 * @param courses the Courses to search
+	 * @param name    the name of the Course
+	 * @param section the section of the Course
+	 * @return the Course
+	 */
+	private static Course find(List<Course> courses, String name, String section) {
+		for (Course c : courses) {
+			if (c.getName().equals(name) && c.getSection().equals(section)) {
+				return c;
+			}
+		}
+		throw new AssertionError(name + "-" + section);
+	}
+
+	/**
+	 * Reads the students of the student records test file, in file order, and
+	 * adds two more so a course of ten can have a waitlist.
+	 *
+	 * @return the students
+	 * @throws FileNotFoundException if the file is missing
+	 */
+	private static List<Student> students() throws FileNotFoundException {
+		RecordTokenizer fileReader = new RecordTokenizer(
+				new InputStreamReader(new FileInputStream("test-files/student_records.txt")));
+		List<Student> students = StudentRecordIO.readStudents(fileReader);
+		fileReader.close();
+		students.add(new Student("Extra", "One", "extra1", "extra1@ncsu.edu", "pw"));
+		students.add(new Student("Extra", "Two", "extra2", "extra2@ncsu.edu", "pw"));
+		return students;
+	}
+
+	/**
+	 * Returns the id of each student.
+	 *
+	 * @param students the students
+	 * @return the ids, in order
+	 */
+	private static List<String> ids(List<Student> students) {
+		List<String> ids = new ArrayList<String>();
+		for (Student s : students) {
+			ids.add(s.getId());
+		}
+		return ids;
+	}
+}
@@ -0,0 +1,162 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import static edu.ncsu.csc216.pack_scheduler.io.RecordLoaderFixtures.strings;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.io.RecordLoaderFixtures.MixedFiles;
+import edu.ncsu.csc216.pack_scheduler.user.Faculty;
+import edu.ncsu.csc216.pack_scheduler.util.LinkedList;
+
+/**
+ * Tests ParallelRecordLoader against the serial record readers.
+ *
+ * @author Will Pressler
+ *
+ */
+public class ParallelRecordLoaderTest {
+
+	/**
+	 * Tests that the record files in test-files load the same in parallel, even
+	 * when split into as many chunks as possible.
+	 *
+	 * @throws FileNotFoundException if a test file is missing
+	 */
+	@Test
+	public void testTestFiles() throws FileNotFoundException {
+		String[] courseFiles = { "test-files/course_records.txt", "test-files/invalid_course_records.txt",
+				"test-files/starter_course_records.txt" };
+		for (String file : courseFiles) {
+			assertCoursesMatch(file);
+		}
+		String[] studentFiles = { "test-files/student_records.txt", "test-files/invalid_student_records.txt" };
+		for (String file : studentFiles) {
+			assertStudentsMatch(file, 1);
+		}
+		String[] facultyFiles = { "test-files/faculty_records.txt", "test-files/invalid_faculty_records.txt" };
+		for (String file : facultyFiles) {
+			assertFacultyMatch(file, 1);
+		}
+	}
+
+	/**
+	 * Tests a larger file with mixed line breaks, blank and invalid lines, and
+	 * duplicate records split into many chunks.
+	 *
+	 * @throws IOException if the temporary files cannot be written
+	 */
+	@Test
+	public void testManyChunks() throws IOException {
+		try (MixedFiles files = new MixedFiles(true)) {
+			for (int chunkSize : new int[] { 1, 100, 4096 }) {
+				assertStudentsMatch(files.students.toString(), chunkSize);
+				assertFacultyMatch(files.faculty.toString(), chunkSize);
+			}
+			assertCoursesMatch(files.courses.toString());
+		}
+	}
+
+	/**
+	 * Tests that a small file is read into a heap buffer, which does not keep the
+	 * file from being replaced the way RecordWriter saves it, and that a file at
+	 * least the map size is mapped with the same contents.
+	 *
+	 * @throws IOException if the temporary files cannot be written
+	 */
+	@Test
+	public void testReadFile() throws IOException {
+		try (MixedFiles files = new MixedFiles(false)) {
+			String file = files.students.toString();
+			byte[] expected = Files.readAllBytes(files.students);
+			ByteBuffer read = ParallelRecordLoader.readFile(file, ParallelRecordLoader.MAP_SIZE);
+			assertFalse(read.isDirect());
+			assertEquals(ByteBuffer.wrap(expected), read);
+			Path replacement = Files.createTempFile(files.students.getParent(), "records", ".tmp");
+			Files.move(replacement, files.students, StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+			assertEquals(0, ParallelRecordLoader.readFile(file, ParallelRecordLoader.MAP_SIZE).limit());
+
+		}
+		// a fixture that is never replaced or deleted, since a mapped file cannot be
+		// on Windows
+		Path fixture = Paths.get("test-files/student_records.txt");
+		byte[] expected = Files.readAllBytes(fixture);
+		ByteBuffer mapped = ParallelRecordLoader.readFile(fixture.toString(), expected.length);
+		assertTrue(mapped.isDirect());
+		assertEquals(ByteBuffer.wrap(expected), mapped);
+	}
+
+	/**
+	 * Tests that a missing file fails the same way as the serial readers.
+	 */
+	@Test
+	public void testMissingFile() {
+		String file = "test-files/no_such_file.txt";
+		Exception e = assertThrows(FileNotFoundException.class, () -> ParallelRecordLoader.readStudentRecords(file));
+		assertEquals("Unable to write to file " + file, e.getMessage());
+		e = assertThrows(FileNotFoundException.class, () -> ParallelRecordLoader.readFacultyRecords(file));
+		assertEquals("Unable to write to file " + file, e.getMessage());
+		assertThrows(FileNotFoundException.class, () -> ParallelRecordLoader.readCourseList(file));
+	}
+
+	/**
+	 * Asserts that the Courses and instructor ids read in parallel match the ones
+	 * read serially.
+	 *
+	 * @param file the file to read
+	 * @throws FileNotFoundException if the file is missing
+	 */
+	private static void assertCoursesMatch(String file) throws FileNotFoundException {
+		List<String> expectedIds = new ArrayList<String>();
+		RecordTokenizer fileReader = new RecordTokenizer(new InputStreamReader(new FileInputStream(file)));
+		List<Course> expected = CourseRecordIO.readCourses(fileReader, expectedIds);
+		fileReader.close();
+		for (int chunkSize : new int[] { 1, 100, ParallelRecordLoader.MIN_CHUNK_SIZE }) {
+			ParallelRecordLoader.CourseChunk actual = ParallelRecordLoader.readCourseChunks(file, chunkSize);
+			assertEquals(strings(expected), strings(actual.courses), file);
+			assertEquals(expectedIds, actual.instructorIds, file);
+		}
+		assertEquals(strings(CourseRecordIO.readCourseList(file)), strings(ParallelRecordLoader.readCourseList(file)));
+	}
+
+	/**
+	 * Asserts that the Students read in parallel match the ones read serially.
+	 *
+	 * @param file      the file to read
+	 * @param chunkSize smallest number of bytes in a chunk
+	 * @throws FileNotFoundException if the file is missing
+	 */
+	private static void assertStudentsMatch(String file, int chunkSize) throws FileNotFoundException {
+		RecordLoaderFixtures.assertStudentsMatch(file, ParallelRecordLoader.readStudentRecords(file, chunkSize));
+	}
+
+	/**
+	 * Asserts that the Faculty read in parallel match the ones read serially.
+	 *
+	 * @param file      the file to read
+	 * @param chunkSize smallest number of bytes in a chunk
+	 * @throws FileNotFoundException if the file is missing
+	 */
+	private static void assertFacultyMatch(String file, int chunkSize) throws FileNotFoundException {
+		LinkedList<Faculty> expected = FacultyRecordIO.readFacultyRecords(file);
+		LinkedList<Faculty> actual = ParallelRecordLoader.readFacultyRecords(file, chunkSize);
+		assertEquals(strings(expected), strings(actual), file);
+	}
+}
@@ -0,0 +1,122 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import static edu.ncsu.csc216.pack_scheduler.io.RecordLoaderFixtures.strings;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.io.RecordLoaderFixtures.MixedFiles;
+
+/**
+ * Tests PipelinedRecordLoader against the serial record readers.
+ *
+ * @author Will Pressler
+ *
+ */
+public class PipelinedRecordLoaderTest {
+
+	/**
+	 * Tests that the record files in test-files load the same through the
+	 * pipeline, with batches as small as one character.
+	 *
+	 * @throws FileNotFoundException if a test file is missing
+	 */
+	@Test
+	public void testTestFiles() throws FileNotFoundException {
+		for (PipelinedRecordLoader loader : loaders()) {
+			for (String file : new String[] { "test-files/course_records.txt", "test-files/invalid_course_records.txt",
+					"test-files/starter_course_records.txt" }) {
+				assertEquals(strings(CourseRecordIO.readCourseList(file)), strings(loader.readCourseList(file)), file);
+			}
+			for (String file : new String[] { "test-files/student_records.txt",
+					"test-files/invalid_student_records.txt" }) {
+				assertStudentsMatch(loader, file);
+			}
+			for (String file : new String[] { "test-files/faculty_records.txt",
+					"test-files/invalid_faculty_records.txt" }) {
+				assertEquals(strings(FacultyRecordIO.readFacultyRecords(file)),
+						strings(loader.readFacultyRecords(file)), file);
+			}
+		}
+	}
+
+	/**
+	 * Tests a larger file with mixed line breaks, blank and invalid lines, and
+	 * duplicate records, and the statistics of the load.
+	 *
+	 * @throws IOException if the temporary files cannot be written
+	 */
+	@Test
+	public void testManyBatches() throws IOException {
+		try (MixedFiles files = new MixedFiles(false)) {
+			for (PipelinedRecordLoader loader : loaders()) {
+				assertStudentsMatch(loader, files.students.toString());
+				LoadStatistics statistics = loader.getStatistics();
+				assertEquals(files.lines, statistics.getLineCount());
+				assertEquals(StudentRecordIO.readStudentRecords(files.students.toString()).size(),
+						statistics.getRecordCount());
+				assertTrue(statistics.getElapsedNanos() > 0);
+				assertTrue(statistics.getLinesPerSecond() > 0);
+
+				assertEquals(strings(FacultyRecordIO.readFacultyRecords(files.faculty.toString())),
+						strings(loader.readFacultyRecords(files.faculty.toString())));
+				assertEquals(strings(CourseRecordIO.readCourseList(files.courses.toString())),
+						strings(loader.readCourseList(files.courses.toString())));
+			}
+		}
+	}
+
+	/**
+	 * Tests that a missing file fails the same way as the serial readers, and
+	 * that a loader cannot be created without a stage.
+	 */
+	@Test
+	public void testMissingFile() {
+		String file = "test-files/no_such_file.txt";
+		PipelinedRecordLoader loader = new PipelinedRecordLoader();
+		Exception e = assertThrows(FileNotFoundException.class, () -> loader.readStudentRecords(file));
+		assertEquals("Unable to write to file " + file, e.getMessage());
+		e = assertThrows(FileNotFoundException.class, () -> loader.readFacultyRecords(file));
+		assertEquals("Unable to write to file " + file, e.getMessage());
+		assertThrows(FileNotFoundException.class, () -> loader.readCourseList(file));
+		assertNull(loader.getStatistics());
+
+		assertThrows(IllegalArgumentException.class, () -> new PipelinedRecordLoader(0, 1));
+		assertThrows(IllegalArgumentException.class, () -> new PipelinedRecordLoader(1, 0));
+	}
+
+	/**
+	 * Returns loaders with different numbers of parsers, queue sizes, and batch
+	 * sizes.
+	 *
+	 * @return the loaders to test
+	 */
+	private static List<PipelinedRecordLoader> loaders() {
+		List<PipelinedRecordLoader> loaders = new ArrayList<PipelinedRecordLoader>();
+		loaders.add(new PipelinedRecordLoader(1, 1, 1));
+		loaders.add(new PipelinedRecordLoader(4, 2, 100));
+		loaders.add(new PipelinedRecordLoader(3, 1, 4096));
+		loaders.add(new PipelinedRecordLoader());
+		return loaders;
+	}
+
+	/**
+	 * Asserts that the Students read through the pipeline match the ones read
+	 * serially.
+	 *
+	 * @param loader the loader to read with
+	 * @param file   the file to read
+	 * @throws FileNotFoundException if the file is missing
+	 */
+	private static void assertStudentsMatch(PipelinedRecordLoader loader, String file) throws FileNotFoundException {
+		RecordLoaderFixtures.assertStudentsMatch(file, loader.readStudentRecords(file));
+	}
+}
@@ -0,0 +1,226 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.directory.StudentDirectory;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+import edu.ncsu.csc217.collections.list.SortedList;
+
+/**
+ * Tests RecordChangeLog, through the directory saves and record readers that
+ * use it.
+ *
+ * @author Will Pressler
+ *
+ */
+public class RecordChangeLogTest {
+
+	/** Copy of the student records file used by each test */
+	private Path file;
+	/** Delta file of the copy */
+	private Path delta;
+
+	/**
+	 * Copies the student records file to a temporary file.
+	 *
+	 * @throws IOException if the file cannot be copied
+	 */
+	@BeforeEach
+	public void setUp() throws IOException {
+		file = Files.createTempFile("students", ".txt");
+		delta = Paths.get(file + RecordChangeLog.DELTA_SUFFIX);
+		Files.copy(Paths.get("test-files/student_records.txt"), file, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Deletes the temporary files.
+	 *
+	 * @throws IOException if the files cannot be deleted
+	 */
+	@AfterEach
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+		Files.deleteIfExists(delta);
+	}
+
+	/**
+	 * Tests that saving only the changes leaves the records file alone, and that
+	 * loading the file applies the changes.
+	 *
+	 * @throws IOException if the files cannot be read
+	 */
+	@Test
+	public void testSaveChanges() throws IOException {
+		byte[] original = Files.readAllBytes(file);
+		StudentDirectory directory = new StudentDirectory();
+		directory.loadStudentsFromFile(file.toString());
+		assertTrue(directory.addStudent("Ada", "Lovelace", "alovelace", "ada@ncsu.edu", "pw", "pw", 12));
+		assertTrue(directory.removeStudent("zking"));
+		assertFalse(directory.markStudentChanged("nobody"));
+		assertTrue(directory.saveStudentDirectoryChanges(file.toString()));
+
+		assertTrue(Files.exists(delta));
+		assertEquals(new String(original), new String(Files.readAllBytes(file)));
+		StudentDirectory reloaded = new StudentDirectory();
+		reloaded.loadStudentsFromFile(file.toString());
+		assertEquals(strings(directory.getStudentList()), strings(reloaded.getStudentList()));
+		assertNotNull(reloaded.getStudentById("alovelace"));
+		assertNull(reloaded.getStudentById("zking"));
+
+		// A full save folds the delta file into the records file
+		reloaded.saveStudentDirectory(file.toString());
+		assertFalse(Files.exists(delta));
+		StudentDirectory saved = new StudentDirectory();
+		saved.loadStudentsFromFile(file.toString());
+		assertEquals(strings(directory.getStudentList()), strings(saved.getStudentList()));
+	}
+
+	/**
+	 * Tests that the records file is written again once the delta file grows to
+	 * half its size, and that saving changes to a different file writes every
+	 * record.
+	 *
+	 * @throws IOException if the files cannot be read
+	 */
+	@Test
+	public void testCompaction() throws IOException {
+		StudentDirectory directory = new StudentDirectory();
+		directory.loadStudentsFromFile(file.toString());
+		boolean compacted = false;
+		for (int i = 0; i < 20 && !compacted; i++) {
+			directory.addStudent("First", "Last", "id" + i, "id" + i + "@ncsu.edu", "pw", "pw", 12);
+			compacted = !directory.saveStudentDirectoryChanges(file.toString());
+		}
+		assertTrue(compacted);
+		assertFalse(Files.exists(delta));
+		StudentDirectory reloaded = new StudentDirectory();
+		reloaded.loadStudentsFromFile(file.toString());
+		assertEquals(strings(directory.getStudentList()), strings(reloaded.getStudentList()));
+
+		Path other = Files.createTempFile("students", ".txt");
+		try {
+			assertFalse(directory.saveStudentDirectoryChanges(other.toString()));
+			assertFalse(Files.exists(Paths.get(other + RecordChangeLog.DELTA_SUFFIX)));
+			assertEquals(new String(Files.readAllBytes(file)), new String(Files.readAllBytes(other)));
+		} finally {
+			Files.deleteIfExists(other);
+		}
+	}
+
+	/**
+	 * Tests that the lines of a save cut short by a crash are ignored, and that
+	 * invalid lines are skipped.
+	 *
+	 * @throws IOException if the files cannot be read or written
+	 */
+	@Test
+	public void testTornSave() throws IOException {
+		String newline = System.lineSeparator();
+		Files.write(delta, ("-,zking" + newline + "+,not a student" + newline + "." + newline + "-,cschwartz" + newline
+				+ "+,Ada,Lovelace,alovelace,ada@ncsu.edu,pw,12" + newline).getBytes(), StandardOpenOption.CREATE);
+
+		SortedList<Student> students = StudentRecordIO.readStudentRecords(file.toString());
+		assertEquals(9, students.size());
+		List<String> ids = new ArrayList<String>();
+		for (int i = 0; i < students.size(); i++) {
+			ids.add(students.get(i).getId());
+		}
+		assertFalse(ids.contains("zking"));
+		assertTrue(ids.contains("cschwartz"));
+		assertFalse(ids.contains("alovelace"));
+	}
+
+	/**
+	 * Tests that saving changes after a crash cut a save short drops the torn
+	 * save, instead of appending the new save onto its last line.
+	 *
+	 * @throws IOException if the files cannot be read or written
+	 */
+	@Test
+	public void testSaveAfterTornSave() throws IOException {
+		String newline = System.lineSeparator();
+		Files.write(delta, ("+,Ada,Lovelace,alovelace,ada@ncsu.edu,pw,12" + newline + "." + newline
+				+ "+,Torn,Save,tsave,convallis@").getBytes(), StandardOpenOption.CREATE);
+		StudentDirectory directory = new StudentDirectory();
+		directory.loadStudentsFromFile(file.toString());
+		assertNotNull(directory.getStudentById("alovelace"));
+		assertNull(directory.getStudentById("tsave"));
+
+		assertTrue(directory.addStudent("Grace", "Hopper", "ghopper", "grace@ncsu.edu", "pw", "pw", 12));
+		assertTrue(directory.saveStudentDirectoryChanges(file.toString()));
+		for (String line : Files.readAllLines(delta)) {
+			assertTrue(line.equals(".") || line.startsWith("+,") && !line.contains("tsave"), line);
+		}
+
+		StudentDirectory reloaded = new StudentDirectory();
+		reloaded.loadStudentsFromFile(file.toString());
+		assertEquals(strings(directory.getStudentList()), strings(reloaded.getStudentList()));
+		assertNotNull(reloaded.getStudentById("ghopper"));
+		assertNull(reloaded.getStudentById("tsave"));
+
+		// A torn save with no finished save before it is dropped too
+		Files.write(delta, "+,Torn,Save,tsave,tsave@ncsu.edu,pw".getBytes());
+		assertTrue(reloaded.removeStudent("ghopper"));
+		assertTrue(reloaded.saveStudentDirectoryChanges(file.toString()));
+		assertEquals("-,ghopper" + newline + "." + newline, new String(Files.readAllBytes(delta)));
+	}
+
+	/**
+	 * Tests that a torn save is found and cut off when it is longer than the
+	 * blocks the delta file is read back in, and when the last end of save line
+	 * falls on either side of a block edge.
+	 *
+	 * @throws IOException if the files cannot be read or written
+	 */
+	@Test
+	public void testLongTornSave() throws IOException {
+		String newline = System.lineSeparator();
+		String finished = "-,nobody" + newline + "." + newline;
+		StringBuilder pattern = new StringBuilder();
+		while (pattern.length() < 3 * RecordChangeLog.SCAN_BLOCK) {
+			// dots that are not on a line of their own do not end a save
+			pattern.append("+,a.b\nx.\n");
+		}
+		int block = RecordChangeLog.SCAN_BLOCK;
+		for (int tail : new int[] { 1, block - 3, block - 2, block - 1, block, block + 1, 3 * block - 1 }) {
+			Files.write(delta, (finished + pattern.substring(0, tail)).getBytes());
+			StudentDirectory directory = new StudentDirectory();
+			directory.loadStudentsFromFile(file.toString());
+			assertTrue(directory.addStudent("Grace", "Hopper", "ghopper", "grace@ncsu.edu", "pw", "pw", 12));
+			assertTrue(directory.saveStudentDirectoryChanges(file.toString()), "tail " + tail);
+			assertEquals(finished + "+," + directory.getStudentById("ghopper") + newline + "." + newline,
+					new String(Files.readAllBytes(delta)), "tail " + tail);
+		}
+	}
+
+	/**
+	 * Returns the string of each record.
+	 *
+	 * @param records the records
+	 * @return the strings of the records, in order
+	 */
+	private static List<String> strings(List<?> records) {
+		List<String> strings = new ArrayList<String>();
+		for (Object record : records) {
+			strings.add(record.toString());
+		}
+		return strings;
+	}
+}
@@ -0,0 +1,144 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+import edu.ncsu.csc217.collections.list.SortedList;
+
+/**
+ * Record files and checks shared by the tests of the parallel and pipelined
+ * record loaders, which both compare what they load with the serial readers.
+ *
+ * @author Will Pressler
+ *
+ */
+final class RecordLoaderFixtures {
+
+	/** Line breaks the generated files cycle through, including a blank line */
+	private static final String[] LINE_BREAKS = { "\n", "\r\n", "\r", "\n\n" };
+	/** Number of records in each generated file */
+	private static final int RECORDS = 2000;
+
+	/**
+	 * The fixtures only have static methods, so they cannot be constructed.
+	 */
+	private RecordLoaderFixtures() {
+		// no instances
+	}
+
+	/**
+	 * Student, faculty, and course files with mixed line breaks, blank lines,
+	 * and duplicate ids, deleted when closed.
+	 */
+	static final class MixedFiles implements Closeable {
+
+		/** The student records file */
+		final Path students;
+		/** The faculty records file */
+		final Path faculty;
+		/** The course records file */
+		final Path courses;
+		/** Number of lines in each file, counting blank ones */
+		final int lines;
+
+		/**
+		 * Writes the files.
+		 *
+		 * @param invalidLines whether to add an invalid line to each file every 97
+		 *                     records
+		 * @throws IOException if the files cannot be written
+		 */
+		MixedFiles(boolean invalidLines) throws IOException {
+			StringBuilder studentText = new StringBuilder();
+			StringBuilder facultyText = new StringBuilder();
+			StringBuilder courseText = new StringBuilder();
+			int count = 0;
+			for (int i = 0; i < RECORDS; i++) {
+				String lineBreak = LINE_BREAKS[i % LINE_BREAKS.length];
+				int breakLines = "\n\n".equals(lineBreak) ? 2 : 1;
+				int id = i % 1500;
+				studentText.append("First" + i + ",Last" + (i * 7919 % 1000) + ",id" + id + ",e" + i
+						+ "@ncsu.edu,pw," + (i % 19)).append(lineBreak);
+				facultyText.append("First" + i + ",Last" + i + ",fid" + id + ",f" + i + "@ncsu.edu,pw," + (i % 4 + 1))
+						.append(lineBreak);
+				courseText.append("CSC" + (100 + i % 800) + ",Title " + i + ",00" + (i % 3) + ",3,fid" + id + ",10,"
+						+ (i % 5 == 0 ? "A" : "MW,1000,1100")).append(lineBreak);
+				count += breakLines;
+				if (invalidLines && i % 97 == 0) {
+					studentText.append("not,a,student").append(lineBreak);
+					facultyText.append("not,a,faculty,line").append(lineBreak);
+					courseText.append("CSC216,not a course").append(lineBreak);
+					count += breakLines;
+				}
+			}
+			students = write(studentText);
+			faculty = write(facultyText);
+			courses = write(courseText);
+			lines = count;
+		}
+
+		/**
+		 * Deletes the files.
+		 *
+		 * @throws IOException if a file cannot be deleted
+		 */
+		@Override
+		public void close() throws IOException {
+			Files.delete(students);
+			Files.delete(faculty);
+			Files.delete(courses);
+		}
+	}
+
+	/**
+	 * Writes the text to a temporary file.
+	 *
+	 * @param text the text to write
+	 * @return the path of the file
+	 * @throws IOException if the file cannot be written
+	 */
+	static Path write(StringBuilder text) throws IOException {
+		Path file = Files.createTempFile("records", ".txt");
+		Files.write(file, text.toString().getBytes(Charset.defaultCharset()));
+		return file;
+	}
+
+	/**
+	 * Asserts that the Students a loader read from a file match the ones read
+	 * serially by StudentRecordIO.
+	 *
+	 * @param file   the file the Students were read from
+	 * @param actual the Students the loader read
+	 * @throws FileNotFoundException if the file is missing
+	 */
+	static void assertStudentsMatch(String file, List<Student> actual) throws FileNotFoundException {
+		SortedList<Student> expected = StudentRecordIO.readStudentRecords(file);
+		assertEquals(expected.size(), actual.size(), file);
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).toString(), actual.get(i).toString(), file);
+		}
+	}
+
+	/**
+	 * Returns the string of each item in the list.
+	 *
+	 * @param list the list of items
+	 * @return the strings of the items, in order
+	 */
+	static List<String> strings(List<?> list) {
+		List<String> strings = new ArrayList<String>();
+		for (Object o : list) {
+			strings.add(o.toString());
+		}
+		return strings;
+	}
+}
@@ -0,0 +1,166 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests RecordTokenizer.
+ *
+ * @author Will Pressler
+ *
+ */
+public class RecordTokenizerTest {
+
+	/**
+	 * Tests splitting a source into lines.
+	 */
+	@Test
+	public void testNextLine() {
+		RecordTokenizer t = new RecordTokenizer(new StringReader("a\nb\r\nc\rd\n\ne"));
+		String[] lines = { "a", "b", "c", "d", "", "e" };
+		for (String line : lines) {
+			assertTrue(t.nextLine());
+			// an empty line has no fields, as for a Scanner
+			assertEquals(!line.isEmpty(), t.hasNext());
+			if (!line.isEmpty()) {
+				assertEquals(line, t.next());
+			}
+			assertFalse(t.isMalformed());
+		}
+		assertFalse(t.nextLine());
+		assertFalse(t.nextLine());
+
+		t = new RecordTokenizer(new StringReader(""));
+		assertFalse(t.nextLine());
+
+		t = new RecordTokenizer(new StringReader("a\r\n"));
+		assertTrue(t.nextLine());
+		assertFalse(t.nextLine());
+
+		// lines longer than the starting line buffer
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			sb.append(i).append(',');
+		}
+		t = new RecordTokenizer(new StringReader(sb.toString()));
+		assertTrue(t.nextLine());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i, t.nextInt());
+		}
+		assertFalse(t.hasNext());
+		assertFalse(t.isMalformed());
+	}
+
+	/**
+	 * Tests that fields and ints are read the same way as a Scanner using "," as
+	 * its delimiter.
+	 */
+	@Test
+	public void testMatchesScanner() {
+		String[] lines = { "a,b,c", "a,,b", ",a,b", "a,b,", "a,b,,", ",,a", "a, b ,c", "", "a,b, ", "," };
+		for (String line : lines) {
+			assertEquals(scannerFields(line), tokenizerFields(line), line);
+		}
+
+		String[] ints = { "10", "+10", "-10", "0910", "\u0663", "2147483647", "-2147483648", " 10", "10 ", "1_0",
+				"99999999999", "2147483648", "-2147483649", "1.0", "-", "+", "" };
+		for (String value : ints) {
+			assertEquals(scannerInt(value), tokenizerInt(value), value);
+		}
+	}
+
+	/**
+	 * Tests that a missing or invalid field marks the line as malformed until the
+	 * next line.
+	 */
+	@Test
+	public void testMalformed() {
+		RecordTokenizer t = new RecordTokenizer(new StringReader("a,x,b\na"));
+		assertTrue(t.nextLine());
+		assertEquals("a", t.next());
+		assertEquals(0, t.nextInt());
+		assertTrue(t.isMalformed());
+		assertNull(t.next());
+		assertFalse(t.hasNext());
+
+		assertTrue(t.nextLine());
+		assertFalse(t.isMalformed());
+		assertEquals("a", t.next());
+		assertNull(t.next());
+		assertTrue(t.isMalformed());
+	}
+
+	/**
+	 * Returns the fields a Scanner reads from the line.
+	 *
+	 * @param line the line to read
+	 * @return the fields separated by "|"
+	 */
+	private static String scannerFields(String line) {
+		Scanner s = new Scanner(line);
+		s.useDelimiter(",");
+		StringBuilder sb = new StringBuilder();
+		while (s.hasNext()) {
+			sb.append(s.next()).append('|');
+		}
+		s.close();
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the fields the tokenizer reads from the line.
+	 *
+	 * @param line the line to read
+	 * @return the fields separated by "|"
+	 */
+	private static String tokenizerFields(String line) {
+		RecordTokenizer t = new RecordTokenizer(new StringReader(line));
+		t.nextLine();
+		StringBuilder sb = new StringBuilder();
+		while (t.hasNext()) {
+			sb.append(t.next()).append('|');
+		}
+		t.close();
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the int a Scanner reads from the field.
+	 *
+	 * @param value the field to read
+	 * @return the int, or "invalid" if the Scanner cannot read it
+	 */
+	private static String scannerInt(String value) {
+		Scanner s = new Scanner(value);
+		s.useDelimiter(",");
+		try {
+			return String.valueOf(s.nextInt());
+		} catch (NoSuchElementException e) {
+			return "invalid";
+		} finally {
+			s.close();
+		}
+	}
+
+	/**
+	 * Returns the int the tokenizer reads from the field.
+	 *
+	 * @param value the field to read
+	 * @return the int, or "invalid" if the tokenizer cannot read it
+	 */
+	private static String tokenizerInt(String value) {
+		RecordTokenizer t = new RecordTokenizer(new StringReader(value));
+		t.nextLine();
+		int read = t.nextInt();
+		t.close();
+		return t.isMalformed() ? "invalid" : String.valueOf(read);
+	}
+}
@@ -0,0 +1,169 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests RecordWriter.
+ *
+ * @author Will Pressler
+ *
+ */
+public class RecordWriterTest {
+
+	/** Directory the test files are written in */
+	private Path directory;
+	/** File the writer replaces */
+	private Path file;
+
+	/**
+	 * Creates an empty directory for the test files.
+	 *
+	 * @throws IOException if the directory cannot be created
+	 */
+	@BeforeEach
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("records");
+		file = directory.resolve("records.txt");
+	}
+
+	/**
+	 * Deletes the test files.
+	 *
+	 * @throws IOException if the files cannot be deleted
+	 */
+	@AfterEach
+	public void tearDown() throws IOException {
+		for (Path p : list()) {
+			Files.delete(p);
+		}
+		Files.delete(directory);
+	}
+
+	/**
+	 * Tests that the file is written the same as PrintStream.println() would
+	 * write it, including lines longer than the buffer.
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	@Test
+	public void testWriteLines() throws IOException {
+		List<String> lines = new ArrayList<String>();
+		lines.add("CSC216,Software Development Fundamentals,001,3,sesmith5,10,TH,1330,1445");
+		lines.add("");
+		StringBuilder longLine = new StringBuilder();
+		for (int i = 0; i < RecordWriter.BUFFER_SIZE / 4; i++) {
+			longLine.append("ab\u00e9,");
+		}
+		lines.add(longLine.toString());
+		for (int i = 0; i < 5000; i++) {
+			lines.add("First" + i + ",Last" + i + ",id" + i + ",id" + i + "@ncsu.edu,pw," + (i % 16 + 3));
+		}
+
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		PrintStream printer = new PrintStream(expected);
+		RecordWriter writer = new RecordWriter(file.toString());
+		for (String line : lines) {
+			printer.println(line);
+			writer.writeLine(line);
+		}
+		printer.close();
+		writer.commit();
+		writer.close();
+
+		assertEquals(expected.toString(), new String(Files.readAllBytes(file)));
+		assertEquals(1, list().size());
+	}
+
+	/**
+	 * Tests that bytes written through stream() reach the file in order, around
+	 * the lines written with writeLine() and across buffer boundaries.
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	@Test
+	public void testStream() throws IOException {
+		byte[] block = new byte[RecordWriter.BUFFER_SIZE + 7];
+		for (int i = 0; i < block.length; i++) {
+			block[i] = (byte) i;
+		}
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		RecordWriter writer = new RecordWriter(file.toString());
+		OutputStream stream = writer.stream();
+		writer.writeLine("header");
+		expected.write(("header" + System.lineSeparator()).getBytes());
+		for (int i = 0; i < 3; i++) {
+			stream.write(block);
+			expected.write(block);
+			stream.write(i);
+			expected.write(i);
+		}
+		stream.close();
+		assertFalse(Files.exists(file));
+		writer.commit();
+		writer.close();
+
+		assertArrayEquals(expected.toByteArray(), Files.readAllBytes(file));
+		assertEquals(1, list().size());
+	}
+
+	/**
+	 * Tests that a writer closed without being committed leaves the old file as it
+	 * was and deletes its temporary file.
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	@Test
+	public void testCloseWithoutCommit() throws IOException {
+		Files.write(file, "old contents".getBytes());
+		RecordWriter writer = new RecordWriter(file.toString());
+		for (int i = 0; i < 10000; i++) {
+			writer.writeLine("new contents " + i);
+		}
+		assertEquals(2, list().size());
+		writer.close();
+
+		assertEquals("old contents", new String(Files.readAllBytes(file)));
+		assertEquals(1, list().size());
+	}
+
+	/**
+	 * Tests that a writer cannot be created in a directory that does not exist.
+	 */
+	@Test
+	public void testMissingDirectory() {
+		assertThrows(IOException.class, () -> new RecordWriter(directory.resolve("none/records.txt").toString()));
+	}
+
+	/**
+	 * Returns the files in the test directory.
+	 *
+	 * @return the files in the directory
+	 * @throws IOException if the directory cannot be read
+	 */
+	private List<Path> list() throws IOException {
+		List<Path> files = new ArrayList<Path>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+			for (Path p : stream) {
+				files.add(p);
+			}
+		}
+		return files;
+	}
+}
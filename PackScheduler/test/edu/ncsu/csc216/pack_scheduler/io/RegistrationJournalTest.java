@@ -0,0 +1,178 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.io.JournalEntry.Operation;
+
+/**
+ * Tests RegistrationJournal.
+ *
+ * @author Will Pressler
+ *
+ */
+public class RegistrationJournalTest {
+
+	/** Journal file used by each test */
+	private Path file;
+
+	/**
+	 * Creates an empty journal file.
+	 *
+	 * @throws IOException if the file cannot be created
+	 */
+	@BeforeEach
+	public void setUp() throws IOException {
+		file = Files.createTempFile("registration", ".journal");
+	}
+
+	/**
+	 * Deletes the journal file.
+	 *
+	 * @throws IOException if the file cannot be deleted
+	 */
+	@AfterEach
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * Tests that appended entries are read back when the journal is opened again,
+	 * and that clearing the journal removes them.
+	 *
+	 * @throws IOException if the journal cannot be written
+	 */
+	@Test
+	public void testAppendAndRecover() throws IOException {
+		List<JournalEntry> entries = Arrays.asList(new JournalEntry(Operation.ENROLL, "efrost", "CSC216", "001"),
+				new JournalEntry(Operation.DROP, "efrost", "CSC216", "001"),
+				new JournalEntry(Operation.RESET_SCHEDULE, "ahicks", "ignored", "ignored"),
+				new JournalEntry(Operation.ADD_FACULTY, "awitt", "CSC216", "\u00e9t\u00e9"));
+		RegistrationJournal journal = new RegistrationJournal(file.toString());
+		assertEquals(0, journal.getRecoveredEntries().size());
+		for (JournalEntry entry : entries) {
+			journal.append(entry);
+		}
+		journal.close();
+		assertThrows(IOException.class, () -> journal.append(entries.get(0)));
+
+		RegistrationJournal reopened = new RegistrationJournal(file.toString());
+		assertEquals(strings(entries), strings(reopened.getRecoveredEntries()));
+		assertEquals("RESET_SCHEDULE,ahicks", reopened.getRecoveredEntries().get(2).toString());
+		reopened.append(entries.get(0));
+		reopened.clear();
+		reopened.append(entries.get(1));
+		reopened.close();
+
+		RegistrationJournal cleared = new RegistrationJournal(file.toString());
+		assertEquals(strings(entries.subList(1, 2)), strings(cleared.getRecoveredEntries()));
+		cleared.close();
+	}
+
+	/**
+	 * Tests that a record cut short or damaged by a crash, and everything after
+	 * it, is dropped when the journal is opened.
+	 *
+	 * @throws IOException if the journal cannot be written
+	 */
+	@Test
+	public void testTornRecord() throws IOException {
+		RegistrationJournal journal = new RegistrationJournal(file.toString());
+		journal.append(new JournalEntry(Operation.ENROLL, "efrost", "CSC216", "001"));
+		journal.append(new JournalEntry(Operation.ENROLL, "ahicks", "CSC216", "001"));
+		journal.close();
+		byte[] bytes = Files.readAllBytes(file);
+		int firstLength = RegistrationJournal.encode(new JournalEntry(Operation.ENROLL, "efrost", "CSC216", "001")).length;
+
+		Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+		journal = new RegistrationJournal(file.toString());
+		assertEquals(1, journal.getRecoveredEntries().size());
+		assertEquals(firstLength, Files.size(file));
+		// new entries go after the last good record
+		journal.append(new JournalEntry(Operation.DROP, "efrost", "CSC216", "001"));
+		journal.close();
+		journal = new RegistrationJournal(file.toString());
+		assertEquals("DROP,efrost,CSC216,001", journal.getRecoveredEntries().get(1).toString());
+		journal.close();
+
+		bytes[firstLength + 10] ^= 1;
+		Files.write(file, bytes);
+		journal = new RegistrationJournal(file.toString());
+		assertEquals(1, journal.getRecoveredEntries().size());
+		journal.close();
+	}
+
+	/**
+	 * Tests that entries appended by many threads at once are all written, each
+	 * thread's in order, with no more forces than entries.
+	 *
+	 * @throws Exception if the journal cannot be written or a thread is
+	 *                   interrupted
+	 */
+	@Test
+	public void testConcurrentAppends() throws Exception {
+		final int threads = 8;
+		final int perThread = 50;
+		RegistrationJournal journal = new RegistrationJournal(file.toString());
+		List<Thread> workers = new ArrayList<Thread>();
+		List<Throwable> errors = new ArrayList<Throwable>();
+		for (int t = 0; t < threads; t++) {
+			String id = "student" + t;
+			Thread worker = new Thread(() -> {
+				try {
+					for (int i = 0; i < perThread; i++) {
+						journal.append(new JournalEntry(Operation.ENROLL, id, "CSC" + i, "001"));
+					}
+				} catch (IOException e) {
+					synchronized (errors) {
+						errors.add(e);
+					}
+				}
+			});
+			workers.add(worker);
+			worker.start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		assertEquals(0, errors.size());
+		assertTrue(journal.getSyncCount() <= threads * perThread);
+		journal.close();
+
+		RegistrationJournal reopened = new RegistrationJournal(file.toString());
+		List<JournalEntry> recovered = reopened.getRecoveredEntries();
+		reopened.close();
+		assertEquals(threads * perThread, recovered.size());
+		int[] next = new int[threads];
+		for (JournalEntry entry : recovered) {
+			int t = Integer.parseInt(entry.getUserId().substring("student".length()));
+			assertEquals("CSC" + next[t]++, entry.getCourseName());
+		}
+	}
+
+	/**
+	 * Returns the string of each entry.
+	 *
+	 * @param entries the entries
+	 * @return the strings of the entries, in order
+	 */
+	private static List<String> strings(List<JournalEntry> entries) {
+		List<String> strings = new ArrayList<String>();
+		for (JournalEntry entry : entries) {
+			strings.add(entry.toString());
+		}
+		return strings;
+	}
+}
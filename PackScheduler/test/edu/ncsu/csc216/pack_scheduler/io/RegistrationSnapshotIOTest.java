@@ -0,0 +1,151 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.user.Faculty;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Tests RegistrationSnapshotIO.
+ *
+ * @author Will Pressler
+ *
+ */
+public class RegistrationSnapshotIOTest {
+
+	/**
+	 * Tests that the catalog, directories, rolls, waitlists, and schedules read
+	 * from a snapshot match the ones that were written.
+	 *
+	 * @throws IOException if the snapshot cannot be written or read
+	 */
+	@Test
+	public void testRoundTrip() throws IOException {
+		Course full = new Course("CSC216", "Software Development Fundamentals", "001", 3, null, 10, "MW", 1330,
+				1445);
+		Course arranged = new Course("CSC299", "Independent Study", "601", 3, "ghost", 10, "A");
+		Course open = new Course("MA141", "Calculus I", "002", 4, null, 12, "TH", 800, 915);
+		List<Course> courses = Arrays.asList(full, arranged, open);
+
+		Faculty faculty = new Faculty("Sarah", "Heckman", "sesmith5", "sesmith5@ncsu.edu", "hashedpw", 2);
+		faculty.getSchedule().addCourseToSchedule(full);
+
+		List<Student> students = new ArrayList<Student>();
+		for (int i = 0; i < 12; i++) {
+			Student s = new Student("First" + i, "Last" + i, "id" + i, "id" + i + "@ncsu.edu", "pw" + i, 15);
+			students.add(s);
+			full.getCourseRoll().enroll(s);
+		}
+		students.get(0).getSchedule().setTitle("Fall \u00e9t\u00e9");
+		open.getCourseRoll().enroll(students.get(0));
+		open.getCourseRoll().enroll(students.get(11));
+
+		Path file = Files.createTempFile("snapshot", ".bin");
+		try {
+			RegistrationSnapshotIO.writeSnapshot(file.toString(), courses, students, Arrays.asList(faculty));
+			RegistrationSnapshot snapshot = RegistrationSnapshotIO.readSnapshot(file.toString());
+
+			List<Course> readCourses = snapshot.getCourses();
+			assertEquals(strings(courses), strings(readCourses));
+			Course readFull = readCourses.get(0);
+			Course readOpen = readCourses.get(2);
+			assertEquals(ids(full.getCourseRoll().getEnrolledStudents()),
+					ids(readFull.getCourseRoll().getEnrolledStudents()));
+			assertEquals(Arrays.asList("id10", "id11"), ids(readFull.getCourseRoll().getWaitlistedStudents()));
+			assertEquals(0, readFull.getCourseRoll().getOpenSeats());
+			assertEquals(Arrays.asList("id0", "id11"), ids(readOpen.getCourseRoll().getEnrolledStudents()));
+			assertEquals("ghost", readCourses.get(1).getInstructorId());
+			assertNull(readOpen.getInstructorId());
+
+			Faculty readFaculty = snapshot.getFaculty().get(0);
+			assertEquals(faculty.toString(), readFaculty.toString());
+			assertEquals(1, readFaculty.getSchedule().getCourses().size());
+			assertEquals(readFull, readFaculty.getSchedule().getCourses().get(0));
+			assertEquals("sesmith5", readFull.getInstructorId());
+
+			List<Student> readStudents = snapshot.getStudents();
+			assertEquals(students.size(), readStudents.size());
+			for (int i = 0; i < readStudents.size(); i++) {
+				Student s = readStudents.get(i);
+				Student original = students.get(Integer.parseInt(s.getId().substring(2)));
+				assertEquals(original.toString(), s.toString());
+				assertEquals(original.getSchedule().getTitle(), s.getSchedule().getTitle());
+				assertEquals(strings(original.getSchedule().getCourses()), strings(s.getSchedule().getCourses()));
+			}
+			// the scheduled Courses are the Courses of the catalog, not copies
+			Student first = readFull.getCourseRoll().getEnrolledStudents().get(0);
+			assertEquals(readFull, first.getSchedule().getCourses().get(0));
+			assertEquals(readOpen, first.getSchedule().getCourses().get(1));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	/**
+	 * Tests that files that are not snapshots, or are cut short, are rejected.
+	 *
+	 * @throws IOException if the test files cannot be written
+	 */
+	@Test
+	public void testInvalidSnapshot() throws IOException {
+		Path file = Files.createTempFile("snapshot", ".bin");
+		try {
+			assertThrows(IOException.class,
+					() -> RegistrationSnapshotIO.readSnapshot("test-files/course_records.txt"));
+			assertThrows(IOException.class, () -> RegistrationSnapshotIO.readSnapshot(file.toString()));
+
+			Course c = new Course("CSC216", "Software Development Fundamentals", "001", 3, null, 10, "MW", 1330,
+					1445);
+			Student s = new Student("First", "Last", "id", "id@ncsu.edu", "pw", 15);
+			c.getCourseRoll().enroll(s);
+			RegistrationSnapshotIO.writeSnapshot(file.toString(), Arrays.asList(c), Arrays.asList(s),
+					new ArrayList<Faculty>());
+			byte[] bytes = Files.readAllBytes(file);
+			Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+			Exception e = assertThrows(IOException.class, () -> RegistrationSnapshotIO.readSnapshot(file.toString()));
+			assertEquals("Invalid snapshot", e.getMessage());
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	/**
+	 * Returns the ids of the Students, in order.
+	 *
+	 * @param students the Students
+	 * @return the ids of the Students
+	 */
+	private static List<String> ids(List<Student> students) {
+		List<String> ids = new ArrayList<String>();
+		for (Student s : students) {
+			ids.add(s.getId());
+		}
+		return ids;
+	}
+
+	/**
+	 * Returns the string of each item in the list.
+	 *
+	 * @param list the list of items
+	 * @return the strings of the items, in order
+	 */
+	private static List<String> strings(List<?> list) {
+		List<String> strings = new ArrayList<String>();
+		for (Object o : list) {
+			strings.add(o.toString());
+		}
+		return strings;
+	}
+}
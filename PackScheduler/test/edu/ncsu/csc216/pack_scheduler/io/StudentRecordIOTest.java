@@ -8,8 +8,11 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Scanner;
 
@@ -98,6 +101,27 @@ class StudentRecordIOTest {
 		}
 	}
 
+	/**
+	 * Tests that readStudentRecords() keeps only the first student read with each
+	 * id.
+	 */
+	@Test
+	public void testReadDuplicateStudentRecords() {
+		try {
+			Path file = Files.createTempFile("duplicate_student_records", ".txt");
+			Files.write(file, Arrays.asList(validStudents[6], validStudents[0],
+					"Zahir,Queen,zking,orci.Donec@ametmassaQuisque.com,pw,12", validStudents[6]));
+			SortedList<Student> students = StudentRecordIO.readStudentRecords(file.toString());
+			Files.delete(file);
+
+			assertEquals(2, students.size());
+			assertEquals(validStudents[0], students.get(0).toString());
+			assertEquals(validStudents[6], students.get(1).toString());
+		} catch (IOException e) {
+			fail("Unexpected error writing duplicate student records");
+		}
+	}
+
 	/**
 	 * Tests readStudentRecords() for invalid input.
 	 */
@@ -1,10 +1,14 @@
 package edu.ncsu.csc216.pack_scheduler.manager;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
@@ -573,6 +577,118 @@ public class RegistrationManagerTest {
 		assertDoesNotThrow(() -> manager.resetFacultySchedule(f));
 	}
 	
+	/**
+	 * Tests that changes written to the journal are applied again when it is
+	 * opened on top of the files they were made to.
+	 * 
+	 * @throws IOException if the journal file cannot be created
+	 */
+	@Test
+	public void testJournal() throws IOException {
+		Path journal = Files.createTempFile("registration", ".journal");
+		try {
+			loadRecords();
+			assertEquals(0, manager.openJournal(journal.toString()));
+
+			manager.login("efrost", "pw");
+			assertTrue(manager.enrollStudentInCourse(manager.getCourseCatalog().getCourseFromCatalog("CSC216", "001")));
+			manager.logout();
+			manager.login("ahicks", "pw");
+			assertTrue(manager.enrollStudentInCourse(manager.getCourseCatalog().getCourseFromCatalog("CSC216", "001")));
+			assertTrue(manager.enrollStudentInCourse(manager.getCourseCatalog().getCourseFromCatalog("CSC226", "001")));
+			assertTrue(manager.dropStudentFromCourse(manager.getCourseCatalog().getCourseFromCatalog("CSC226", "001")));
+			// rejected changes are not journaled
+			assertFalse(manager.enrollStudentInCourse(manager.getCourseCatalog().getCourseFromCatalog("CSC216", "001")));
+			manager.logout();
+			manager.login(registrarUsername, registrarPassword);
+			Course assigned = manager.getCourseCatalog().getCourseFromCatalog("CSC216", "002");
+			assertTrue(manager.addFacultyToCourse(assigned, manager.getFacultyDirectory().getFacultyById("awitt")));
+			manager.logout();
+			manager.closeJournal();
+
+			// start over from the files, as after a crash
+			manager.clearData();
+			loadRecords();
+			assertEquals(5, manager.openJournal(journal.toString()));
+
+			CourseCatalog catalog = manager.getCourseCatalog();
+			assertEquals(8, catalog.getCourseFromCatalog("CSC216", "001").getCourseRoll().getOpenSeats());
+			assertEquals(10, catalog.getCourseFromCatalog("CSC226", "001").getCourseRoll().getOpenSeats());
+			assertEquals(1, manager.getStudentDirectory().getStudentById("efrost").getSchedule().getScheduledCourses().length);
+			String[][] hicks = manager.getStudentDirectory().getStudentById("ahicks").getSchedule().getScheduledCourses();
+			assertEquals(1, hicks.length);
+			assertEquals("CSC216", hicks[0][0]);
+			assertEquals("awitt", catalog.getCourseFromCatalog("CSC216", "002").getInstructorId());
+			assertEquals(1, manager.getFacultyDirectory().getFacultyById("awitt").getSchedule().getNumScheduledCourses());
+
+			// a snapshot that cannot be saved leaves the journal alone
+			long journaled = Files.size(journal);
+			String missing = journal.resolveSibling("none").resolve("registration.snapshot").toString();
+			assertThrows(IllegalArgumentException.class, () -> manager.saveSnapshot(missing));
+			assertEquals(journaled, Files.size(journal));
+
+			// a snapshot has every change, so saving one clears the journal
+			Path snapshot = Files.createTempFile("registration", ".snapshot");
+			try {
+				manager.saveSnapshot(snapshot.toString());
+				assertEquals(0, Files.size(journal));
+				manager.closeJournal();
+				manager.clearData();
+				manager.loadSnapshot(snapshot.toString());
+				assertEquals(0, manager.openJournal(journal.toString()));
+				assertEquals(8, manager.getCourseCatalog().getCourseFromCatalog("CSC216", "001").getCourseRoll()
+						.getOpenSeats());
+			} finally {
+				Files.delete(snapshot);
+			}
+		} finally {
+			manager.logout();
+			manager.closeJournal();
+			Files.delete(journal);
+		}
+	}
+
+	/**
+	 * Tests that a change whose journal entry cannot be written is kept in
+	 * memory, and that the method that made it says so by throwing. The journal
+	 * is /dev/full, where every write fails, so the test is skipped on platforms
+	 * without it.
+	 */
+	@Test
+	public void testJournalWriteFails() {
+		Path full = Paths.get("/dev/full");
+		assumeTrue(Files.isWritable(full));
+		loadRecords();
+		assertEquals(0, manager.openJournal(full.toString()));
+		try {
+			Course c = manager.getCourseCatalog().getCourseFromCatalog("CSC216", "001");
+			manager.login("efrost", "pw");
+			Exception e = assertThrows(IllegalArgumentException.class, () -> manager.enrollStudentInCourse(c));
+			assertEquals("Unable to write to journal", e.getMessage());
+			// the enrollment was made before the journal failed, so it is kept
+			assertEquals(9, c.getCourseRoll().getOpenSeats());
+			assertEquals(1, manager.getStudentDirectory().getStudentById("efrost").getSchedule()
+					.getScheduledCourses().length);
+
+			// the journal stays failed, so later changes throw too
+			e = assertThrows(IllegalArgumentException.class, () -> manager.dropStudentFromCourse(c));
+			assertEquals("Unable to write to journal", e.getMessage());
+			assertEquals(10, c.getCourseRoll().getOpenSeats());
+		} finally {
+			manager.logout();
+			assertThrows(IllegalArgumentException.class, () -> manager.closeJournal());
+		}
+	}
+
+	/**
+	 * Loads the test course, student, and faculty records into the manager. The
+	 * courses are loaded first, so none of them has an instructor.
+	 */
+	private void loadRecords() {
+		manager.getCourseCatalog().loadCoursesFromFile("test-files/course_records.txt");
+		manager.getStudentDirectory().loadStudentsFromFile("test-files/student_records.txt");
+		manager.getFacultyDirectory().loadFacultyFromFile("test-files/faculty_records.txt");
+	}
 
 	/**
 	 * Returns an encoded password.
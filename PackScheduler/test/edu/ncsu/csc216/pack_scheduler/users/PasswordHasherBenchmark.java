@@ -0,0 +1,110 @@
+package edu.ncsu.csc216.pack_scheduler.users;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import edu.ncsu.csc216.pack_scheduler.user.PasswordHasher;
+
+/**
+ * Compares the throughput of PasswordHasher with hashing through a new
+ * MessageDigest for every password, the way the directories and the
+ * registration manager used to, with several threads hashing at once like
+ * logins during a bulk import. Run from the project directory with
+ * "java edu.ncsu.csc216.pack_scheduler.users.PasswordHasherBenchmark [threads]
+ * [passwords per thread]". It is not a JUnit test, so it does not slow down the
+ * test suite.
+ *
+ * @author Will Pressler
+ *
+ */
+public class PasswordHasherBenchmark {
+
+	/** Number of times each hasher is run before it is timed */
+	private static final int WARMUPS = 3;
+	/** Number of timed runs of each hasher */
+	private static final int RUNS = 5;
+
+	/**
+	 * Hashes a password.
+	 */
+	private interface Hasher {
+
+		/**
+		 * Hashes a password.
+		 *
+		 * @param password the password
+		 * @return the encoded digest
+		 * @throws NoSuchAlgorithmException if SHA-256 is not available
+		 */
+		String hash(String password) throws NoSuchAlgorithmException;
+	}
+
+	/**
+	 * Runs the benchmark and prints the passwords hashed per second by each
+	 * hasher.
+	 *
+	 * @param args the number of threads, then the passwords each thread hashes
+	 * @throws InterruptedException if the benchmark is interrupted
+	 * @throws ExecutionException   if a thread fails
+	 */
+	public static void main(String[] args) throws InterruptedException, ExecutionException {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			for (int i = 0; i < WARMUPS; i++) {
+				run(pool, threads, perThread, PasswordHasherTest::reference);
+				run(pool, threads, perThread, PasswordHasher::hash);
+			}
+			double reference = 0;
+			double hasher = 0;
+			for (int i = 0; i < RUNS; i++) {
+				reference = Math.max(reference, run(pool, threads, perThread, PasswordHasherTest::reference));
+				hasher = Math.max(hasher, run(pool, threads, perThread, PasswordHasher::hash));
+			}
+			System.out.printf("%d threads, %d passwords each, best of %d runs%n", threads, perThread, RUNS);
+			System.out.printf("new MessageDigest per password: %,.0f hashes/s%n", reference);
+			System.out.printf("PasswordHasher:                 %,.0f hashes/s (%.2fx)%n", hasher, hasher / reference);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Hashes passwords on every thread at once and returns the hashes per second.
+	 *
+	 * @param pool      the threads
+	 * @param threads   the number of threads
+	 * @param perThread the passwords each thread hashes
+	 * @param hasher    the hasher to time
+	 * @return the passwords hashed per second
+	 * @throws InterruptedException if the benchmark is interrupted
+	 * @throws ExecutionException   if a thread fails
+	 */
+	private static double run(ExecutorService pool, int threads, int perThread, Hasher hasher)
+			throws InterruptedException, ExecutionException {
+		List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+		for (int t = 0; t < threads; t++) {
+			final String prefix = "password" + t + "-";
+			tasks.add(() -> {
+				int checksum = 0;
+				for (int i = 0; i < perThread; i++) {
+					checksum += hasher.hash(prefix + i).charAt(0);
+				}
+				return checksum;
+			});
+		}
+		long start = System.nanoTime();
+		for (Future<Integer> f : pool.invokeAll(tasks)) {
+			f.get();
+		}
+		long elapsed = System.nanoTime() - start;
+		return (double) threads * perThread * 1e9 / elapsed;
+	}
+}
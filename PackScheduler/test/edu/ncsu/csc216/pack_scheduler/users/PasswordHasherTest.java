@@ -0,0 +1,112 @@
+package edu.ncsu.csc216.pack_scheduler.users;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Field;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.user.PasswordHasher;
+
+/**
+ * Tests PasswordHasher against hashing with a new MessageDigest for every
+ * password.
+ *
+ * @author Will Pressler
+ *
+ */
+public class PasswordHasherTest {
+
+	/**
+	 * Tests short, long, empty, and non-ASCII passwords, one after another on the
+	 * same thread.
+	 *
+	 * @throws NoSuchAlgorithmException if SHA-256 is not available
+	 */
+	@Test
+	public void testHash() throws NoSuchAlgorithmException {
+		StringBuilder longPassword = new StringBuilder();
+		for (int i = 0; i < 300; i++) {
+			longPassword.append((char) ('a' + i % 26));
+		}
+		String[] passwords = { "pw", "", longPassword.toString(), "p\u00e4ssw\u00f6rd", "pw", "\u4e2d\u6587", "pw2" };
+		for (String password : passwords) {
+			assertEquals(reference(password), PasswordHasher.hash(password), password);
+		}
+		Exception e = assertThrows(IllegalArgumentException.class, () -> PasswordHasher.hash(null));
+		assertEquals("Cannot hash password", e.getMessage());
+	}
+
+	/**
+	 * Tests that threads hashing at the same time each get the right hashes.
+	 *
+	 * @throws InterruptedException if the test is interrupted
+	 * @throws ExecutionException   if a thread fails
+	 */
+	@Test
+	public void testConcurrentHash() throws InterruptedException, ExecutionException {
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+			for (int t = 0; t < 8; t++) {
+				final int thread = t;
+				futures.add(pool.submit(() -> {
+					for (int i = 0; i < 500; i++) {
+						String password = "pw" + thread + "-" + i + (i % 7 == 0 ? "\u00e9" : "");
+						assertEquals(reference(password), PasswordHasher.hash(password));
+					}
+					return thread;
+				}));
+			}
+			for (int t = 0; t < futures.size(); t++) {
+				assertEquals(t, futures.get(t).get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Tests that the password bytes are not left in the reused buffer of the
+	 * thread once the password is hashed.
+	 *
+	 * @throws ReflectiveOperationException if the buffer cannot be read
+	 */
+	@Test
+	public void testInputCleared() throws ReflectiveOperationException {
+		String password = "secret-password";
+		PasswordHasher.hash(password);
+		Field stateField = PasswordHasher.class.getDeclaredField("STATE");
+		stateField.setAccessible(true);
+		Object state = ((ThreadLocal<?>) stateField.get(null)).get();
+		Field inputField = state.getClass().getDeclaredField("input");
+		inputField.setAccessible(true);
+		byte[] input = (byte[]) inputField.get(state);
+		for (int i = 0; i < input.length; i++) {
+			assertEquals(0, input[i], "byte " + i);
+		}
+	}
+
+	/**
+	 * Hashes a password the way the directories did before PasswordHasher.
+	 *
+	 * @param password the password to hash
+	 * @return the encoded digest of the password
+	 * @throws NoSuchAlgorithmException if SHA-256 is not available
+	 */
+	static String reference(String password) throws NoSuchAlgorithmException {
+		MessageDigest digest = MessageDigest.getInstance("SHA-256");
+		digest.update(password.getBytes());
+		return Base64.getEncoder().encodeToString(digest.digest());
+	}
+}
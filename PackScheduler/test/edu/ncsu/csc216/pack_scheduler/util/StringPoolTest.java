@@ -0,0 +1,72 @@
+package edu.ncsu.csc216.pack_scheduler.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+
+/**
+ * Tests StringPool.
+ *
+ * @author Will Pressler
+ *
+ */
+class StringPoolTest {
+
+	/**
+	 * Tests that equal strings are interned to the same copy.
+	 */
+	@Test
+	void testIntern() {
+		String first = new String("Software Development Fundamentals");
+		String second = new String("Software Development Fundamentals");
+		assertNotSame(first, second);
+
+		String shared = StringPool.intern(first);
+		assertEquals(first, shared);
+		assertSame(shared, StringPool.intern(second));
+		assertTrue(StringPool.size() > 0);
+		assertNull(StringPool.intern(null));
+	}
+
+	/**
+	 * Tests that strings nothing refers to any more are dropped from the pool,
+	 * instead of the pool growing with every string it has seen.
+	 *
+	 * @throws InterruptedException if the test is interrupted while waiting for
+	 *                              the garbage collector
+	 */
+	@Test
+	void testUnusedStringsDropped() throws InterruptedException {
+		int before = StringPool.size();
+		String[] kept = new String[1000];
+		for (int i = 0; i < kept.length; i++) {
+			kept[i] = StringPool.intern("unused-" + i);
+		}
+		assertTrue(StringPool.size() >= before + kept.length);
+
+		kept = null;
+		for (int i = 0; i < 20 && StringPool.size() >= before + 1000; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		assertTrue(StringPool.size() < before + 1000);
+	}
+
+	/**
+	 * Tests that Courses built from separate copies of the same strings share
+	 * them.
+	 */
+	@Test
+	void testCoursesShareStrings() {
+		Course c1 = new Course(new String("CSC216"), new String("Software Development Fundamentals"), "001", 3,
+				new String("sesmith5"), 10, new String("MW"), 1330, 1445);
+		Course c2 = new Course(new String("CSC216"), new String("Software Development Fundamentals"), "002", 3,
+				new String("sesmith5"), 10, new String("MW"), 1500, 1615);
+		assertSame(c1.getName(), c2.getName());
+		assertSame(c1.getTitle(), c2.getTitle());
+		assertSame(c1.getInstructorId(), c2.getInstructorId());
+		assertSame(c1.getMeetingDays(), c2.getMeetingDays());
+	}
+}